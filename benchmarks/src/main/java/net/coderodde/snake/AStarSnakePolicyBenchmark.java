@@ -0,0 +1,62 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark reports how many decisions per second the 
+ * {@link AStarSnakePolicy} makes. The game is first played by the policy 
+ * itself for {@code playedSteps} steps, so that the snake is long and the 
+ * board cluttered; then the same position is decided over and over.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AStarSnakePolicyBenchmark {
+    
+    @Param({"64", "256"})
+    private int gridSize;
+    
+    @Param({"0", "50000"})
+    private int playedSteps;
+    
+    private AStarSnakePolicy policy;
+    private GameEngine gameEngine;
+    
+    @Setup
+    public void setup() {
+        Random random = new Random(21L);
+        policy = new AStarSnakePolicy();
+        gameEngine = new GameEngine(gridSize, gridSize, random);
+        
+        for (int i = 0; i < playedSteps; i++) {
+            GameEngine engine = gameEngine;
+            
+            if (engine.step(policy.chooseDirection(engine)).isTerminal()) {
+                gameEngine = new GameEngine(gridSize, gridSize, random);
+            }
+        }
+    }
+    
+    @Benchmark
+    public MotionDirection decide() {
+        return policy.chooseDirection(gameEngine);
+    }
+}
@@ -0,0 +1,63 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class runs an {@link Arena} of bots headless and prints the tick 
+ * rate. Each bot turns to a random free cell if the cell ahead is not free.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ArenaDemo {
+    
+    private ArenaDemo() {}
+    
+    /**
+     * Runs the arena.
+     * 
+     * @param args the optional number of bots, the side length of the grid,
+     *             the number of ticks and the number of threads.
+     */
+    public static void main(String[] args) {
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int gridSize = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        int tickCount = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        ForkJoinPool forkJoinPool = args.length > 3 ? 
+                new ForkJoinPool(Integer.parseInt(args[3])) : 
+                null;
+        Arena arena = new Arena(new GameGrid(gridSize, gridSize), 
+                                botCount, 
+                                new Random(0L));
+        Random random = new Random(1L);
+        
+        for (int i = 0; i < botCount; i++) {
+            // Spread the bots over the rows, four cells long each.
+            int slotsPerRow = gridSize / 6;
+            arena.addSnake(6 * (i % slotsPerRow) + 4, 
+                           2 * (i / slotsPerRow), 
+                           MotionDirection.EAST, 
+                           4);
+        }
+        
+        MotionDirection[] directions = new MotionDirection[botCount];
+        long startTime = System.nanoTime();
+        
+        for (int tick = 0; tick < tickCount; tick++) {
+            Arena.chooseDirections(arena, random, directions);
+            arena.tick(directions, forkJoinPool);
+        }
+        
+        long duration = System.nanoTime() - startTime;
+        System.out.printf("%d of %d bots alive after %d ticks, %.0f ticks/s.%n",
+                          arena.getAliveCount(),
+                          botCount,
+                          tickCount,
+                          tickCount * 1e9 / duration);
+        
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+        }
+    }
+}
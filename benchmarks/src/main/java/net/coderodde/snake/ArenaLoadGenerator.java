@@ -0,0 +1,244 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class simulates many clients of an {@link ArenaServer} over loopback
+ * on a single thread. Each client counts the frames it receives without
+ * decoding them, and now and then sends a random direction for its snake.
+ * Unless the address of a running server is given, the generator starts a
+ * server in the same process, which takes two file descriptors per client.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ArenaLoadGenerator {
+    
+    /**
+     * The maximum number of connections in progress at a time.
+     */
+    private static final int MAXIMUM_PENDING_CONNECTIONS = 256;
+    
+    /**
+     * The probability of a client sending a direction on a tick.
+     */
+    private static final double TURN_PROBABILITY = 0.1;
+    
+    private final Selector selector;
+    private final InetSocketAddress serverAddress;
+    private final Random random = new Random(1L);
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(65536);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(1);
+    private final List<SimulatedClient> clients = new ArrayList<>();
+    
+    private int pendingConnections;
+    private long framesReceived;
+    private long bytesReceived;
+    
+    private ArenaLoadGenerator(InetSocketAddress serverAddress)
+            throws IOException {
+        this.selector = Selector.open();
+        this.serverAddress = serverAddress;
+    }
+    
+    /**
+     * Connects the clients and runs them for the given time.
+     * 
+     * @param clientCount  the number of clients.
+     * @param duration     the running time in milliseconds.
+     * @param tickDuration the interval of sending directions in milliseconds.
+     */
+    private void run(int clientCount, long duration, long tickDuration)
+            throws IOException {
+        long endTime = System.nanoTime() +
+                       TimeUnit.MILLISECONDS.toNanos(duration);
+        long nextTickTime = System.nanoTime();
+        
+        while (System.nanoTime() < endTime) {
+            while (clients.size() < clientCount
+                    && pendingConnections < MAXIMUM_PENDING_CONNECTIONS) {
+                connect();
+            }
+            
+            selector.select(Math.max(1L, tickDuration / 4));
+            handleSelectedKeys();
+            
+            if (System.nanoTime() - nextTickTime >= 0L) {
+                nextTickTime += TimeUnit.MILLISECONDS.toNanos(tickDuration);
+                sendDirections();
+            }
+        }
+        
+        for (SimulatedClient client : clients) {
+            client.socketChannel.close();
+        }
+        
+        selector.close();
+    }
+    
+    private void connect() throws IOException {
+        SocketChannel socketChannel = SocketChannel.open();
+        socketChannel.configureBlocking(false);
+        SimulatedClient client = new SimulatedClient(socketChannel);
+        clients.add(client);
+        
+        if (socketChannel.connect(serverAddress)) {
+            socketChannel.register(selector, SelectionKey.OP_READ, client);
+        } else {
+            socketChannel.register(selector, SelectionKey.OP_CONNECT, client);
+            pendingConnections++;
+        }
+    }
+    
+    private void handleSelectedKeys() throws IOException {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        
+        while (iterator.hasNext()) {
+            SelectionKey selectionKey = iterator.next();
+            iterator.remove();
+            SimulatedClient client =
+                    (SimulatedClient) selectionKey.attachment();
+            
+            if (selectionKey.isConnectable()) {
+                client.socketChannel.finishConnect();
+                selectionKey.interestOps(SelectionKey.OP_READ);
+                pendingConnections--;
+            } else if (selectionKey.isReadable()) {
+                readFrames(client, selectionKey);
+            }
+        }
+    }
+    
+    private void readFrames(SimulatedClient client, SelectionKey selectionKey)
+            throws IOException {
+        readBuffer.clear();
+        int byteCount = client.socketChannel.read(readBuffer);
+        
+        if (byteCount < 0) {
+            selectionKey.cancel();
+            client.socketChannel.close();
+            return;
+        }
+        
+        bytesReceived += byteCount;
+        readBuffer.flip();
+        
+        while (readBuffer.hasRemaining()) {
+            if (client.remainingFrameBytes > 0) {
+                int skipped = Math.min(client.remainingFrameBytes,
+                                       readBuffer.remaining());
+                readBuffer.position(readBuffer.position() + skipped);
+                client.remainingFrameBytes -= skipped;
+                
+                if (client.remainingFrameBytes == 0) {
+                    framesReceived++;
+                }
+            } else {
+                client.frameLength = client.frameLength << 8 |
+                                     (readBuffer.get() & 0xff);
+                
+                if (++client.frameLengthBytes == 4) {
+                    client.remainingFrameBytes = client.frameLength;
+                    client.frameLength = 0;
+                    client.frameLengthBytes = 0;
+                }
+            }
+        }
+    }
+    
+    private void sendDirections() throws IOException {
+        for (SimulatedClient client : clients) {
+            if (client.socketChannel.isConnected()
+                    && random.nextDouble() < TURN_PROBABILITY) {
+                writeBuffer.clear();
+                writeBuffer.put((byte) random.nextInt(4));
+                writeBuffer.flip();
+                client.socketChannel.write(writeBuffer);
+            }
+        }
+    }
+    
+    /**
+     * Runs the load test and prints the results.
+     * 
+     * @param args the optional number of clients, the running time in
+     *             seconds and the address of the server as
+     *             {@code host:port}.
+     * @throws IOException if the networking fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long duration = args.length > 1 ?
+                        TimeUnit.SECONDS.toMillis(Long.parseLong(args[1])) :
+                        30_000L;
+        long tickDuration = 100L;
+        ArenaServer arenaServer = null;
+        InetSocketAddress serverAddress;
+        
+        if (args.length > 2) {
+            String[] hostAndPort = args[2].split(":");
+            serverAddress = new InetSocketAddress(
+                    hostAndPort[0],
+                    Integer.parseInt(hostAndPort[1]));
+        } else {
+            int gridSize = Math.max(
+                    64,
+                    Integer.highestOneBit((int) Math.sqrt(100.0 * clientCount))
+                            << 1);
+            arenaServer = new ArenaServer(
+                    ArenaServer.createArena(gridSize, clientCount, 0L),
+                    32,
+                    tickDuration);
+            arenaServer.setSteeringIdleSnakes(true);
+            serverAddress = new InetSocketAddress(
+                    "127.0.0.1",
+                    arenaServer.start(0));
+        }
+        
+        ArenaLoadGenerator loadGenerator =
+                new ArenaLoadGenerator(serverAddress);
+        long startTime = System.nanoTime();
+        loadGenerator.run(clientCount, duration, tickDuration);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        
+        System.out.printf(
+                "%d clients, %.1f s: %d frames received (%.1f/s per client), " +
+                "%.1f MB received (%.0f B/s per client).%n",
+                loadGenerator.clients.size(),
+                seconds,
+                loadGenerator.framesReceived,
+                loadGenerator.framesReceived / seconds / clientCount,
+                loadGenerator.bytesReceived / 1e6,
+                loadGenerator.bytesReceived / seconds / clientCount);
+        
+        if (arenaServer != null) {
+            System.out.println("Server: " + arenaServer.getStatistics());
+            arenaServer.close();
+        }
+    }
+    
+    /**
+     * Holds the framing state of a simulated client.
+     */
+    private static final class SimulatedClient {
+        
+        private final SocketChannel socketChannel;
+        private int frameLength;
+        private int frameLengthBytes;
+        private int remainingFrameBytes;
+        
+        SimulatedClient(SocketChannel socketChannel) {
+            this.socketChannel = socketChannel;
+        }
+    }
+}
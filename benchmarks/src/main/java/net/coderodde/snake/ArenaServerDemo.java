@@ -0,0 +1,53 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class serves an arena of bots with an {@link ArenaServer} for the 
+ * given time, printing the statistics every second. The clients take over 
+ * the bots.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ArenaServerDemo {
+    
+    private ArenaServerDemo() {}
+    
+    /**
+     * Serves the arena.
+     * 
+     * @param args the optional port, the side length of the grid, the number
+     *             of snakes, the tick duration in milliseconds, the chunk
+     *             size and the running time in seconds.
+     * @throws IOException if binding fails.
+     * @throws InterruptedException if interrupted.
+     */
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int gridSize = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int snakeCount = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        long tickDuration = args.length > 3 ? Long.parseLong(args[3]) : 100L;
+        int chunkSize = args.length > 4 ? Integer.parseInt(args[4]) : 32;
+        long seconds = args.length > 5 ? Long.parseLong(args[5]) : 60L;
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        
+        try (ArenaServer arenaServer =
+                new ArenaServer(ArenaServer.createArena(gridSize, 
+                                                        snakeCount, 
+                                                        0L),
+                                chunkSize,
+                                tickDuration)) {
+            arenaServer.setSteeringIdleSnakes(true);
+            System.out.println("Listening on port " + 
+                               arenaServer.start(port) + ".");
+            
+            while (System.nanoTime() - endTime < 0L) {
+                Thread.sleep(1000L);
+                System.out.println(arenaServer.getStatistics());
+            }
+        }
+    }
+}
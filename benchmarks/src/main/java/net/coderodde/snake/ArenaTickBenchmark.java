@@ -0,0 +1,91 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark reports how many ticks per second an {@link Arena} makes 
+ * with the phases of each tick spread over a given number of threads. The
+ * grid is tiled with 2x2 blocks, each holding a snake of length two that 
+ * circles its block forever, so the number of living snakes stays constant
+ * and every tick does the same work.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArenaTickBenchmark {
+    
+    /**
+     * The directions turning the snakes clockwise around their blocks.
+     */
+    private static final MotionDirection[] TURNS = {
+        MotionDirection.SOUTH,
+        MotionDirection.WEST,
+        MotionDirection.NORTH,
+        MotionDirection.EAST
+    };
+    
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+    
+    /**
+     * The side length of the grid; the arena holds a quarter as many snakes
+     * as there are cells.
+     */
+    @Param({"128", "256"})
+    private int gridSize;
+    
+    private ForkJoinPool forkJoinPool;
+    private Arena arena;
+    private MotionDirection[][] directions;
+    private int tickIndex;
+    
+    @Setup
+    public void setup() {
+        forkJoinPool = new ForkJoinPool(threads);
+        arena = new Arena(new GameGrid(gridSize, gridSize), 0, new Random());
+        
+        for (int y = 0; y < gridSize; y += 2) {
+            for (int x = 0; x < gridSize; x += 2) {
+                arena.addSnake(x + 1, y, MotionDirection.EAST, 2);
+            }
+        }
+        
+        directions = new MotionDirection[TURNS.length][];
+        
+        for (int i = 0; i < TURNS.length; i++) {
+            directions[i] = new MotionDirection[arena.getSnakeCount()];
+            Arrays.fill(directions[i], TURNS[i]);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+    
+    @Benchmark
+    public int tick() {
+        return arena.tick(directions[tickIndex++ & 3], forkJoinPool);
+    }
+}
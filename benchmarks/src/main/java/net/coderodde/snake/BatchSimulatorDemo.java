@@ -0,0 +1,35 @@
+package net.coderodde.snake;
+
+/**
+ * This class runs a batch of games steered by the
+ * {@link GreedySnakePolicy} on a {@link BatchSimulator} and prints the
+ * result.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class BatchSimulatorDemo {
+    
+    private BatchSimulatorDemo() {}
+    
+    /**
+     * Runs the batch.
+     * 
+     * @param args the optional number of games, the side length of the board
+     *             and the step limit.
+     */
+    public static void main(String[] args) {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int gridSize  = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        long maximumSteps =
+                args.length > 2 ? Long.parseLong(args[2]) : 10_000L;
+        BatchResult batchResult =
+                new BatchSimulator().run(gameCount,
+                                         gridSize,
+                                         gridSize,
+                                         0L,
+                                         maximumSteps,
+                                         GreedySnakePolicy::new);
+        System.out.println(batchResult);
+    }
+}
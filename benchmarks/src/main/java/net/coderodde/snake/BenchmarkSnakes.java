@@ -0,0 +1,151 @@
+package net.coderodde.snake;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class provides factory methods for the snakes used in benchmarks.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class BenchmarkSnakes {
+    
+    private BenchmarkSnakes() {}
+    
+    /**
+     * Returns the number of grid rows needed by a serpentine snake of the 
+     * given length on a grid of the given width, plus one spare row.
+     * 
+     * @param gridWidth   the width of the grid.
+     * @param snakeLength the length of the snake.
+     * @return the grid height.
+     */
+    static int serpentineGridHeight(int gridWidth, int snakeLength) {
+        return (snakeLength + gridWidth - 1) / gridWidth + 1;
+    }
+    
+    /**
+     * Builds the compartments of a snake that fills the grid row by row in a 
+     * boustrophedon fashion, starting with its tail at {@code (0, 0)}. The 
+     * returned list starts from the head.
+     * 
+     * @param gridWidth   the width of the grid.
+     * @param snakeLength the length of the snake.
+     * @return the compartment list of the snake.
+     */
+    static List<SnakeCompartment> serpentine(int gridWidth, int snakeLength) {
+        int[] xs = new int[snakeLength];
+        int[] ys = new int[snakeLength];
+        
+        for (int i = 0; i < snakeLength; i++) {
+            int y = i / gridWidth;
+            int x = i % gridWidth;
+            xs[i] = (y & 1) == 0 ? x : gridWidth - 1 - x;
+            ys[i] = y;
+        }
+        
+        return fromCells(xs, ys);
+    }
+    
+    /**
+     * Builds the compartments of a snake lying on the given Hamiltonian 
+     * cycle. The returned list starts from the head.
+     * 
+     * @param hamiltonianCycle the cycle.
+     * @param gridWidth        the width of the grid.
+     * @param tailPosition     the position of the tail on the cycle.
+     * @param snakeLength      the length of the snake.
+     * @return the compartment list of the snake.
+     */
+    static List<SnakeCompartment> alongCycle(HamiltonianCycle hamiltonianCycle,
+                                             int gridWidth,
+                                             int tailPosition,
+                                             int snakeLength) {
+        int[] xs = new int[snakeLength];
+        int[] ys = new int[snakeLength];
+        
+        for (int i = 0; i < snakeLength; i++) {
+            int cell = hamiltonianCycle.getCell(
+                    (tailPosition + i) % hamiltonianCycle.length());
+            xs[i] = cell % gridWidth;
+            ys[i] = cell / gridWidth;
+        }
+        
+        return fromCells(xs, ys);
+    }
+    
+    /**
+     * Returns, for each cell, the direction of the next cell on the given 
+     * Hamiltonian cycle of a grid without walls.
+     * 
+     * @param hamiltonianCycle the cycle.
+     * @param gridWidth        the width of the grid.
+     * @return the directions by cell.
+     */
+    static MotionDirection[] cycleDirections(HamiltonianCycle hamiltonianCycle,
+                                             int gridWidth) {
+        int length = hamiltonianCycle.length();
+        MotionDirection[] directions = new MotionDirection[length];
+        
+        for (int position = 0; position < length; position++) {
+            int from = hamiltonianCycle.getCell(position);
+            int to = hamiltonianCycle.getCell((position + 1) % length);
+            directions[from] = direction(from % gridWidth, 
+                                         from / gridWidth,
+                                         to % gridWidth, 
+                                         to / gridWidth);
+        }
+        
+        return directions;
+    }
+    
+    /**
+     * Builds the compartments of a snake whose cells from the tail to the 
+     * head are given. The returned list starts from the head.
+     */
+    private static List<SnakeCompartment> fromCells(int[] xs, int[] ys) {
+        int snakeLength = xs.length;
+        List<SnakeCompartment> compartmentList = new ArrayList<>(snakeLength);
+        
+        for (int i = 0; i < snakeLength; i++) {
+            int from = i == 0 ? 0 : i - 1;
+            int to   = i == 0 ? Math.min(1, snakeLength - 1) : i;
+            compartmentList.add(
+                    new SnakeCompartment(direction(xs[from], ys[from],
+                                                   xs[to],   ys[to]), 
+                                         xs[i], 
+                                         ys[i]));
+        }
+        
+        Collections.reverse(compartmentList);
+        return compartmentList;
+    }
+    
+    /**
+     * Returns the direction the head of a serpentine snake of the given 
+     * length keeps moving to.
+     * 
+     * @param gridWidth   the width of the grid.
+     * @param snakeLength the length of the snake.
+     * @return the motion direction of the head.
+     */
+    static MotionDirection serpentineHeadDirection(int gridWidth, 
+                                                   int snakeLength) {
+        int row = (snakeLength - 1) / gridWidth;
+        return (row & 1) == 0 ? MotionDirection.EAST : MotionDirection.WEST;
+    }
+    
+    private static MotionDirection direction(int x1, int y1, int x2, int y2) {
+        if (x2 > x1) {
+            return MotionDirection.EAST;
+        } else if (x2 < x1) {
+            return MotionDirection.WEST;
+        } else if (y2 > y1) {
+            return MotionDirection.SOUTH;
+        } else {
+            return MotionDirection.NORTH;
+        }
+    }
+}
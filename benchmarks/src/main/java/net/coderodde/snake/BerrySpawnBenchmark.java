@@ -0,0 +1,84 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares placing a berry via the {@link FreeCellIndex} 
+ * against the rejection sampling it replaced, which retries random cells
+ * until it hits a free one and slows down as the snake fills the grid. The
+ * rebuild of the index is the slow path taken after the walls change.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BerrySpawnBenchmark {
+    
+    @Param({"16", "64", "256"})
+    private int gridSize;
+    
+    /**
+     * The share of the grid covered by the snake in percents.
+     */
+    @Param({"10", "50", "90", "99"})
+    private int snakeCoverage;
+    
+    private GameGrid grid;
+    private Snake snake;
+    private FreeCellIndex freeCellIndex;
+    private Random random;
+    
+    @Setup
+    public void setup() {
+        int snakeLength = gridSize * gridSize * snakeCoverage / 100;
+        grid = new GameGrid(gridSize, gridSize);
+        snake = new Snake(BenchmarkSnakes.serpentine(gridSize, snakeLength),
+                          BenchmarkSnakes.serpentineHeadDirection(
+                                  gridSize, 
+                                  snakeLength),
+                          gridSize,
+                          gridSize);
+        freeCellIndex = new FreeCellIndex(grid, snake);
+        random = new Random(13L);
+    }
+    
+    @Benchmark
+    public int freeCellIndex() {
+        return freeCellIndex.getRandomCell(random);
+    }
+    
+    @Benchmark
+    public int rejectionSampling() {
+        while (true) {
+            int x = random.nextInt(gridSize);
+            int y = random.nextInt(gridSize);
+            
+            if (!grid.isWall(x, y) && !snake.occupiesPoint(x, y)) {
+                return y * gridSize + x;
+            }
+        }
+    }
+    
+    @Benchmark
+    public int rebuildIndex() {
+        freeCellIndex.rebuild(grid, snake);
+        return freeCellIndex.size();
+    }
+}
@@ -0,0 +1,57 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark reports how many headless ticks per second the 
+ * {@link GameEngine} sustains. The snake is steered greedily towards the 
+ * berry, and a new game is started whenever the previous one ends.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+    
+    @Param({"16", "64", "256"})
+    private int gridSize;
+    
+    private final SnakePolicy policy = new GreedySnakePolicy();
+    private Random random;
+    private GameEngine gameEngine;
+    
+    @Setup
+    public void setup() {
+        random = new Random(13L);
+        gameEngine = new GameEngine(gridSize, gridSize, random);
+    }
+    
+    @Benchmark
+    public StepOutcome tick() {
+        StepOutcome outcome = 
+                gameEngine.step(policy.chooseDirection(gameEngine));
+        
+        if (outcome.isTerminal()) {
+            gameEngine = new GameEngine(gridSize, gridSize, random);
+        }
+        
+        return outcome;
+    }
+}
@@ -0,0 +1,47 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs a headless {@link GameSession} at the given tick rate 
+ * steered by the {@link HamiltonianSnakePolicy}, and prints its jitter 
+ * histogram as CSV.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameSessionDemo {
+    
+    private GameSessionDemo() {}
+    
+    /**
+     * Runs the session.
+     * 
+     * @param args the optional number of ticks per second and the running 
+     *             time in seconds.
+     * @throws IOException if printing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int ticksPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 120;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        GameSession gameSession = 
+                new GameSession(new GameEngine(100, 100, new Random(0L)));
+        gameSession.setStepDurationNanos(1_000_000_000L / ticksPerSecond);
+        gameSession.setAutopilot(new HamiltonianSnakePolicy());
+        
+        Thread thread = new Thread(gameSession::runLoop);
+        thread.start();
+        
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        
+        gameSession.stop();
+        System.out.println(gameSession.getJitterHistogram());
+        gameSession.getJitterHistogram().writeCsv(System.out);
+    }
+}
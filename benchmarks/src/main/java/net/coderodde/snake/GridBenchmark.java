@@ -0,0 +1,108 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares wall lookups in the flat {@link GameGrid} against 
+ * the jagged {@code GridCell[][]} array it replaced.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+    
+    /**
+     * The number of random lookups per benchmark invocation.
+     */
+    private static final int LOOKUPS = 4096;
+    
+    /**
+     * The probability of a cell being a wall.
+     */
+    private static final double WALL_PROBABILITY = 0.1;
+    
+    @Param({"10", "64", "512", "4096"})
+    private int gridSize;
+    
+    private GridCell[][] jaggedGrid;
+    private GameGrid gameGrid;
+    private int[] probeXs;
+    private int[] probeYs;
+    
+    @Setup
+    public void setup() {
+        Random random = new Random(13L);
+        jaggedGrid = new GridCell[gridSize][gridSize];
+        gameGrid = new GameGrid(gridSize, gridSize);
+        
+        for (int y = 0; y < gridSize; y++) {
+            for (int x = 0; x < gridSize; x++) {
+                GridCell gridCell = random.nextDouble() < WALL_PROBABILITY ?
+                                    GridCell.WALL :
+                                    GridCell.TRAVERSABLE;
+                jaggedGrid[y][x] = gridCell;
+                gameGrid.setCell(x, y, gridCell);
+            }
+        }
+        
+        probeXs = new int[LOOKUPS];
+        probeYs = new int[LOOKUPS];
+        
+        for (int i = 0; i < LOOKUPS; i++) {
+            probeXs[i] = random.nextInt(gridSize);
+            probeYs[i] = random.nextInt(gridSize);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int jaggedEnumArray() {
+        int walls = 0;
+        
+        for (int i = 0; i < LOOKUPS; i++) {
+            int x = probeXs[i];
+            int y = probeYs[i];
+            
+            if (x >= 0 && y >= 0 && y < jaggedGrid.length 
+                    && x < jaggedGrid[0].length
+                    && jaggedGrid[y][x] == GridCell.WALL) {
+                walls++;
+            }
+        }
+        
+        return walls;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int flatGameGrid() {
+        int walls = 0;
+        
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (gameGrid.isWall(probeXs[i], probeYs[i])) {
+                walls++;
+            }
+        }
+        
+        return walls;
+    }
+}
@@ -0,0 +1,50 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+
+/**
+ * This class fills a square board headless with the 
+ * {@link HamiltonianSnakePolicy} and prints the time it took. The snake 
+ * starts on the cycle, leaving the given number of cells free.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class HamiltonianSnakePolicyDemo {
+    
+    private HamiltonianSnakePolicyDemo() {}
+    
+    /**
+     * Fills the board.
+     * 
+     * @param args the optional side length of the board, the number of free
+     *             cells at start and the seed.
+     */
+    public static void main(String[] args) {
+        int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int freeCells = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+        long startTime = System.nanoTime();
+        GameGrid grid = new GameGrid(gridSize, gridSize);
+        HamiltonianCycle cycle = new HamiltonianCycle(grid);
+        Snake snake = cycle.createSnake(
+                Math.max(1, cycle.length() - freeCells));
+        GameEngine gameEngine = new GameEngine(grid, snake, new Random(seed));
+        SnakePolicy policy = new HamiltonianSnakePolicy();
+        long setupTime = System.nanoTime() - startTime;
+        
+        while (!gameEngine.isGameOver()) {
+            gameEngine.step(policy.chooseDirection(gameEngine));
+        }
+        
+        long duration = System.nanoTime() - startTime;
+        System.out.printf(
+                "Length %d of %d cells in %d steps, setup %.2f s, " + 
+                "total %.2f s.%n",
+                gameEngine.getSnake().size(),
+                cycle.length(),
+                gameEngine.getStepCount(),
+                setupTime / 1e9,
+                duration / 1e9);
+    }
+}
@@ -0,0 +1,79 @@
+package net.coderodde.snake;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the self-collision check via the occupancy index
+ * against the linear scan over the snake body it replaced.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OccupancyBenchmark {
+    
+    private static final int GRID_WIDTH = 256;
+    
+    @Param({"16", "1024", "65536"})
+    private int snakeLength;
+    
+    private Snake snake;
+    
+    /**
+     * A free cell right after the head, which is the worst case for the 
+     * linear scan.
+     */
+    private int probeX;
+    private int probeY;
+    
+    @Setup
+    public void setup() {
+        int gridHeight = BenchmarkSnakes.serpentineGridHeight(GRID_WIDTH, 
+                                                              snakeLength);
+        snake = new Snake(
+                BenchmarkSnakes.serpentine(GRID_WIDTH, snakeLength),
+                BenchmarkSnakes.serpentineHeadDirection(GRID_WIDTH, 
+                                                        snakeLength),
+                GRID_WIDTH,
+                gridHeight);
+        probeX = GRID_WIDTH - 1;
+        probeY = gridHeight - 1;
+    }
+    
+    @Benchmark
+    public boolean linearScan() {
+        for (SnakeCompartment snakeCompartment : snake) {
+            if (snakeCompartment.x == probeX && snakeCompartment.y == probeY) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    @Benchmark
+    public boolean occupancyIndex() {
+        return snake.occupiesPoint(probeX, probeY);
+    }
+    
+    @Benchmark
+    public boolean eatsHimself() {
+        return snake.eatsHimself();
+    }
+}
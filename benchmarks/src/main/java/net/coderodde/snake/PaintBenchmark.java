@@ -0,0 +1,109 @@
+package net.coderodde.snake;
+
+import java.awt.Graphics2D;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures {@link SnakePanel#update(java.awt.Graphics)} 
+ * painting off-screen into a {@link BufferedImage} in a headless JVM: a 
+ * full repaint, and the repaint of the single dirty cell of a typical step.
+ * Run with {@code -prof gc} to check that painting does not allocate per 
+ * cell: the dirty cell takes zero bytes, and a full repaint about 100 bytes
+ * inside Java2D regardless of the length of the snake.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+    
+    /**
+     * The width and the height of the panel in pixels.
+     */
+    private static final int PANEL_SIZE = 1024;
+    
+    private static final int GRID_LINE_THICKNESS = 1;
+    
+    @Param({"64", "256"})
+    private int gridSize;
+    
+    @Param({"4", "1024"})
+    private int snakeLength;
+    
+    private SnakePanel snakePanel;
+    private Graphics2D fullGraphics;
+    private Graphics2D cellGraphics;
+    
+    @Setup
+    public void setup() {
+        Snake snake = new Snake(
+                BenchmarkSnakes.serpentine(gridSize, snakeLength),
+                BenchmarkSnakes.serpentineHeadDirection(gridSize, 
+                                                        snakeLength),
+                gridSize,
+                gridSize);
+        GameEngine gameEngine = new GameEngine(new GameGrid(gridSize, 
+                                                            gridSize),
+                                               snake, 
+                                               new Random(13L));
+        snakePanel = new SnakePanel(gameEngine, GRID_LINE_THICKNESS);
+        snakePanel.setSize(PANEL_SIZE, PANEL_SIZE);
+        // A panel without a peer does not get its resize events queued.
+        snakePanel.dispatchEvent(
+                new ComponentEvent(snakePanel, 
+                                   ComponentEvent.COMPONENT_RESIZED));
+        
+        BufferedImage image = new BufferedImage(PANEL_SIZE, 
+                                                PANEL_SIZE, 
+                                                BufferedImage.TYPE_INT_RGB);
+        fullGraphics = image.createGraphics();
+        cellGraphics = image.createGraphics();
+        GridGeometry geometry = new GridGeometry(PANEL_SIZE,
+                                                 PANEL_SIZE,
+                                                 gridSize,
+                                                 gridSize,
+                                                 GRID_LINE_THICKNESS);
+        int headCell = snake.getHeadCell();
+        cellGraphics.setClip(
+                geometry.getCellLeft(headCell % gridSize),
+                geometry.getCellTop(headCell / gridSize),
+                geometry.getCellLength(),
+                geometry.getCellLength());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        fullGraphics.dispose();
+        cellGraphics.dispose();
+    }
+    
+    @Benchmark
+    public void fullRepaint() {
+        snakePanel.update(fullGraphics);
+    }
+    
+    @Benchmark
+    public void dirtyCellRepaint() {
+        snakePanel.update(cellGraphics);
+    }
+}
@@ -0,0 +1,48 @@
+package net.coderodde.snake;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class validates a replay file at full speed with a 
+ * {@link ReplayPlayer} and prints the final state.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ReplayPlayerDemo {
+    
+    private ReplayPlayerDemo() {}
+    
+    /**
+     * Validates the replay.
+     * 
+     * @param args the path of the replay file.
+     * @throws IOException if reading the file fails.
+     */
+    public static void main(String[] args) throws IOException {
+        Replay replay;
+        
+        try (InputStream inputStream = 
+                new BufferedInputStream(new FileInputStream(args[0]))) {
+            replay = Replay.readFrom(inputStream);
+        }
+        
+        ReplayPlayer replayPlayer = new ReplayPlayer(replay);
+        long startTime = System.nanoTime();
+        StepOutcome outcome = replayPlayer.playToEnd();
+        long elapsedNanos = System.nanoTime() - startTime;
+        GameEngine gameEngine = replayPlayer.getGameEngine();
+        
+        System.out.printf(
+                "%d ticks, %d steps, length %d, last outcome %s, " +
+                "validated in %.3f ms%n",
+                replay.getTickCount(),
+                gameEngine.getStepCount(),
+                gameEngine.getSnake().size(),
+                outcome,
+                elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,177 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures the per-tick operations of a {@link Snake}: 
+ * stepping, growing, and the wall and body checks. The snake runs along a
+ * Hamiltonian cycle of an open grid, so that it can step forever. Growing 
+ * is measured together with the step following it, as the engine does it.
+ * 
+ * <p>Run with {@code java -jar target/benchmarks.jar SnakeBenchmark -prof 
+ * gc} for the allocations: {@code gc.alloc.rate.norm} should be zero bytes
+ * per operation. The figure of {@code growAndStep} also counts the fresh 
+ * snake built for each batch and the doubling of the link stream.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeBenchmark {
+    
+    /**
+     * The number of random lookups per benchmark invocation.
+     */
+    private static final int LOOKUPS = 4096;
+    
+    /**
+     * The number of growths per benchmark invocation.
+     */
+    private static final int GROWTHS = 1024;
+    
+    /**
+     * The position of the tail of a growing snake on the cycle. The cycle 
+     * goes straight through it, so that the cell behind the tail is free.
+     */
+    private int growingTailPosition;
+    
+    @Param({"64", "256", "1024"})
+    private int gridSize;
+    
+    @Param({"4", "256", "2048"})
+    private int snakeLength;
+    
+    private GameGrid grid;
+    private HamiltonianCycle hamiltonianCycle;
+    private MotionDirection[] cycleDirections;
+    private Snake snake;
+    private int[] probeXs;
+    private int[] probeYs;
+    
+    @Setup
+    public void setup() {
+        grid = new GameGrid(gridSize, gridSize);
+        hamiltonianCycle = new HamiltonianCycle(grid);
+        cycleDirections = 
+                BenchmarkSnakes.cycleDirections(hamiltonianCycle, gridSize);
+        snake = createSnake(0);
+        growingTailPosition = 1;
+        
+        while (!isStraight(growingTailPosition)) {
+            growingTailPosition++;
+        }
+        
+        Random random = new Random(13L);
+        probeXs = new int[LOOKUPS];
+        probeYs = new int[LOOKUPS];
+        
+        // Probe the cells around the snake, half of which it occupies.
+        int probedLength = Math.min(2 * snakeLength, hamiltonianCycle.length());
+        
+        for (int i = 0; i < LOOKUPS; i++) {
+            int cell = hamiltonianCycle.getCell(random.nextInt(probedLength));
+            probeXs[i] = cell % gridSize;
+            probeYs[i] = cell / gridSize;
+        }
+    }
+    
+    @Benchmark
+    public int makeStep() {
+        snake.setDirection(cycleDirections[snake.getHeadCell()]);
+        snake.makeStep(grid);
+        return snake.getHeadCell();
+    }
+    
+    @Benchmark
+    public boolean hitsWall() {
+        return snake.hitsWall(grid);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int occupiesPoint() {
+        int occupied = 0;
+        
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (snake.occupiesPoint(probeXs[i], probeYs[i])) {
+                occupied++;
+            }
+        }
+        
+        return occupied;
+    }
+    
+    /**
+     * Grows the snake and steps it. The step moves the tail back to where it
+     * was before growing, so the tail stays in place while the snake grows.
+     */
+    @Benchmark
+    @OperationsPerInvocation(GROWTHS)
+    public int growAndStep(GrowingSnake growingSnake) {
+        Snake snake = growingSnake.snake;
+        
+        for (int i = 0; i < GROWTHS; i++) {
+            snake.grow();
+            snake.setDirection(cycleDirections[snake.getHeadCell()]);
+            snake.makeStep(grid);
+        }
+        
+        return snake.size();
+    }
+    
+    private Snake createSnake(int tailPosition) {
+        int headPosition = (tailPosition + snakeLength - 1) % 
+                           hamiltonianCycle.length();
+        return new Snake(BenchmarkSnakes.alongCycle(hamiltonianCycle, 
+                                                    gridSize, 
+                                                    tailPosition,
+                                                    snakeLength),
+                         cycleDirections[hamiltonianCycle.getCell(
+                                 headPosition)],
+                         gridSize,
+                         gridSize);
+    }
+    
+    /**
+     * Tells whether the cycle goes straight through the given position.
+     */
+    private boolean isStraight(int position) {
+        int previousCell = hamiltonianCycle.getCell(position - 1);
+        return cycleDirections[previousCell] == 
+               cycleDirections[hamiltonianCycle.getCell(position)];
+    }
+    
+    /**
+     * Holds a fresh snake for each invocation of {@link #growAndStep}.
+     */
+    @State(Scope.Thread)
+    public static class GrowingSnake {
+        
+        private Snake snake;
+        
+        @Setup(Level.Invocation)
+        public void setup(SnakeBenchmark snakeBenchmark) {
+            snake = snakeBenchmark.createSnake(
+                    snakeBenchmark.growingTailPosition);
+        }
+    }
+}
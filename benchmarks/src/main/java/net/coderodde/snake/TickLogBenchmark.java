@@ -0,0 +1,64 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark reports how many tick records per second a {@link TickLog}
+ * appends to a file in the temporary directory, with the default sync 
+ * interval and with the syncing left to the OS.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickLogBenchmark {
+    
+    @Param({"256", "0"})
+    private int syncInterval;
+    
+    private Path path;
+    private TickLog tickLog;
+    private int tick;
+    
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        path = Files.createTempFile("snake-ticks", ".log");
+        tickLog = TickLog.open(path, 1024, 1024, syncInterval);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        tickLog.close();
+        Files.delete(path);
+    }
+    
+    @Benchmark
+    public void append() {
+        tickLog.append(MotionDirection.EAST, 
+                       StepOutcome.MOVED, 
+                       tick++ & 0xfffff,
+                       tick & 0xffff,
+                       4);
+    }
+}
@@ -0,0 +1,280 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+
+/**
+ * This policy steers the snake along a path to the berry found by a 
+ * best-first search with the Manhattan heuristic in the manner of A*. A cell
+ * of the body is considered passable once the tail has left it by the time 
+ * the head would arrive, so the search accounts for the body moving away. 
+ * If the berry is not reachable, the policy follows its own tail, and if 
+ * even that fails, it falls back to {@link GreedySnakePolicy}.
+ * 
+ * <p>All search state lives in preallocated {@code int} arrays reused across
+ * decisions: a generation stamp tells whether a cell was reached in the 
+ * current search, so nothing needs clearing. Since the heuristic is 
+ * consistent on a grid, every expansion keeps or raises the estimate by 
+ * exactly two, and the open set is just two stacks instead of a heap. A cell
+ * is closed as soon as it is reached rather than when it is expanded, so 
+ * each cell enters the open set at most once and the stacks never outgrow 
+ * the grid. The price is that the path found is not always a shortest one: 
+ * a cell first reached by a detour keeps it. A policy instance serves one 
+ * game at a time and is not thread-safe.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class AStarSnakePolicy implements SnakePolicy {
+    
+    private static final MotionDirection[] MOTION_DIRECTIONS = 
+            MotionDirection.values();
+    
+    private final SnakePolicy fallbackPolicy = new GreedySnakePolicy();
+    
+    private int gridWidth;
+    private int gridHeight;
+    
+    /**
+     * The generation of the search that last reached each cell.
+     */
+    private int[] stamps;
+    
+    /**
+     * The number of steps from the head to each reached cell.
+     */
+    private int[] costs;
+    
+    /**
+     * The cell each reached cell was reached from.
+     */
+    private int[] parents;
+    
+    /**
+     * The step on which the head entered each cell. The compartment in a 
+     * cell is {@code stepCount - enteredAt[cell]} steps behind the head.
+     */
+    private int[] enteredAt;
+    
+    /**
+     * The open cells with the current and the next estimate.
+     */
+    private int[] currentOpen;
+    private int[] nextOpen;
+    
+    /**
+     * A buffer for reading the body of the snake.
+     */
+    private int[] bodyCells = new int[0];
+    
+    /**
+     * The generation of the current search. Package-private for testing the
+     * wrap-around.
+     */
+    int generation;
+    
+    /**
+     * The engine and its step count seen on the previous decision.
+     */
+    private GameEngine lastGameEngine;
+    private long lastStepCount;
+    
+    @Override
+    public MotionDirection chooseDirection(GameEngine gameEngine) {
+        GameGrid grid = gameEngine.getGrid();
+        allocate(grid.getWidth(), grid.getHeight());
+        trackBody(gameEngine);
+        
+        Snake snake = gameEngine.getSnake();
+        int headCell = snake.getHeadCell();
+        int berryCell = gameEngine.getBerryCell();
+        int nextCell = -1;
+        
+        if (berryCell >= 0 && berryCell != headCell) {
+            nextCell = findFirstStep(gameEngine, berryCell);
+        }
+        
+        if (nextCell < 0 && snake.size() > 1) {
+            nextCell = findFirstStep(gameEngine, snake.getTailCell());
+        }
+        
+        if (nextCell < 0) {
+            return fallbackPolicy.chooseDirection(gameEngine);
+        }
+        
+        if (nextCell == headCell - gridWidth) {
+            return MotionDirection.NORTH;
+        } else if (nextCell == headCell + 1) {
+            return MotionDirection.EAST;
+        } else if (nextCell == headCell + gridWidth) {
+            return MotionDirection.SOUTH;
+        } else {
+            return MotionDirection.WEST;
+        }
+    }
+    
+    private void allocate(int gridWidth, int gridHeight) {
+        if (stamps != null 
+                && this.gridWidth == gridWidth 
+                && this.gridHeight == gridHeight) {
+            return;
+        }
+        
+        int cellCount = gridWidth * gridHeight;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.stamps = new int[cellCount];
+        this.costs = new int[cellCount];
+        this.parents = new int[cellCount];
+        this.enteredAt = new int[cellCount];
+        this.currentOpen = new int[cellCount];
+        this.nextOpen = new int[cellCount];
+        this.generation = 0;
+        this.lastGameEngine = null;
+    }
+    
+    /**
+     * Records the cell the head entered on the last step. If a step was 
+     * missed or the game changed, walks the whole body once instead.
+     */
+    private void trackBody(GameEngine gameEngine) {
+        long stepCount = gameEngine.getStepCount();
+        Snake snake = gameEngine.getSnake();
+        
+        if (gameEngine == lastGameEngine && stepCount == lastStepCount) {
+            return;
+        }
+        
+        if (gameEngine == lastGameEngine && stepCount == lastStepCount + 1) {
+            enteredAt[snake.getHeadCell()] = (int) stepCount;
+        } else {
+            if (bodyCells.length < snake.size()) {
+                bodyCells = new int[snake.size()];
+            }
+            
+            int length = snake.copyBodyCells(bodyCells);
+            
+            for (int i = 0; i < length; i++) {
+                enteredAt[bodyCells[i]] = (int)(stepCount - i);
+            }
+            
+            lastGameEngine = gameEngine;
+        }
+        
+        lastStepCount = stepCount;
+    }
+    
+    /**
+     * Searches for a path from the head to the target cell.
+     * 
+     * @return the first cell of the path, or {@code -1} if the target is not
+     *         reachable.
+     */
+    private int findFirstStep(GameEngine gameEngine, int targetCell) {
+        if (++generation == 0) {
+            // The stamps wrapped around; start over.
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        
+        GameGrid grid = gameEngine.getGrid();
+        Snake snake = gameEngine.getSnake();
+        int stepCount = (int) gameEngine.getStepCount();
+        int headCell = snake.getHeadCell();
+        // The snake on the berry grows on the next step before moving, so
+        // every body cell is left one step later.
+        int size = gameEngine.getBerryCell() == headCell ? 
+                   snake.size() + 1 : 
+                   snake.size();
+        int targetX = targetCell % gridWidth;
+        int targetY = targetCell / gridWidth;
+        int currentSize = 0;
+        int nextSize = 0;
+        
+        stamps[headCell] = generation;
+        costs[headCell] = 0;
+        parents[headCell] = -1;
+        currentOpen[currentSize++] = headCell;
+        
+        while (currentSize > 0 || nextSize > 0) {
+            if (currentSize == 0) {
+                // All cells with the current estimate are expanded.
+                int[] swap = currentOpen;
+                currentOpen = nextOpen;
+                nextOpen = swap;
+                currentSize = nextSize;
+                nextSize = 0;
+            }
+            
+            int cell = currentOpen[--currentSize];
+            
+            if (cell == targetCell) {
+                while (parents[cell] != headCell) {
+                    cell = parents[cell];
+                }
+                
+                return cell;
+            }
+            
+            int x = cell % gridWidth;
+            int y = cell / gridWidth;
+            int distance = Math.abs(x - targetX) + Math.abs(y - targetY);
+            int cost = costs[cell] + 1;
+            
+            for (int i = 0; i < MOTION_DIRECTIONS.length; i++) {
+                int nextX = x;
+                int nextY = y;
+                
+                switch (i) {
+                    case 0:
+                        nextY--;
+                        break;
+                    
+                    case 1:
+                        nextX++;
+                        break;
+                    
+                    case 2:
+                        nextY++;
+                        break;
+                    
+                    default:
+                        nextX--;
+                        break;
+                }
+                
+                if (grid.isWall(nextX, nextY)) {
+                    continue;
+                }
+                
+                int nextCell = nextY * gridWidth + nextX;
+                
+                if (stamps[nextCell] == generation) {
+                    continue;
+                }
+                
+                if (snake.occupiesPoint(nextX, nextY)) {
+                    int stepsBehindHead = stepCount - enteredAt[nextCell];
+                    
+                    // The tail leaves the cell after size - stepsBehindHead
+                    // steps, and the head may enter it only on a later step.
+                    if (cost <= size - stepsBehindHead) {
+                        continue;
+                    }
+                }
+                
+                stamps[nextCell] = generation;
+                costs[nextCell] = cost;
+                parents[nextCell] = cell;
+                
+                if (Math.abs(nextX - targetX) + Math.abs(nextY - targetY) 
+                        < distance) {
+                    currentOpen[currentSize++] = nextCell;
+                } else {
+                    nextOpen[nextSize++] = nextCell;
+                }
+            }
+        }
+        
+        return -1;
+    }
+}
@@ -0,0 +1,671 @@
+package net.coderodde.snake;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class implements an arena where many snakes share one grid. The
+ * arena keeps a shared occupancy grid mapping each cell to the snake in it,
+ * updated incrementally: a tick touches only the head and the tail cell of
+ * each snake, so its cost depends on the number of snakes and not on their
+ * lengths. The body of a snake is walked only once, when the snake dies.
+ * 
+ * <p>All the snakes move simultaneously, and the collisions of a tick are
+ * resolved against the state at the beginning of the tick:
+ * <ul>
+ *   <li>a snake moving into a wall dies with
+ *       {@link StepOutcome#WALL_COLLISION},</li>
+ *   <li>a snake moving into a cell occupied at the beginning of the tick
+ *       dies with {@link StepOutcome#SELF_COLLISION} or
+ *       {@link StepOutcome#SNAKE_COLLISION}, depending on the owner of the
+ *       cell. As in {@link GameEngine}, tails count as occupied,</li>
+ *   <li>all the snakes moving into the same free cell die with
+ *       {@link StepOutcome#SNAKE_COLLISION}.</li>
+ * </ul>
+ * None of the rules depends on the other outcomes of the same tick, so the
+ * result does not depend on the order the snakes are processed in. A snake
+ * whose head enters a berry eats it, and its tail stays in place on the
+ * next tick, reported as {@link StepOutcome#GREW}. Eaten berries are
+ * replaced at the end of the tick in uniformly random free cells.
+ * 
+ * <p>A tick runs in phases: computing the target cells and claiming them in
+ * a per-cell atomic counter, deciding the outcomes, and moving the snakes.
+ * Within a phase, each snake touches only its own state and the cells it 
+ * owns or claimed, so the phases can be split over a {@link ForkJoinPool}.
+ * Only the free cell index and the berries are updated serially, in the 
+ * order of the ids, so a parallel tick gives exactly the same result as a 
+ * sequential one.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class Arena {
+    
+    /**
+     * Marks a cell not occupied by any snake.
+     */
+    private static final int NO_OWNER = -1;
+    
+    /**
+     * The minimum number of snakes handled by a single task of a phase.
+     */
+    private static final int SNAKES_PER_TASK = 1024;
+    
+    /**
+     * The phases of a tick run in parallel.
+     */
+    private static final int INTEND_PHASE = 0;
+    private static final int RESOLVE_PHASE = 1;
+    private static final int MOVE_PHASE = 2;
+    
+    private final GameGrid grid;
+    private final int gridWidth;
+    private final Random random;
+    
+    /**
+     * The snakes by id, including the dead ones.
+     */
+    private final List<Snake> snakes = new ArrayList<>();
+    
+    /**
+     * The id of the snake occupying each cell, or {@code NO_OWNER}.
+     */
+    private final int[] owners;
+    
+    /**
+     * The berry flag of each cell.
+     */
+    private final boolean[] berries;
+    
+    /**
+     * The cells that are neither walls, nor occupied, nor berries.
+     */
+    private final FreeCellIndex freeCellIndex;
+    
+    /**
+     * The number of heads claiming each cell on the current tick. Reset to
+     * zero by the claiming snakes at the end of the tick.
+     */
+    private final AtomicIntegerArray claims;
+    
+    /**
+     * The ids of the living snakes in ascending order in the first 
+     * {@code aliveCount} entries.
+     */
+    private int[] aliveIds = new int[16];
+    
+    /**
+     * The per-snake state, indexed by id.
+     */
+    private int[] targetCells = new int[16];
+    private int[] vacatedCells = new int[16];
+    private boolean[] growing = new boolean[16];
+    private StepOutcome[] outcomes = new StepOutcome[16];
+    
+    /**
+     * The directions of the current tick, read by the phase tasks.
+     */
+    private MotionDirection[] directions;
+    
+    /**
+     * A buffer for reading the bodies of the dead snakes.
+     */
+    private int[] bodyCells = new int[0];
+    
+    /**
+     * The listener notified of the cell changes, or {@code null}.
+     */
+    private ArenaListener listener;
+    
+    private int aliveCount;
+    private long tickCount;
+    
+    /**
+     * Constructs an empty arena.
+     * 
+     * @param grid       the grid shared by the snakes.
+     * @param berryCount the number of berries kept in the arena.
+     * @param random     the random number generator placing the berries.
+     */
+    public Arena(GameGrid grid, int berryCount, Random random) {
+        this.grid = Objects.requireNonNull(grid, "The input grid is null.");
+        this.random = Objects.requireNonNull(random,
+                                             "The input random is null.");
+        
+        if (berryCount < 0) {
+            throw new IllegalArgumentException(
+                    "The berry count (" + berryCount + ") is negative.");
+        }
+        
+        int cellCount = grid.getWidth() * grid.getHeight();
+        this.gridWidth = grid.getWidth();
+        this.owners = new int[cellCount];
+        this.berries = new boolean[cellCount];
+        this.claims = new AtomicIntegerArray(cellCount);
+        this.freeCellIndex = new FreeCellIndex(cellCount);
+        
+        for (int cell = 0; cell < cellCount; cell++) {
+            owners[cell] = NO_OWNER;
+            
+            if (!grid.isWall(cell)) {
+                freeCellIndex.add(cell);
+            }
+        }
+        
+        for (int i = 0; i < berryCount; i++) {
+            spawnBerry();
+        }
+    }
+    
+    /**
+     * Adds a straight snake to the arena.
+     * 
+     * @param headX     the x-coordinate of the head.
+     * @param headY     the y-coordinate of the head.
+     * @param direction the motion direction; the body extends to the
+     *                  opposite direction.
+     * @param length    the length of the snake.
+     * @return the id of the new snake.
+     * @throws IllegalArgumentException if the snake does not fit in free
+     *                                  cells.
+     */
+    public int addSnake(int headX,
+                        int headY,
+                        MotionDirection direction,
+                        int length) {
+        Objects.requireNonNull(direction, "The input direction is null.");
+        
+        if (length < 1) {
+            throw new IllegalArgumentException(
+                    "The snake length (" + length + ") must be positive.");
+        }
+        
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>(length);
+        int x = headX;
+        int y = headY;
+        
+        for (int i = 0; i < length; i++) {
+            if (grid.isWall(x, y) || owners[y * gridWidth + x] != NO_OWNER) {
+                throw new IllegalArgumentException(
+                        "The cell (" + x + ", " + y + ") is not free.");
+            }
+            
+            snakeCompartmentList.add(new SnakeCompartment(direction, x, y));
+            
+            switch (direction) {
+                case NORTH:
+                    y++;
+                    break;
+                
+                case EAST:
+                    x--;
+                    break;
+                
+                case SOUTH:
+                    y--;
+                    break;
+                
+                default:
+                    x++;
+                    break;
+            }
+        }
+        
+        int id = snakes.size();
+        // The cells were checked against the shared occupancy grid, so the
+        // snake needs no occupancy index of its own.
+        snakes.add(new Snake(snakeCompartmentList,
+                             direction,
+                             gridWidth,
+                             grid.getHeight(),
+                             false));
+        ensureCapacity(id + 1);
+        outcomes[id] = null;
+        growing[id] = false;
+        aliveIds[aliveCount++] = id;
+        int replacedBerries = 0;
+        
+        for (SnakeCompartment snakeCompartment : snakeCompartmentList) {
+            int cell = snakeCompartment.y * gridWidth + snakeCompartment.x;
+            owners[cell] = id;
+            freeCellIndex.remove(cell);
+            
+            if (berries[cell]) {
+                berries[cell] = false;
+                replacedBerries++;
+            }
+        }
+        
+        for (int i = 0; i < replacedBerries; i++) {
+            spawnBerry();
+        }
+        
+        return id;
+    }
+    
+    /**
+     * Moves all the living snakes one step and resolves the collisions.
+     * 
+     * @param directions the new motion direction of each snake by id; a
+     *                   {@code null} array or entry keeps the current
+     *                   direction.
+     * @return the number of snakes that died on this tick.
+     */
+    public int tick(MotionDirection[] directions) {
+        return tick(directions, null);
+    }
+    
+    /**
+     * Moves all the living snakes one step and resolves the collisions, 
+     * running the phases of the tick on the given pool. The result is the 
+     * same as that of {@link #tick(MotionDirection[])}.
+     * 
+     * @param directions   the new motion direction of each snake by id; a
+     *                     {@code null} array or entry keeps the current
+     *                     direction.
+     * @param forkJoinPool the pool to run the phases on, or {@code null} for
+     *                     running them on the calling thread.
+     * @return the number of snakes that died on this tick.
+     */
+    public int tick(MotionDirection[] directions, ForkJoinPool forkJoinPool) {
+        this.directions = directions;
+        
+        try {
+            runPhase(INTEND_PHASE, forkJoinPool);
+            runPhase(RESOLVE_PHASE, forkJoinPool);
+            runPhase(MOVE_PHASE, forkJoinPool);
+        } finally {
+            this.directions = null;
+        }
+        
+        return finishTick();
+    }
+    
+    private void runPhase(int phase, ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null || aliveCount <= SNAKES_PER_TASK) {
+            runPhase(phase, 0, aliveCount);
+        } else {
+            forkJoinPool.invoke(new PhaseTask(phase, 0, aliveCount));
+        }
+    }
+    
+    /**
+     * Runs a phase for the living snakes in the given range of 
+     * {@code aliveIds}.
+     */
+    private void runPhase(int phase, int fromIndex, int toIndex) {
+        switch (phase) {
+            case INTEND_PHASE:
+                for (int i = fromIndex; i < toIndex; i++) {
+                    intend(aliveIds[i]);
+                }
+                
+                break;
+            
+            case RESOLVE_PHASE:
+                for (int i = fromIndex; i < toIndex; i++) {
+                    resolve(aliveIds[i]);
+                }
+                
+                break;
+            
+            default:
+                for (int i = fromIndex; i < toIndex; i++) {
+                    move(aliveIds[i]);
+                }
+                
+                break;
+        }
+    }
+    
+    /**
+     * Finds the target cell of the snake and claims it.
+     */
+    private void intend(int id) {
+        Snake snake = snakes.get(id);
+        
+        if (directions != null && directions[id] != null) {
+            snake.setDirection(directions[id]);
+        }
+        
+        if (snake.hitsWall(grid)) {
+            targetCells[id] = -1;
+            return;
+        }
+        
+        int targetCell = getTargetCell(snake);
+        targetCells[id] = targetCell;
+        claims.getAndIncrement(targetCell);
+    }
+    
+    /**
+     * Decides the outcome of the snake against the state at the start of 
+     * the tick.
+     */
+    private void resolve(int id) {
+        int targetCell = targetCells[id];
+        
+        if (targetCell < 0) {
+            outcomes[id] = StepOutcome.WALL_COLLISION;
+        } else if (owners[targetCell] == id) {
+            outcomes[id] = StepOutcome.SELF_COLLISION;
+        } else if (owners[targetCell] != NO_OWNER 
+                || claims.get(targetCell) > 1) {
+            outcomes[id] = StepOutcome.SNAKE_COLLISION;
+        } else if (growing[id]) {
+            outcomes[id] = StepOutcome.GREW;
+        } else {
+            outcomes[id] = StepOutcome.MOVED;
+        }
+    }
+    
+    /**
+     * Moves the surviving snake. Its head enters a cell that was free and 
+     * claimed by no other snake, so the moves do not interfere.
+     */
+    private void move(int id) {
+        int targetCell = targetCells[id];
+        vacatedCells[id] = -1;
+        
+        if (targetCell >= 0) {
+            claims.set(targetCell, 0);
+        }
+        
+        if (outcomes[id].isTerminal()) {
+            return;
+        }
+        
+        Snake snake = snakes.get(id);
+        int tailCell = snake.getTailCell();
+        // The collisions are resolved against the shared occupancy grid.
+        snake.makeUncheckedStep();
+        
+        if (growing[id]) {
+            snake.growUnchecked();
+        } else {
+            owners[tailCell] = NO_OWNER;
+            vacatedCells[id] = tailCell;
+        }
+        
+        int headCell = snake.getHeadCell();
+        owners[headCell] = id;
+        growing[id] = berries[headCell];
+        berries[headCell] = false;
+    }
+    
+    /**
+     * Removes the dead snakes, updates the free cells and replaces the eaten
+     * berries. Runs serially in the order of the ids.
+     * 
+     * @return the number of snakes that died on this tick.
+     */
+    private int finishTick() {
+        int survivorCount = 0;
+        int eatenBerries = 0;
+        
+        for (int i = 0; i < aliveCount; i++) {
+            int id = aliveIds[i];
+            Snake snake = snakes.get(id);
+            
+            if (outcomes[id].isTerminal()) {
+                if (bodyCells.length < snake.size()) {
+                    bodyCells = new int[snake.size()];
+                }
+                
+                int length = snake.copyBodyCells(bodyCells);
+                
+                for (int j = 0; j < length; j++) {
+                    owners[bodyCells[j]] = NO_OWNER;
+                    freeCellIndex.add(bodyCells[j]);
+                    
+                    if (listener != null) {
+                        listener.onCellVacated(bodyCells[j]);
+                    }
+                }
+                
+                continue;
+            }
+            
+            aliveIds[survivorCount++] = id;
+            
+            if (vacatedCells[id] >= 0) {
+                freeCellIndex.add(vacatedCells[id]);
+            }
+            
+            freeCellIndex.remove(snake.getHeadCell());
+            
+            if (listener != null) {
+                if (vacatedCells[id] >= 0) {
+                    listener.onCellVacated(vacatedCells[id]);
+                }
+                
+                listener.onHeadMoved(id, snake.getHeadCell());
+            }
+            
+            if (growing[id]) {
+                eatenBerries++;
+            }
+        }
+        
+        for (int i = 0; i < eatenBerries; i++) {
+            spawnBerry();
+        }
+        
+        int deathCount = aliveCount - survivorCount;
+        aliveCount = survivorCount;
+        tickCount++;
+        return deathCount;
+    }
+    
+    /**
+     * Sets the listener notified of the cell changes. The listener is called
+     * serially on the thread calling {@code tick}, in the order of the ids, 
+     * also when the phases run on a pool.
+     * 
+     * @param listener the listener, or {@code null} for none.
+     */
+    public void setListener(ArenaListener listener) {
+        this.listener = listener;
+    }
+    
+    public GameGrid getGrid() {
+        return grid;
+    }
+    
+    public int getSnakeCount() {
+        return snakes.size();
+    }
+    
+    public int getAliveCount() {
+        return aliveCount;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Returns the snake with the given id. The snake must not be modified.
+     * 
+     * @param id the id of the snake.
+     * @return the snake.
+     */
+    public Snake getSnake(int id) {
+        return snakes.get(id);
+    }
+    
+    public boolean isAlive(int id) {
+        return outcomes[id] == null || !outcomes[id].isTerminal();
+    }
+    
+    /**
+     * Returns the outcome of the last tick for the given snake. A dead snake
+     * keeps the outcome it died with.
+     * 
+     * @param id the id of the snake.
+     * @return the last outcome, or {@code null} before the first tick.
+     */
+    public StepOutcome getOutcome(int id) {
+        return outcomes[id];
+    }
+    
+    /**
+     * Returns the id of the snake occupying the given cell.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return the id of the snake, or -1 if the cell is not occupied.
+     */
+    public int getOwner(int x, int y) {
+        return owners[y * gridWidth + x];
+    }
+    
+    public boolean isBerryAt(int x, int y) {
+        return berries[y * gridWidth + x];
+    }
+    
+    /**
+     * Tells whether a head may move into the cell, that is, whether the cell
+     * is inside the grid and neither a wall nor occupied. Cells outside the 
+     * grid count as walls.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return {@code true} if the cell is free.
+     */
+    public boolean isFree(int x, int y) {
+        return !grid.isWall(x, y) && owners[y * gridWidth + x] == NO_OWNER;
+    }
+    
+    private int getTargetCell(Snake snake) {
+        switch (snake.getDirection()) {
+            case NORTH:
+                return snake.getHeadCell() - gridWidth;
+            
+            case EAST:
+                return snake.getHeadCell() + 1;
+            
+            case SOUTH:
+                return snake.getHeadCell() + gridWidth;
+            
+            default:
+                return snake.getHeadCell() - 1;
+        }
+    }
+    
+    /**
+     * Places a berry in a uniformly random free cell, if there is one.
+     */
+    private void spawnBerry() {
+        int cell = freeCellIndex.getRandomCell(random);
+        
+        if (cell >= 0) {
+            berries[cell] = true;
+            freeCellIndex.remove(cell);
+            
+            if (listener != null) {
+                listener.onBerryPlaced(cell);
+            }
+        }
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= targetCells.length) {
+            return;
+        }
+        
+        int newCapacity = Math.max(capacity, 2 * targetCells.length);
+        aliveIds = Arrays.copyOf(aliveIds, newCapacity);
+        targetCells = Arrays.copyOf(targetCells, newCapacity);
+        vacatedCells = Arrays.copyOf(vacatedCells, newCapacity);
+        growing = Arrays.copyOf(growing, newCapacity);
+        outcomes = Arrays.copyOf(outcomes, newCapacity);
+    }
+    
+    /**
+     * Runs a phase of a tick for a range of the living snakes, splitting the
+     * range in halves down to {@code SNAKES_PER_TASK} snakes.
+     */
+    private final class PhaseTask extends RecursiveAction {
+        
+        private final int phase;
+        private final int fromIndex;
+        private final int toIndex;
+        
+        PhaseTask(int phase, int fromIndex, int toIndex) {
+            this.phase = phase;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= SNAKES_PER_TASK) {
+                runPhase(phase, fromIndex, toIndex);
+                return;
+            }
+            
+            int middleIndex = (fromIndex + toIndex) >>> 1;
+            invokeAll(new PhaseTask(phase, fromIndex, middleIndex),
+                      new PhaseTask(phase, middleIndex, toIndex));
+        }
+    }
+    
+    /**
+     * Keeps each bot going straight while the cell ahead is free, and turns
+     * it to a random free neighbour cell otherwise.
+     */
+    static void chooseDirections(Arena arena, 
+                                 Random random, 
+                                 MotionDirection[] directions) {
+        MotionDirection[] motionDirections = MotionDirection.values();
+        
+        for (int id = 0; id < arena.getSnakeCount(); id++) {
+            directions[id] = null;
+            
+            if (!arena.isAlive(id)) {
+                continue;
+            }
+            
+            Snake snake = arena.getSnake(id);
+            int offset = random.nextInt(4);
+            
+            for (int i = 0; i < 4; i++) {
+                MotionDirection direction = i == 0 ? 
+                        snake.getDirection() : 
+                        motionDirections[(offset + i) & 3];
+                int x = snake.getHeadX();
+                int y = snake.getHeadY();
+                
+                switch (direction) {
+                    case NORTH:
+                        y--;
+                        break;
+                    
+                    case EAST:
+                        x++;
+                        break;
+                    
+                    case SOUTH:
+                        y++;
+                        break;
+                    
+                    default:
+                        x--;
+                        break;
+                }
+                
+                if (arena.isFree(x, y)) {
+                    directions[id] = direction;
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package net.coderodde.snake;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class encodes the changes of an {@link Arena} into the binary frames
+ * broadcast by {@link ArenaServer}. The grid is split into square chunks.
+ * The changes of a tick are encoded once per chunk into a direct buffer, a
+ * section, shared by all the clients viewing the chunk. A client starting to
+ * view a chunk gets a key section listing the occupied cells and the berries
+ * of the chunk instead, also encoded at most once per tick.
+ * 
+ * <p>A frame is an {@code int} length followed by that many bytes:
+ * <pre>
+ * HELLO: byte 0, int width, int height, int chunk size, int snake id
+ * TICK:  byte 1, long tick, short drop count, int dropped chunk...,
+ *        section...
+ * </pre>
+ * A section is an {@code int} chunk index, a {@code byte} kind (0 for a
+ * delta, 1 for a key, which clears the chunk first) and an {@code int}
+ * event count, followed by the events. An event is a {@code short} with the
+ * event type in the two highest bits and the index of the cell within the
+ * chunk in the rest; a head event is followed by the {@code int} id of the
+ * snake. The tail cells are sent explicitly, so a moving snake costs eight
+ * bytes per tick whatever its length.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class ArenaFrameEncoder implements ArenaListener {
+    
+    /**
+     * The maximum side length of a chunk, keeping the cell index of an event
+     * within 14 bits.
+     */
+    static final int MAXIMUM_CHUNK_SIZE = 128;
+    
+    static final byte HELLO_FRAME = 0;
+    static final byte TICK_FRAME = 1;
+    static final byte DELTA_SECTION = 0;
+    static final byte KEY_SECTION = 1;
+    
+    /**
+     * The event types.
+     */
+    static final int HEAD_EVENT = 1;
+    static final int VACATE_EVENT = 2;
+    static final int BERRY_EVENT = 3;
+    
+    static final int EVENT_TYPE_SHIFT = 14;
+    static final int CELL_INDEX_MASK = (1 << EVENT_TYPE_SHIFT) - 1;
+    
+    /**
+     * The size of a section before its events.
+     */
+    static final int SECTION_HEADER_SIZE = 9;
+    
+    /**
+     * The offset of the event count within a section.
+     */
+    private static final int EVENT_COUNT_OFFSET = 5;
+    
+    /**
+     * The size of a hello frame including the length.
+     */
+    static final int HELLO_FRAME_SIZE = 21;
+    
+    private final Arena arena;
+    private final int gridWidth;
+    private final int chunkSize;
+    private final int chunksPerRow;
+    private final int chunksPerColumn;
+    
+    /**
+     * The capacity of a section. A cell gets at most a head event, or a
+     * vacate and a berry event, in a tick.
+     */
+    private final int sectionCapacity;
+    
+    /**
+     * The delta sections by chunk, allocated on the first event.
+     */
+    private final ByteBuffer[] deltaSections;
+    private final int[] eventCounts;
+    
+    /**
+     * The chunks with events on the current tick.
+     */
+    private final int[] dirtyChunks;
+    private int dirtyCount;
+    
+    /**
+     * The key sections by chunk, and the tick each was encoded on.
+     */
+    private final ByteBuffer[] keySections;
+    private final long[] keyTicks;
+    
+    /**
+     * Constructs an encoder and registers it as the listener of the arena.
+     * 
+     * @param arena     the arena to encode.
+     * @param chunkSize the side length of a chunk.
+     */
+    ArenaFrameEncoder(Arena arena, int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAXIMUM_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                    "The chunk size (" + chunkSize + ") is not within [1, " +
+                    MAXIMUM_CHUNK_SIZE + "].");
+        }
+        
+        this.arena = arena;
+        this.gridWidth = arena.getGrid().getWidth();
+        this.chunkSize = chunkSize;
+        this.chunksPerRow = (gridWidth + chunkSize - 1) / chunkSize;
+        this.chunksPerColumn =
+                (arena.getGrid().getHeight() + chunkSize - 1) / chunkSize;
+        this.sectionCapacity = SECTION_HEADER_SIZE + 6 * chunkSize * chunkSize;
+        
+        int chunkCount = chunksPerRow * chunksPerColumn;
+        this.deltaSections = new ByteBuffer[chunkCount];
+        this.eventCounts = new int[chunkCount];
+        this.dirtyChunks = new int[chunkCount];
+        this.keySections = new ByteBuffer[chunkCount];
+        this.keyTicks = new long[chunkCount];
+        
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            keyTicks[chunk] = -1L;
+        }
+        
+        arena.setListener(this);
+    }
+    
+    int getChunkSize() {
+        return chunkSize;
+    }
+    
+    int getChunksPerRow() {
+        return chunksPerRow;
+    }
+    
+    int getChunksPerColumn() {
+        return chunksPerColumn;
+    }
+    
+    /**
+     * Returns the chunk containing the given cell.
+     * 
+     * @param cell the packed cell.
+     * @return the chunk index.
+     */
+    int getChunk(int cell) {
+        int x = cell % gridWidth;
+        int y = cell / gridWidth;
+        return (y / chunkSize) * chunksPerRow + x / chunkSize;
+    }
+    
+    /**
+     * Discards the sections of the previous tick. Called before each tick of
+     * the arena.
+     */
+    void beginTick() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int chunk = dirtyChunks[i];
+            deltaSections[chunk].clear();
+            eventCounts[chunk] = 0;
+        }
+        
+        dirtyCount = 0;
+    }
+    
+    /**
+     * Completes the sections of the current tick. Called after each tick of
+     * the arena.
+     */
+    void finishTick() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int chunk = dirtyChunks[i];
+            ByteBuffer section = deltaSections[chunk];
+            section.putInt(EVENT_COUNT_OFFSET, eventCounts[chunk]);
+            section.flip();
+        }
+    }
+    
+    /**
+     * Returns the changes of the last tick within the given chunk.
+     * 
+     * @param chunk the chunk index.
+     * @return the delta section, or {@code null} if nothing changed.
+     */
+    ByteBuffer getDeltaSection(int chunk) {
+        return eventCounts[chunk] == 0 ? null : deltaSections[chunk];
+    }
+    
+    /**
+     * Returns the current content of the given chunk, encoding it on the
+     * first call per tick.
+     * 
+     * @param chunk the chunk index.
+     * @return the key section.
+     */
+    ByteBuffer getKeySection(int chunk) {
+        long tickCount = arena.getTickCount();
+        
+        if (keyTicks[chunk] == tickCount) {
+            return keySections[chunk];
+        }
+        
+        ByteBuffer section = keySections[chunk];
+        
+        if (section == null) {
+            section = ByteBuffer.allocateDirect(sectionCapacity);
+            keySections[chunk] = section;
+        }
+        
+        section.clear();
+        section.putInt(chunk).put(KEY_SECTION).putInt(0);
+        
+        int minX = (chunk % chunksPerRow) * chunkSize;
+        int minY = (chunk / chunksPerRow) * chunkSize;
+        int maxX = Math.min(minX + chunkSize, gridWidth);
+        int maxY = Math.min(minY + chunkSize, arena.getGrid().getHeight());
+        int eventCount = 0;
+        
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                int cellIndex = (y - minY) * chunkSize + x - minX;
+                int owner = arena.getOwner(x, y);
+                
+                if (owner >= 0) {
+                    putEvent(section, HEAD_EVENT, cellIndex);
+                    section.putInt(owner);
+                    eventCount++;
+                } else if (arena.isBerryAt(x, y)) {
+                    putEvent(section, BERRY_EVENT, cellIndex);
+                    eventCount++;
+                }
+            }
+        }
+        
+        section.putInt(EVENT_COUNT_OFFSET, eventCount);
+        section.flip();
+        keyTicks[chunk] = tickCount;
+        return section;
+    }
+    
+    /**
+     * Writes a hello frame into the buffer, ready for writing out.
+     * 
+     * @param buffer  the target buffer.
+     * @param snakeId the id of the snake of the client, or -1.
+     */
+    void encodeHello(ByteBuffer buffer, int snakeId) {
+        buffer.clear();
+        buffer.putInt(HELLO_FRAME_SIZE - 4)
+              .put(HELLO_FRAME)
+              .putInt(gridWidth)
+              .putInt(arena.getGrid().getHeight())
+              .putInt(chunkSize)
+              .putInt(snakeId);
+        buffer.flip();
+    }
+    
+    @Override
+    public void onHeadMoved(int id, int cell) {
+        ByteBuffer section = getSection(cell);
+        putEvent(section, HEAD_EVENT, getCellIndex(cell));
+        section.putInt(id);
+    }
+    
+    @Override
+    public void onCellVacated(int cell) {
+        putEvent(getSection(cell), VACATE_EVENT, getCellIndex(cell));
+    }
+    
+    @Override
+    public void onBerryPlaced(int cell) {
+        putEvent(getSection(cell), BERRY_EVENT, getCellIndex(cell));
+    }
+    
+    /**
+     * Returns the delta section of the chunk of the cell, counting a new
+     * event in it.
+     */
+    private ByteBuffer getSection(int cell) {
+        int chunk = getChunk(cell);
+        ByteBuffer section = deltaSections[chunk];
+        
+        if (section == null) {
+            section = ByteBuffer.allocateDirect(sectionCapacity);
+            deltaSections[chunk] = section;
+        }
+        
+        if (eventCounts[chunk]++ == 0) {
+            dirtyChunks[dirtyCount++] = chunk;
+            section.putInt(chunk).put(DELTA_SECTION).putInt(0);
+        }
+        
+        return section;
+    }
+    
+    private int getCellIndex(int cell) {
+        int x = cell % gridWidth;
+        int y = cell / gridWidth;
+        return (y % chunkSize) * chunkSize + x % chunkSize;
+    }
+    
+    private static void putEvent(ByteBuffer section,
+                                 int eventType,
+                                 int cellIndex) {
+        section.putShort((short) (eventType << EVENT_TYPE_SHIFT | cellIndex));
+    }
+}
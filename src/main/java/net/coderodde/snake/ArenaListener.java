@@ -0,0 +1,38 @@
+package net.coderodde.snake;
+
+/**
+ * This interface defines the API for observing the cell changes of an 
+ * {@link Arena}. Applying the changes of a tick in the order they are 
+ * reported to a copy of the occupancy grid and the berries of the arena 
+ * makes the copy equal to the arena. The snakes added by 
+ * {@link Arena#addSnake(int, int, MotionDirection, int)} are not reported.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public interface ArenaListener {
+    
+    /**
+     * Called when the head of a snake enters a cell. A berry in the cell is 
+     * eaten.
+     * 
+     * @param id   the id of the snake.
+     * @param cell the cell entered.
+     */
+    void onHeadMoved(int id, int cell);
+    
+    /**
+     * Called when a cell is no longer occupied, either because a tail left 
+     * it or because the snake in it died.
+     * 
+     * @param cell the vacated cell.
+     */
+    void onCellVacated(int cell);
+    
+    /**
+     * Called when a berry is placed in a cell.
+     * 
+     * @param cell the cell of the berry.
+     */
+    void onBerryPlaced(int cell);
+}
@@ -0,0 +1,681 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class hosts an {@link Arena} for many players over TCP. A single
+ * thread runs a {@link Selector} over all the connections and ticks the
+ * arena against absolute deadlines. Each connecting client gets a snake of
+ * the arena without a client, or watches as a spectator once all the snakes
+ * are taken. The snake of a client returns to the pool when it disconnects.
+ * A connection failing to be accepted is dropped on its own and never stops
+ * the server.
+ * 
+ * <p>A client steers its snake by sending single bytes, the ordinals of
+ * {@link MotionDirection}s; the last byte received before a tick counts,
+ * and a byte reversing the snake is ignored. After each tick the server
+ * sends every client a frame with the changes within the chunks around its
+ * snake, as described in {@link ArenaFrameEncoder}. The changes of a chunk
+ * are encoded once per tick into a direct buffer, and each frame is written
+ * with a single gathering write of the header of the client and the shared
+ * sections, so the work per client does not grow with the lengths of the
+ * snakes. A client that has not received its previous frame by the next
+ * tick skips frames until it catches up, and then starts over from the key
+ * sections of its chunks.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ArenaServer implements AutoCloseable {
+    
+    /**
+     * The maximum number of pending connections.
+     */
+    private static final int ACCEPT_BACKLOG = 4096;
+    
+    /**
+     * The time accepting pauses for after a failed accept, in nanoseconds.
+     */
+    private static final long ACCEPT_BACKOFF_NANOS = 
+            TimeUnit.MILLISECONDS.toNanos(100L);
+    
+    private final Arena arena;
+    private final ArenaFrameEncoder encoder;
+    private final long tickDurationNanos;
+    private final Random random = new Random();
+    
+    /**
+     * The direction received from the client of each snake since the last
+     * tick, or {@code null}. Sized when the server starts.
+     */
+    private MotionDirection[] requestedDirections;
+    private MotionDirection[] directions;
+    
+    /**
+     * The ids of the snakes without a client in the first
+     * {@code freeSnakeIdCount} entries, the next one to hand out last.
+     */
+    private int[] freeSnakeIds;
+    private int freeSnakeIdCount;
+    
+    private final List<Client> clients = new ArrayList<>();
+    private final ByteBuffer[] frameBuffers =
+            new ByteBuffer[ArenaSubscription.MAXIMUM_FRAME_BUFFERS];
+    private final ByteBuffer inputBuffer = ByteBuffer.allocateDirect(256);
+    private final MotionDirection[] motionDirections =
+            MotionDirection.values();
+    
+    private Selector selector;
+    private ServerSocketChannel serverSocketChannel;
+    private Thread serverThread;
+    private boolean clientsClosed;
+    
+    /**
+     * Whether accepting is paused after a failed accept, and until when.
+     */
+    private boolean acceptPaused;
+    private long acceptResumeTime;
+    
+    private volatile boolean closed;
+    private volatile boolean steeringIdleSnakes;
+    
+    /**
+     * The statistics, written only by the server thread.
+     */
+    private volatile int clientCount;
+    private volatile long tickCount;
+    private volatile long tickNanos;
+    private volatile long framesSent;
+    private volatile long framesSkipped;
+    private volatile long bytesSent;
+    private volatile long acceptFailures;
+    
+    /**
+     * Constructs a server for the given arena. The arena must not be
+     * accessed by other threads once the server is started.
+     * 
+     * @param arena        the arena to host.
+     * @param chunkSize    the side length of the chunks.
+     * @param tickDuration the duration of a tick in milliseconds.
+     */
+    public ArenaServer(Arena arena, int chunkSize, long tickDuration) {
+        this.arena = Objects.requireNonNull(arena, "The input arena is null.");
+        
+        if (tickDuration < 1L) {
+            throw new IllegalArgumentException(
+                    "The tick duration (" + tickDuration +
+                    ") must be positive.");
+        }
+        
+        this.encoder = new ArenaFrameEncoder(arena, chunkSize);
+        this.tickDurationNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+    }
+    
+    /**
+     * Lets bots steer the snakes for which no direction was received on a
+     * tick, including the snakes without a client. A bot keeps going
+     * straight while the cell ahead is free, and turns to a random free
+     * neighbour cell otherwise.
+     * 
+     * @param steeringIdleSnakes whether to steer the idle snakes.
+     */
+    public void setSteeringIdleSnakes(boolean steeringIdleSnakes) {
+        this.steeringIdleSnakes = steeringIdleSnakes;
+    }
+    
+    /**
+     * Starts serving on the given port on a new daemon thread. The snakes
+     * added to the arena by now are the ones handed to the clients.
+     * 
+     * @param port the port, or 0 for any free port.
+     * @return the port listened on.
+     * @throws IOException if binding fails.
+     */
+    public int start(int port) throws IOException {
+        if (serverThread != null) {
+            throw new IllegalStateException("The server is already started.");
+        }
+        
+        int snakeCount = arena.getSnakeCount();
+        requestedDirections = new MotionDirection[snakeCount];
+        directions = new MotionDirection[snakeCount];
+        freeSnakeIds = new int[snakeCount];
+        freeSnakeIdCount = snakeCount;
+        
+        for (int i = 0; i < snakeCount; i++) {
+            freeSnakeIds[i] = snakeCount - 1 - i;
+        }
+        
+        selector = Selector.open();
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        serverSocketChannel.configureBlocking(false);
+        serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+        serverThread = new Thread(this::runLoop, "arena-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        return ((InetSocketAddress) serverSocketChannel.getLocalAddress())
+                .getPort();
+    }
+    
+    /**
+     * Stops the server and closes all the connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        
+        if (serverThread == null) {
+            return;
+        }
+        
+        selector.wakeup();
+        
+        try {
+            serverThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public int getClientCount() {
+        return clientCount;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Returns the time the server thread spent ticking the arena and
+     * writing the frames.
+     * 
+     * @return the total tick time in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+    
+    public long getFramesSent() {
+        return framesSent;
+    }
+    
+    /**
+     * Returns the number of frames not sent because the client had not
+     * received its previous frame yet.
+     * 
+     * @return the number of skipped frames.
+     */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+    
+    public long getBytesSent() {
+        return bytesSent;
+    }
+    
+    /**
+     * Returns the number of connections that failed to be accepted or set
+     * up, for example for running out of file descriptors.
+     * 
+     * @return the number of failed accepts.
+     */
+    public long getAcceptFailures() {
+        return acceptFailures;
+    }
+    
+    private void runLoop() {
+        long deadline = System.nanoTime();
+        
+        try {
+            while (!closed) {
+                deadline += tickDurationNanos;
+                long remaining = deadline - System.nanoTime();
+                
+                // A tick overrunning by more than a whole tick drops the 
+                // missed ticks instead of ticking back to back to catch up.
+                if (remaining < -tickDurationNanos) {
+                    deadline -= remaining;
+                    remaining = 0L;
+                }
+                
+                // The input and the accepts are served before every tick, 
+                // even a late one.
+                do {
+                    if (acceptPaused) {
+                        long pause = acceptResumeTime - System.nanoTime();
+                        
+                        if (pause <= 0L) {
+                            resumeAccepting();
+                        } else {
+                            remaining = Math.min(remaining, pause);
+                        }
+                    }
+                    
+                    if (remaining > 0L) {
+                        selector.select(
+                                Math.max(1L, remaining / 1_000_000L));
+                    } else {
+                        selector.selectNow();
+                    }
+                    
+                    handleSelectedKeys();
+                } while (!closed 
+                        && (remaining = deadline - System.nanoTime()) > 0L);
+                
+                if (!closed) {
+                    tick();
+                }
+            }
+        } catch (IOException ex) {
+            // Only a broken selector gets here.
+            throw new UncheckedIOException(ex);
+        } finally {
+            for (Client client : clients) {
+                closeClient(client);
+            }
+            
+            try {
+                serverSocketChannel.close();
+                selector.close();
+            } catch (IOException ex) {
+                // Nothing to do about it while shutting down.
+            }
+        }
+    }
+    
+    private void handleSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        
+        while (iterator.hasNext()) {
+            SelectionKey selectionKey = iterator.next();
+            iterator.remove();
+            
+            if (!selectionKey.isValid()) {
+                continue;
+            }
+            
+            if (selectionKey.isAcceptable()) {
+                acceptClients(selectionKey);
+                continue;
+            }
+            
+            Client client = (Client) selectionKey.attachment();
+            
+            try {
+                if (selectionKey.isReadable()) {
+                    readInput(client);
+                }
+                
+                if (selectionKey.isValid() && selectionKey.isWritable()) {
+                    flushBacklog(client);
+                }
+            } catch (IOException ex) {
+                closeClient(client);
+            }
+        }
+        
+        removeClosedClients();
+    }
+    
+    /**
+     * Accepts the pending connections. A failed accept, most likely for
+     * running out of file descriptors, leaves the connection pending, so
+     * accepting pauses for {@link #ACCEPT_BACKOFF_NANOS} instead of spinning.
+     * A connection failing to be set up is closed on its own.
+     */
+    private void acceptClients(SelectionKey acceptKey) {
+        while (true) {
+            SocketChannel socketChannel;
+            
+            try {
+                socketChannel = serverSocketChannel.accept();
+            } catch (IOException ex) {
+                acceptFailures++;
+                acceptPaused = true;
+                acceptResumeTime = System.nanoTime() + ACCEPT_BACKOFF_NANOS;
+                acceptKey.interestOps(0);
+                return;
+            }
+            
+            if (socketChannel == null) {
+                return;
+            }
+            
+            try {
+                socketChannel.configureBlocking(false);
+                socketChannel.setOption(StandardSocketOptions.TCP_NODELAY,
+                                        true);
+                addClient(socketChannel);
+            } catch (IOException ex) {
+                acceptFailures++;
+                
+                try {
+                    socketChannel.close();
+                } catch (IOException closeException) {
+                    // The connection is dropped either way.
+                }
+            }
+        }
+    }
+    
+    private void resumeAccepting() {
+        acceptPaused = false;
+        serverSocketChannel.keyFor(selector)
+                           .interestOps(SelectionKey.OP_ACCEPT);
+    }
+    
+    private void addClient(SocketChannel socketChannel) throws IOException {
+        SelectionKey selectionKey = socketChannel.register(
+                selector, 
+                SelectionKey.OP_READ);
+        int snakeId = freeSnakeIdCount > 0 ?
+                      freeSnakeIds[--freeSnakeIdCount] :
+                      -1;
+        Client client = new Client(socketChannel, snakeId);
+        client.selectionKey = selectionKey;
+        selectionKey.attach(client);
+        client.centerChunk = snakeId >= 0 ?
+                encoder.getChunk(arena.getSnake(snakeId).getHeadCell()) :
+                encoder.getChunk(arena.getGrid().getHeight() / 2 *
+                                 arena.getGrid().getWidth() +
+                                 arena.getGrid().getWidth() / 2);
+        clients.add(client);
+        clientCount = clients.size();
+        
+        ByteBuffer header = client.subscription.getHeader();
+        encoder.encodeHello(header, snakeId);
+        frameBuffers[0] = header;
+        
+        try {
+            writeFrame(client, 1);
+        } catch (IOException ex) {
+            closeClient(client);
+        }
+    }
+    
+    private void readInput(Client client) throws IOException {
+        inputBuffer.clear();
+        
+        if (client.socketChannel.read(inputBuffer) < 0) {
+            closeClient(client);
+            return;
+        }
+        
+        inputBuffer.flip();
+        
+        while (inputBuffer.hasRemaining()) {
+            int ordinal = inputBuffer.get();
+            
+            if (client.snakeId >= 0 && ordinal >= 0 && ordinal < 4) {
+                requestedDirections[client.snakeId] =
+                        motionDirections[ordinal];
+            }
+        }
+    }
+    
+    /**
+     * Ticks the arena and sends the frames of the tick.
+     */
+    private void tick() {
+        long startTime = System.nanoTime();
+        
+        if (steeringIdleSnakes) {
+            Arena.chooseDirections(arena, random, directions);
+        } else {
+            Arrays.fill(directions, null);
+        }
+        
+        for (int id = 0; id < requestedDirections.length; id++) {
+            MotionDirection direction = requestedDirections[id];
+            
+            if (direction != null) {
+                requestedDirections[id] = null;
+                int reverseOrdinal = (direction.ordinal() + 2) & 3;
+                
+                if (arena.getSnake(id).getDirection().ordinal()
+                        != reverseOrdinal) {
+                    directions[id] = direction;
+                }
+            }
+        }
+        
+        encoder.beginTick();
+        arena.tick(directions);
+        encoder.finishTick();
+        
+        long currentTick = arena.getTickCount();
+        
+        for (Client client : clients) {
+            if (client.closed) {
+                continue;
+            }
+            
+            if (client.backlogged) {
+                client.subscription.markStale();
+                framesSkipped++;
+                continue;
+            }
+            
+            if (client.snakeId >= 0 && arena.isAlive(client.snakeId)) {
+                client.centerChunk = encoder.getChunk(
+                        arena.getSnake(client.snakeId).getHeadCell());
+            }
+            
+            int bufferCount = client.subscription.assembleFrame(
+                    encoder,
+                    currentTick,
+                    client.centerChunk,
+                    frameBuffers);
+            
+            try {
+                writeFrame(client, bufferCount);
+            } catch (IOException ex) {
+                closeClient(client);
+            }
+        }
+        
+        removeClosedClients();
+        tickCount = currentTick;
+        tickNanos += System.nanoTime() - startTime;
+    }
+    
+    /**
+     * Writes the frame in {@code frameBuffers} with a single gathering
+     * write. The bytes not accepted by the socket are copied to the backlog
+     * of the client, since the shared sections change on the next tick.
+     */
+    private void writeFrame(Client client, int bufferCount)
+            throws IOException {
+        try {
+            bytesSent += client.socketChannel.write(frameBuffers,
+                                                    0,
+                                                    bufferCount);
+            framesSent++;
+            
+            if (frameBuffers[bufferCount - 1].hasRemaining()) {
+                saveBacklog(client, bufferCount);
+            }
+        } finally {
+            for (int i = 1; i < bufferCount; i++) {
+                frameBuffers[i].rewind();
+            }
+        }
+    }
+    
+    private void saveBacklog(Client client, int bufferCount) {
+        int size = 0;
+        
+        for (int i = 0; i < bufferCount; i++) {
+            size += frameBuffers[i].remaining();
+        }
+        
+        if (client.backlog == null || client.backlog.capacity() < size) {
+            // Only the slow clients get a backlog, so a heap buffer does.
+            client.backlog = ByteBuffer.allocate(Math.max(size, 1024));
+        }
+        
+        client.backlog.clear();
+        
+        for (int i = 0; i < bufferCount; i++) {
+            client.backlog.put(frameBuffers[i]);
+        }
+        
+        client.backlog.flip();
+        client.backlogged = true;
+        client.selectionKey.interestOps(SelectionKey.OP_READ |
+                                        SelectionKey.OP_WRITE);
+    }
+    
+    private void flushBacklog(Client client) throws IOException {
+        bytesSent += client.socketChannel.write(client.backlog);
+        
+        if (!client.backlog.hasRemaining()) {
+            client.backlogged = false;
+            client.selectionKey.interestOps(SelectionKey.OP_READ);
+        }
+    }
+    
+    /**
+     * Closes the connection of a client and returns its snake to the pool if
+     * it is still alive, so that a reconnecting player gets a snake again. 
+     * The arena does not respawn snakes, so a dead one is never handed out 
+     * again.
+     */
+    private void closeClient(Client client) {
+        if (client.closed) {
+            return;
+        }
+        
+        client.closed = true;
+        clientsClosed = true;
+        
+        if (client.snakeId >= 0) {
+            requestedDirections[client.snakeId] = null;
+            
+            if (arena.isAlive(client.snakeId)) {
+                freeSnakeIds[freeSnakeIdCount++] = client.snakeId;
+            }
+        }
+        
+        try {
+            client.socketChannel.close();
+        } catch (IOException ex) {
+            // The client is gone either way.
+        }
+    }
+    
+    private void removeClosedClients() {
+        if (clientsClosed) {
+            clients.removeIf(client -> client.closed);
+            clientCount = clients.size();
+            clientsClosed = false;
+        }
+    }
+    
+    /**
+     * Creates an arena with the given number of snakes spread evenly over a
+     * square grid, and as many berries.
+     * 
+     * @param gridSize   the side length of the grid.
+     * @param snakeCount the number of snakes.
+     * @param seed       the seed of the berry placement.
+     * @return the arena.
+     */
+    static Arena createArena(int gridSize, int snakeCount, long seed) {
+        Arena arena = new Arena(new GameGrid(gridSize, gridSize),
+                                snakeCount,
+                                new Random(seed));
+        
+        if (snakeCount == 0) {
+            return arena;
+        }
+        
+        int spacing = Math.max(
+                6,
+                (int) Math.sqrt((double) gridSize * gridSize / snakeCount));
+        int slotsPerRow = gridSize / spacing;
+        
+        if (slotsPerRow == 0
+                || (snakeCount - 1) / slotsPerRow * spacing >= gridSize) {
+            throw new IllegalArgumentException(
+                    snakeCount + " snakes do not fit in a " + gridSize +
+                    "x" + gridSize + " grid.");
+        }
+        
+        for (int i = 0; i < snakeCount; i++) {
+            arena.addSnake(spacing * (i % slotsPerRow) + 3,
+                           spacing * (i / slotsPerRow),
+                           MotionDirection.EAST,
+                           4);
+        }
+        
+        return arena;
+    }
+    
+    /**
+     * Returns the statistics as a single line of text.
+     * 
+     * @return the statistics.
+     */
+    String getStatistics() {
+        long tickCount = this.tickCount;
+        long framesSent = this.framesSent;
+        return String.format(
+                "clients: %d, ticks: %d, tick time: %.2f ms, frames sent: " +
+                "%d, frames skipped: %d, bytes/frame: %.0f, accept " +
+                "failures: %d",
+                clientCount,
+                tickCount,
+                tickCount == 0L ? 0.0 : tickNanos / 1e6 / tickCount,
+                framesSent,
+                framesSkipped,
+                framesSent == 0L ? 0.0 : (double) bytesSent / framesSent,
+                acceptFailures);
+    }
+    
+    /**
+     * Holds the state of a connection.
+     */
+    private static final class Client {
+        
+        private final SocketChannel socketChannel;
+        private final int snakeId;
+        private final ArenaSubscription subscription =
+                new ArenaSubscription();
+        private SelectionKey selectionKey;
+        
+        /**
+         * The chunk the view of the client is centered on: the chunk of the
+         * head of its snake, or of the last head of a dead snake.
+         */
+        private int centerChunk;
+        
+        /**
+         * The bytes of the last frame not yet written.
+         */
+        private ByteBuffer backlog;
+        private boolean backlogged;
+        private boolean closed;
+        
+        Client(SocketChannel socketChannel, int snakeId) {
+            this.socketChannel = socketChannel;
+            this.snakeId = snakeId;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package net.coderodde.snake;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class tracks the chunks a client of {@link ArenaServer} views and
+ * assembles its tick frames. A frame consists of a small header of the
+ * client, listing the chunks it no longer views, followed by the sections
+ * of an {@link ArenaFrameEncoder}, which are shared by all the clients. The
+ * client views the chunks within {@code VIEW_RADIUS} chunks of its center
+ * chunk, so the size of its frames does not depend on the size of the arena
+ * or on the lengths of the snakes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class ArenaSubscription {
+    
+    /**
+     * The number of chunks viewed in each direction from the center chunk.
+     */
+    static final int VIEW_RADIUS = 1;
+    
+    /**
+     * The maximum number of chunks in a view.
+     */
+    static final int MAXIMUM_VIEW_SIZE =
+            (2 * VIEW_RADIUS + 1) * (2 * VIEW_RADIUS + 1);
+    
+    /**
+     * The maximum number of buffers in a frame: the header and a section per
+     * viewed chunk.
+     */
+    static final int MAXIMUM_FRAME_BUFFERS = MAXIMUM_VIEW_SIZE + 1;
+    
+    /**
+     * The size of a tick header without the dropped chunks.
+     */
+    private static final int TICK_HEADER_SIZE = 15;
+    
+    /**
+     * The header of the frames of this client, also holding its hello frame.
+     */
+    private final ByteBuffer header = ByteBuffer.allocateDirect(
+            Math.max(TICK_HEADER_SIZE + 4 * MAXIMUM_VIEW_SIZE,
+                     ArenaFrameEncoder.HELLO_FRAME_SIZE));
+    
+    private int[] viewChunks = new int[MAXIMUM_VIEW_SIZE];
+    private int[] nextViewChunks = new int[MAXIMUM_VIEW_SIZE];
+    private int viewCount;
+    
+    /**
+     * The flag telling that the client missed a frame, so it must get a key
+     * section for each chunk it views.
+     */
+    private boolean stale;
+    
+    ByteBuffer getHeader() {
+        return header;
+    }
+    
+    /**
+     * Makes the next frame start over with the key sections of the viewed
+     * chunks.
+     */
+    void markStale() {
+        stale = true;
+    }
+    
+    /**
+     * Moves the view to the given center chunk and puts the buffers of the
+     * next tick frame into {@code buffers}, ready for writing out. The
+     * header comes first. The shared sections must be rewound after
+     * writing.
+     * 
+     * @param encoder     the encoder of the arena.
+     * @param tickCount   the number of the tick.
+     * @param centerChunk the chunk to center the view on.
+     * @param buffers     the target array of at least
+     *                    {@code MAXIMUM_FRAME_BUFFERS} buffers.
+     * @return the number of buffers in the frame.
+     */
+    int assembleFrame(ArenaFrameEncoder encoder,
+                      long tickCount,
+                      int centerChunk,
+                      ByteBuffer[] buffers) {
+        int chunksPerRow = encoder.getChunksPerRow();
+        int centerX = centerChunk % chunksPerRow;
+        int centerY = centerChunk / chunksPerRow;
+        int minX = Math.max(0, centerX - VIEW_RADIUS);
+        int minY = Math.max(0, centerY - VIEW_RADIUS);
+        int maxX = Math.min(chunksPerRow - 1, centerX + VIEW_RADIUS);
+        int maxY = Math.min(encoder.getChunksPerColumn() - 1,
+                            centerY + VIEW_RADIUS);
+        int nextViewCount = 0;
+        int bufferCount = 1;
+        int frameLength = 0;
+        
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int chunk = y * chunksPerRow + x;
+                ByteBuffer section = stale || !isViewed(chunk) ?
+                        encoder.getKeySection(chunk) :
+                        encoder.getDeltaSection(chunk);
+                
+                nextViewChunks[nextViewCount++] = chunk;
+                
+                if (section != null) {
+                    buffers[bufferCount++] = section;
+                    frameLength += section.remaining();
+                }
+            }
+        }
+        
+        header.clear();
+        header.putInt(0)
+              .put(ArenaFrameEncoder.TICK_FRAME)
+              .putLong(tickCount)
+              .putShort((short) 0);
+        
+        int dropCount = 0;
+        
+        for (int i = 0; i < viewCount; i++) {
+            if (!contains(nextViewChunks, nextViewCount, viewChunks[i])) {
+                header.putInt(viewChunks[i]);
+                dropCount++;
+            }
+        }
+        
+        header.putShort(TICK_HEADER_SIZE - 2, (short) dropCount);
+        header.flip();
+        header.putInt(0, header.remaining() - 4 + frameLength);
+        buffers[0] = header;
+        
+        int[] previousViewChunks = viewChunks;
+        viewChunks = nextViewChunks;
+        nextViewChunks = previousViewChunks;
+        viewCount = nextViewCount;
+        stale = false;
+        return bufferCount;
+    }
+    
+    private boolean isViewed(int chunk) {
+        return contains(viewChunks, viewCount, chunk);
+    }
+    
+    private static boolean contains(int[] chunks, int count, int chunk) {
+        for (int i = 0; i < count; i++) {
+            if (chunks[i] == chunk) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
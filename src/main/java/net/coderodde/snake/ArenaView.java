@@ -0,0 +1,200 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class holds the copy of an {@link Arena} a client of
+ * {@link ArenaServer} builds from the frames it receives. Only the cells in
+ * the chunks currently viewed by the client are known; the other cells
+ * read as free.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ArenaView {
+    
+    private int width;
+    private int height;
+    private int chunkSize;
+    private int chunksPerRow;
+    private int snakeId = -1;
+    private long tickCount = -1L;
+    
+    /**
+     * The owner of each cell, or -1 for a free cell.
+     */
+    private int[] owners;
+    private boolean[] berries;
+    private boolean[] viewedChunks;
+    
+    /**
+     * Applies a frame, without its length, to this view.
+     * 
+     * @param frame the buffer holding the frame from its position to its
+     *              limit.
+     * @throws IOException if the frame is corrupted.
+     */
+    public void apply(ByteBuffer frame) throws IOException {
+        try {
+            byte frameType = frame.get();
+            
+            if (frameType == ArenaFrameEncoder.HELLO_FRAME) {
+                applyHello(frame);
+            } else if (frameType == ArenaFrameEncoder.TICK_FRAME
+                    && owners != null) {
+                applyTick(frame);
+            } else {
+                throw new IOException("Unexpected frame type " + frameType +
+                                      ".");
+            }
+        } catch (BufferUnderflowException
+                | IndexOutOfBoundsException
+                | IllegalArgumentException ex) {
+            throw new IOException("Corrupted arena frame.", ex);
+        }
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    /**
+     * Returns the id of the snake controlled by the client.
+     * 
+     * @return the snake id, or -1 for a spectator.
+     */
+    public int getSnakeId() {
+        return snakeId;
+    }
+    
+    /**
+     * Returns the number of the last tick applied.
+     * 
+     * @return the tick count, or -1 before the first tick frame.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    public boolean isViewed(int x, int y) {
+        return viewedChunks[(y / chunkSize) * chunksPerRow + x / chunkSize];
+    }
+    
+    /**
+     * Returns the id of the snake occupying the given cell.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return the id of the snake, or -1 if the cell is not occupied or not
+     *         viewed.
+     */
+    public int getOwner(int x, int y) {
+        return owners[y * width + x];
+    }
+    
+    public boolean isBerryAt(int x, int y) {
+        return berries[y * width + x];
+    }
+    
+    private void applyHello(ByteBuffer frame) throws IOException {
+        int width = frame.getInt();
+        int height = frame.getInt();
+        int chunkSize = frame.getInt();
+        
+        if (width < 1 || height < 1 || chunkSize < 1
+                || chunkSize > ArenaFrameEncoder.MAXIMUM_CHUNK_SIZE) {
+            throw new IOException("Corrupted arena hello frame.");
+        }
+        
+        this.width = width;
+        this.height = height;
+        this.chunkSize = chunkSize;
+        this.chunksPerRow = (width + chunkSize - 1) / chunkSize;
+        this.snakeId = frame.getInt();
+        this.owners = new int[width * height];
+        this.berries = new boolean[width * height];
+        this.viewedChunks =
+                new boolean[chunksPerRow * ((height + chunkSize - 1) /
+                                            chunkSize)];
+        this.tickCount = -1L;
+        Arrays.fill(owners, -1);
+    }
+    
+    private void applyTick(ByteBuffer frame) throws IOException {
+        tickCount = frame.getLong();
+        int dropCount = frame.getShort();
+        
+        for (int i = 0; i < dropCount; i++) {
+            int chunk = frame.getInt();
+            clearChunk(chunk);
+            viewedChunks[chunk] = false;
+        }
+        
+        while (frame.hasRemaining()) {
+            int chunk = frame.getInt();
+            byte sectionType = frame.get();
+            int eventCount = frame.getInt();
+            
+            if (sectionType == ArenaFrameEncoder.KEY_SECTION) {
+                clearChunk(chunk);
+                viewedChunks[chunk] = true;
+            } else if (sectionType != ArenaFrameEncoder.DELTA_SECTION
+                    || !viewedChunks[chunk]) {
+                throw new IOException("Unexpected arena section.");
+            }
+            
+            int minX = (chunk % chunksPerRow) * chunkSize;
+            int minY = (chunk / chunksPerRow) * chunkSize;
+            
+            for (int i = 0; i < eventCount; i++) {
+                int event = frame.getShort() & 0xffff;
+                int cellIndex = event & ArenaFrameEncoder.CELL_INDEX_MASK;
+                int x = minX + cellIndex % chunkSize;
+                int y = minY + cellIndex / chunkSize;
+                
+                if (x >= width || y >= height) {
+                    throw new IOException("Arena event out of the grid.");
+                }
+                
+                int cell = y * width + x;
+                
+                switch (event >>> ArenaFrameEncoder.EVENT_TYPE_SHIFT) {
+                    case ArenaFrameEncoder.HEAD_EVENT:
+                        owners[cell] = frame.getInt();
+                        berries[cell] = false;
+                        break;
+                    
+                    case ArenaFrameEncoder.VACATE_EVENT:
+                        owners[cell] = -1;
+                        break;
+                    
+                    case ArenaFrameEncoder.BERRY_EVENT:
+                        berries[cell] = true;
+                        break;
+                    
+                    default:
+                        throw new IOException("Unknown arena event.");
+                }
+            }
+        }
+    }
+    
+    private void clearChunk(int chunk) {
+        int minX = (chunk % chunksPerRow) * chunkSize;
+        int minY = (chunk / chunksPerRow) * chunkSize;
+        int maxX = Math.min(minX + chunkSize, width);
+        int maxY = Math.min(minY + chunkSize, height);
+        
+        for (int y = minY; y < maxY; y++) {
+            Arrays.fill(owners, y * width + minX, y * width + maxX, -1);
+            Arrays.fill(berries, y * width + minX, y * width + maxX, false);
+        }
+    }
+}
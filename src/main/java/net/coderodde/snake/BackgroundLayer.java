@@ -0,0 +1,188 @@
+package net.coderodde.snake;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Objects;
+
+/**
+ * This class caches the static layer of the game view: the background, the
+ * grid lines and the walls. The layer is pre-rendered into an accelerated
+ * {@link VolatileImage} when the component supports one, or into a 
+ * {@link BufferedImage} otherwise, and is re-rendered only when the geometry 
+ * or the walls change, or when the video memory contents are lost.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class BackgroundLayer {
+    
+    private final GameGrid grid;
+    private final Color backgroundColor;
+    private final Color borderColor;
+    private final Color wallColor;
+    
+    /**
+     * The pre-rendered layer, or {@code null} if not created yet.
+     */
+    private Image image;
+    
+    /**
+     * The geometry the layer was rendered for.
+     */
+    private GridGeometry imageGeometry;
+    
+    /**
+     * The modification count of the grid when the layer was rendered.
+     */
+    private long imageGridModificationCount = -1L;
+    
+    BackgroundLayer(GameGrid grid, 
+                    Color backgroundColor,
+                    Color borderColor,
+                    Color wallColor) {
+        this.grid = Objects.requireNonNull(grid, "The input grid is null.");
+        this.backgroundColor = backgroundColor;
+        this.borderColor = borderColor;
+        this.wallColor = wallColor;
+    }
+    
+    /**
+     * Drops the pre-rendered layer so that the next call to 
+     * {@link #draw(Graphics, Component, GridGeometry)} rebuilds it.
+     */
+    void invalidate() {
+        image = null;
+    }
+    
+    /**
+     * Blits the layer to {@code g}, re-rendering it first if needed.
+     * 
+     * @param g         the target graphics context.
+     * @param component the component the layer is drawn on, used for 
+     *                  creating compatible images.
+     * @param geometry  the current geometry of the grid.
+     */
+    void draw(Graphics g, Component component, GridGeometry geometry) {
+        if (image == null 
+                || imageGeometry != geometry
+                || imageGridModificationCount != grid.getModificationCount()) {
+            createImage(component, geometry);
+        }
+        
+        if (!(image instanceof VolatileImage)) {
+            g.drawImage(image, 0, 0, null);
+            return;
+        }
+        
+        VolatileImage volatileImage;
+        
+        do {
+            volatileImage = (VolatileImage) image;
+            GraphicsConfiguration graphicsConfiguration = 
+                    component.getGraphicsConfiguration();
+            int status = volatileImage.validate(graphicsConfiguration);
+            
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                createImage(component, geometry);
+                
+                if (!(image instanceof VolatileImage)) {
+                    g.drawImage(image, 0, 0, null);
+                    return;
+                }
+                
+                volatileImage = (VolatileImage) image;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                render(volatileImage, geometry);
+            }
+            
+            g.drawImage(volatileImage, 0, 0, null);
+        } while (volatileImage.contentsLost());
+    }
+    
+    private void createImage(Component component, GridGeometry geometry) {
+        int width  = Math.max(1, geometry.getSurfaceWidth());
+        int height = Math.max(1, geometry.getSurfaceHeight());
+        Image newImage = component.isDisplayable() ? 
+                         component.createVolatileImage(width, height) :
+                         null;
+        
+        if (newImage == null) {
+            newImage = new BufferedImage(width, 
+                                         height, 
+                                         BufferedImage.TYPE_INT_RGB);
+        }
+        
+        image = newImage;
+        imageGeometry = geometry;
+        imageGridModificationCount = grid.getModificationCount();
+        render(newImage, geometry);
+    }
+    
+    private void render(Image target, GridGeometry geometry) {
+        Graphics g = target.getGraphics();
+        
+        try {
+            render(g, geometry);
+        } finally {
+            g.dispose();
+        }
+    }
+    
+    /**
+     * Renders the static layer. Issues {@code gridWidth + gridHeight + 2} 
+     * line fills and one fill per wall cell.
+     */
+    private void render(Graphics g, GridGeometry geometry) {
+        int gridWidth  = geometry.getGridWidth();
+        int gridHeight = geometry.getGridHeight();
+        int cellLength = geometry.getCellLength();
+        int gridLineThickness = geometry.getGridLineThickness();
+        int skipHorizontal = geometry.getSkipHorizontal();
+        int skipVertical   = geometry.getSkipVertical();
+        
+        // Clear the grid.
+        g.setColor(backgroundColor);
+        g.fillRect(0, 
+                   0, 
+                   geometry.getSurfaceWidth(), 
+                   geometry.getSurfaceHeight());
+        g.setColor(borderColor);
+        
+        // Draw vertical grid lines.
+        for (int i = 0; i != gridWidth + 1; i++) {
+            g.fillRect(skipHorizontal + i * (cellLength + gridLineThickness), 
+                       skipVertical, 
+                       gridLineThickness,
+                       (gridHeight + 1) * gridLineThickness 
+                               + gridHeight * cellLength);
+        }
+        
+        // Draw horizontal grid lines.
+        for (int i = 0; i != gridHeight + 1; i++) {
+            g.fillRect(skipHorizontal,
+                       skipVertical + i * (cellLength + gridLineThickness),
+                       (gridWidth + 1) * gridLineThickness 
+                               + gridWidth * cellLength,
+                       gridLineThickness);
+        }
+        
+        // Draw the walls.
+        g.setColor(wallColor);
+        
+        for (int y = 0; y < gridHeight; y++) {
+            for (int x = 0; x < gridWidth; x++) {
+                if (grid.isWall(x, y)) {
+                    g.fillRect(geometry.getCellLeft(x),
+                               geometry.getCellTop(y),
+                               cellLength,
+                               cellLength);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package net.coderodde.snake;
+
+/**
+ * This class holds the aggregate statistics of a batch of simulated games.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class BatchResult {
+    
+    private final int gameCount;
+    private final int wallCollisions;
+    private final int selfCollisions;
+    private final int stepLimitReached;
+    private final int boardsFilled;
+    private final long totalSteps;
+    private final long totalLength;
+    
+    /**
+     * The final lengths of all the games in ascending order.
+     */
+    private final int[] sortedLengths;
+    
+    /**
+     * The step counts of the games that ended in a collision in ascending 
+     * order.
+     */
+    private final long[] sortedStepsToDeath;
+    
+    /**
+     * The sum of the running times of the games over all threads.
+     */
+    private final long totalGameNanos;
+    private final long elapsedNanos;
+    
+    BatchResult(int gameCount,
+                int wallCollisions,
+                int selfCollisions,
+                int stepLimitReached,
+                int boardsFilled,
+                long totalSteps,
+                long totalLength,
+                int[] sortedLengths,
+                long[] sortedStepsToDeath,
+                long totalGameNanos,
+                long elapsedNanos) {
+        this.gameCount = gameCount;
+        this.wallCollisions = wallCollisions;
+        this.selfCollisions = selfCollisions;
+        this.stepLimitReached = stepLimitReached;
+        this.boardsFilled = boardsFilled;
+        this.totalSteps = totalSteps;
+        this.totalLength = totalLength;
+        this.sortedLengths = sortedLengths;
+        this.sortedStepsToDeath = sortedStepsToDeath;
+        this.totalGameNanos = totalGameNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    public int getGameCount() {
+        return gameCount;
+    }
+    
+    public int getWallCollisions() {
+        return wallCollisions;
+    }
+    
+    public int getSelfCollisions() {
+        return selfCollisions;
+    }
+    
+    /**
+     * Returns the number of games still running when the step limit was 
+     * reached.
+     * 
+     * @return the number of unfinished games.
+     */
+    public int getStepLimitReached() {
+        return stepLimitReached;
+    }
+    
+    /**
+     * Returns the number of games won by filling the board. They are counted
+     * neither as collisions nor in the steps to death.
+     * 
+     * @return the number of completed games.
+     */
+    public int getBoardsFilled() {
+        return boardsFilled;
+    }
+    
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+    
+    public double getMeanLength() {
+        return gameCount == 0 ? 0.0 : (double) totalLength / gameCount;
+    }
+    
+    public int getMaximumLength() {
+        return gameCount == 0 ? 0 : sortedLengths[gameCount - 1];
+    }
+    
+    /**
+     * Returns the final length not exceeded by the given percentage of the 
+     * games, using the nearest rank.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @return the length percentile, or 0 if there are no games.
+     */
+    public int getLengthPercentile(double percentile) {
+        return gameCount == 0 ? 
+               0 : 
+               sortedLengths[getIndex(percentile, gameCount)];
+    }
+    
+    /**
+     * Returns the mean number of steps made in the games that ended in a 
+     * collision.
+     * 
+     * @return the mean steps to death, or 0 if no game ended in a collision.
+     */
+    public double getMeanStepsToDeath() {
+        long sum = 0L;
+        
+        for (long steps : sortedStepsToDeath) {
+            sum += steps;
+        }
+        
+        return sortedStepsToDeath.length == 0 ? 
+               0.0 : 
+               (double) sum / sortedStepsToDeath.length;
+    }
+    
+    /**
+     * Returns the number of steps not exceeded by the given percentage of the 
+     * games that ended in a collision, using the nearest rank.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @return the steps to death percentile, or -1 if no game ended in a 
+     *         collision.
+     */
+    public long getStepsToDeathPercentile(double percentile) {
+        return sortedStepsToDeath.length == 0 ? 
+               -1L : 
+               sortedStepsToDeath[getIndex(percentile, 
+                                           sortedStepsToDeath.length)];
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Returns the aggregate number of steps made per second over all games.
+     * 
+     * @return the aggregate tick rate.
+     */
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0L ? 0.0 : totalSteps * 1e9 / elapsedNanos;
+    }
+    
+    /**
+     * Returns the number of decisions made per second by a single thread. 
+     * Each decision includes the step of the engine it steers.
+     * 
+     * @return the decision rate per thread.
+     */
+    public double getDecisionsPerSecond() {
+        return totalGameNanos == 0L ? 0.0 : totalSteps * 1e9 / totalGameNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+                "games: %d, wall collisions: %d, self collisions: %d, " +
+                "step limit reached: %d, boards filled: %d, " + 
+                "mean length: %.2f, median length: %d, maximum length: %d, " +
+                "total steps: %d, ticks/second: %.0f",
+                gameCount,
+                wallCollisions,
+                selfCollisions,
+                stepLimitReached,
+                boardsFilled,
+                getMeanLength(),
+                getLengthPercentile(50.0),
+                getMaximumLength(),
+                totalSteps,
+                getTicksPerSecond());
+    }
+    
+    private static int getIndex(double percentile, int count) {
+        return (int) Percentiles.getNearestRank(percentile, count) - 1;
+    }
+}
@@ -0,0 +1,270 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * This class simulates many independent games in parallel on a 
+ * {@link ForkJoinPool}. Each game runs headless on its own 
+ * {@link GameEngine} with its own policy instance and its own seeded random
+ * number generator, so the games share no mutable state, and the results do
+ * not depend on the degree of parallelism.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class BatchSimulator {
+    
+    /**
+     * The maximum number of games simulated sequentially by a single task.
+     */
+    private static final int GAMES_PER_TASK = 16;
+    
+    /**
+     * Marks a game that was still running when the step limit was reached.
+     */
+    private static final byte STEP_LIMIT_REACHED = -1;
+    
+    /**
+     * Marks a game that ended with the snake filling the board. The step 
+     * after that ends in a collision, since no cell is left to enter, but 
+     * the game is won rather than lost.
+     */
+    private static final byte BOARD_FILLED = -2;
+    
+    private final ForkJoinPool forkJoinPool;
+    
+    /**
+     * Constructs a batch simulator running on the given pool.
+     * 
+     * @param forkJoinPool the pool to run the games on.
+     */
+    public BatchSimulator(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = Objects.requireNonNull(
+                forkJoinPool, 
+                "The input fork-join pool is null.");
+    }
+    
+    /**
+     * Constructs a batch simulator running on the common pool.
+     */
+    public BatchSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Simulates {@code gameCount} independent games. The game {@code i} uses 
+     * the seed {@code seed + i}.
+     * 
+     * @param gameCount     the number of games to simulate.
+     * @param gridWidth     the width of the grids in cells.
+     * @param gridHeight    the height of the grids in cells.
+     * @param seed          the seed of the first game.
+     * @param maximumSteps  the maximum number of steps per game.
+     * @param policyFactory the factory creating a policy for each game.
+     * @return the aggregate statistics of the games.
+     */
+    public BatchResult run(int gameCount,
+                           int gridWidth,
+                           int gridHeight,
+                           long seed,
+                           long maximumSteps,
+                           Supplier<? extends SnakePolicy> policyFactory) {
+        if (gameCount < 0) {
+            throw new IllegalArgumentException(
+                    "The game count (" + gameCount + ") is negative.");
+        }
+        
+        if (maximumSteps < 0L) {
+            throw new IllegalArgumentException(
+                    "The maximum number of steps (" + maximumSteps + 
+                    ") is negative.");
+        }
+        
+        Objects.requireNonNull(policyFactory, 
+                               "The input policy factory is null.");
+        
+        BatchTask rootTask = new BatchTask(gameCount,
+                                           gridWidth, 
+                                           gridHeight, 
+                                           seed,
+                                           maximumSteps,
+                                           policyFactory);
+        long startTime = System.nanoTime();
+        forkJoinPool.invoke(rootTask);
+        long elapsedNanos = System.nanoTime() - startTime;
+        return rootTask.summarize(elapsedNanos);
+    }
+    
+    /**
+     * Simulates a range of games of a batch. All the tasks of a batch share 
+     * the result arrays, but each task writes only to the indices of its own
+     * games.
+     */
+    private static final class BatchTask extends RecursiveAction {
+        
+        private final int gridWidth;
+        private final int gridHeight;
+        private final long seed;
+        private final long maximumSteps;
+        private final Supplier<? extends SnakePolicy> policyFactory;
+        private final byte[] endings;
+        private final long[] steps;
+        private final int[] lengths;
+        private final long[] durations;
+        private final int fromIndex;
+        private final int toIndex;
+        
+        BatchTask(int gameCount,
+                  int gridWidth,
+                  int gridHeight,
+                  long seed,
+                  long maximumSteps,
+                  Supplier<? extends SnakePolicy> policyFactory) {
+            this(gridWidth,
+                 gridHeight, 
+                 seed, 
+                 maximumSteps, 
+                 policyFactory,
+                 new byte[gameCount],
+                 new long[gameCount],
+                 new int[gameCount],
+                 new long[gameCount],
+                 0,
+                 gameCount);
+        }
+        
+        private BatchTask(int gridWidth,
+                          int gridHeight,
+                          long seed,
+                          long maximumSteps,
+                          Supplier<? extends SnakePolicy> policyFactory,
+                          byte[] endings,
+                          long[] steps,
+                          int[] lengths,
+                          long[] durations,
+                          int fromIndex,
+                          int toIndex) {
+            this.gridWidth = gridWidth;
+            this.gridHeight = gridHeight;
+            this.seed = seed;
+            this.maximumSteps = maximumSteps;
+            this.policyFactory = policyFactory;
+            this.endings = endings;
+            this.steps = steps;
+            this.lengths = lengths;
+            this.durations = durations;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= GAMES_PER_TASK) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    simulate(i);
+                }
+                
+                return;
+            }
+            
+            int middleIndex = (fromIndex + toIndex) >>> 1;
+            invokeAll(subtask(fromIndex, middleIndex),
+                      subtask(middleIndex, toIndex));
+        }
+        
+        private BatchTask subtask(int fromIndex, int toIndex) {
+            return new BatchTask(gridWidth,
+                                 gridHeight,
+                                 seed,
+                                 maximumSteps,
+                                 policyFactory,
+                                 endings,
+                                 steps,
+                                 lengths,
+                                 durations,
+                                 fromIndex,
+                                 toIndex);
+        }
+        
+        private void simulate(int gameIndex) {
+            long startTime = System.nanoTime();
+            GameEngine gameEngine = 
+                    new GameEngine(gridWidth, 
+                                   gridHeight,
+                                   new Random(seed + gameIndex));
+            SnakePolicy policy = policyFactory.get();
+            byte ending = STEP_LIMIT_REACHED;
+            
+            while (gameEngine.getStepCount() < maximumSteps) {
+                StepOutcome outcome = 
+                        gameEngine.step(policy.chooseDirection(gameEngine));
+                
+                if (outcome.isTerminal()) {
+                    ending = gameEngine.getFreeCellCount() == 0 ? 
+                             BOARD_FILLED : 
+                             (byte) outcome.ordinal();
+                    break;
+                }
+            }
+            
+            endings[gameIndex] = ending;
+            steps[gameIndex] = gameEngine.getStepCount();
+            lengths[gameIndex] = gameEngine.getSnake().size();
+            durations[gameIndex] = System.nanoTime() - startTime;
+        }
+        
+        BatchResult summarize(long elapsedNanos) {
+            int wallCollisions = 0;
+            int selfCollisions = 0;
+            int stepLimitReached = 0;
+            int boardsFilled = 0;
+            long totalSteps = 0L;
+            long totalLength = 0L;
+            long totalDuration = 0L;
+            long[] stepsToDeath = new long[endings.length];
+            int deathCount = 0;
+            
+            for (int i = 0; i < endings.length; i++) {
+                if (endings[i] == STEP_LIMIT_REACHED) {
+                    stepLimitReached++;
+                } else if (endings[i] == BOARD_FILLED) {
+                    boardsFilled++;
+                } else {
+                    if (endings[i] == StepOutcome.WALL_COLLISION.ordinal()) {
+                        wallCollisions++;
+                    } else {
+                        selfCollisions++;
+                    }
+                    
+                    stepsToDeath[deathCount++] = steps[i];
+                }
+                
+                totalSteps += steps[i];
+                totalLength += lengths[i];
+                totalDuration += durations[i];
+            }
+            
+            int[] sortedLengths = lengths.clone();
+            Arrays.sort(sortedLengths);
+            stepsToDeath = Arrays.copyOf(stepsToDeath, deathCount);
+            Arrays.sort(stepsToDeath);
+            
+            return new BatchResult(endings.length,
+                                   wallCollisions,
+                                   selfCollisions,
+                                   stepLimitReached,
+                                   boardsFilled,
+                                   totalSteps,
+                                   totalLength,
+                                   sortedLengths,
+                                   stepsToDeath,
+                                   totalDuration,
+                                   elapsedNanos);
+        }
+    }
+}
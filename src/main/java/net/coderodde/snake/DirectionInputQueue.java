@@ -0,0 +1,140 @@
+package net.coderodde.snake;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class buffers the directions requested by the player between the
+ * input thread and the thread stepping the game, so that quick key presses
+ * within a single step are not lost. It is a bounded ring for a single
+ * producer and a single consumer without locks: the producer writes only the
+ * tail index and the consumer only the head index, each published with an
+ * ordered store after the slot it covers.
+ * 
+ * <p>The consumer takes at most one turn per step with
+ * {@link #pollTurn(MotionDirection)}, which skips the directions that do not
+ * turn the snake: the current direction and its reverse, which would make
+ * the head hit the neck.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class DirectionInputQueue {
+    
+    /**
+     * The default capacity, enough for the turns a player makes within a
+     * step.
+     */
+    static final int DEFAULT_CAPACITY = 4;
+    
+    private final MotionDirection[] directions;
+    private final int mask;
+    
+    /**
+     * The number of directions taken. Written by the consumer only.
+     */
+    private final AtomicLong head = new AtomicLong();
+    
+    /**
+     * The number of directions offered. Written by the producer only.
+     */
+    private final AtomicLong tail = new AtomicLong();
+    
+    public DirectionInputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructs an empty queue.
+     * 
+     * @param capacity the minimum capacity, rounded up to a power of two.
+     */
+    public DirectionInputQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(
+                    "The capacity (" + capacity + ") is not within [1, " +
+                    (1 << 30) + "].");
+        }
+        
+        int roundedCapacity = Integer.highestOneBit(capacity);
+        
+        if (roundedCapacity < capacity) {
+            roundedCapacity <<= 1;
+        }
+        
+        this.directions = new MotionDirection[roundedCapacity];
+        this.mask = roundedCapacity - 1;
+    }
+    
+    public int getCapacity() {
+        return directions.length;
+    }
+    
+    /**
+     * Appends a direction. A direction equal to the last one still queued is
+     * coalesced with it, so that the auto-repeat of a held key does not fill
+     * the queue. Called by the producer thread only.
+     * 
+     * @param direction the requested direction.
+     * @return {@code false} if the queue is full and the direction was
+     *         dropped.
+     */
+    public boolean offer(MotionDirection direction) {
+        Objects.requireNonNull(direction, "The input direction is null.");
+        long currentTail = tail.get();
+        long size = currentTail - head.get();
+        
+        if (size > 0L
+                && directions[(int) (currentTail - 1L) & mask] == direction) {
+            return true;
+        }
+        
+        if (size == directions.length) {
+            return false;
+        }
+        
+        directions[(int) currentTail & mask] = direction;
+        tail.lazySet(currentTail + 1L);
+        return true;
+    }
+    
+    /**
+     * Removes the queued directions up to and including the first one that
+     * turns a snake moving to the given direction. Called by the consumer
+     * thread only.
+     * 
+     * @param currentDirection the current direction of the snake.
+     * @return the turn, or {@code null} if no queued direction is a turn.
+     */
+    public MotionDirection pollTurn(MotionDirection currentDirection) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        MotionDirection turn = null;
+        
+        while (currentHead != currentTail) {
+            MotionDirection direction =
+                    directions[(int) currentHead & mask];
+            currentHead++;
+            
+            if (isTurn(currentDirection, direction)) {
+                turn = direction;
+                break;
+            }
+        }
+        
+        head.lazySet(currentHead);
+        return turn;
+    }
+    
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+    
+    /**
+     * Tells whether moving to {@code to} after {@code from} is a turn. The
+     * ordinals of the perpendicular directions differ in parity.
+     */
+    static boolean isTurn(MotionDirection from, MotionDirection to) {
+        return ((from.ordinal() ^ to.ordinal()) & 1) != 0;
+    }
+}
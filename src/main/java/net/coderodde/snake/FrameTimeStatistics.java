@@ -0,0 +1,86 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps the frame times of the most recent frames and counts the 
+ * dropped frames. Not thread-safe; meant to be used by the rendering thread 
+ * only.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class FrameTimeStatistics {
+    
+    /**
+     * The number of the most recent frames the percentiles are computed over.
+     * A power of two.
+     */
+    private static final int WINDOW_SIZE = 512;
+    
+    private final long[] frameTimes = new long[WINDOW_SIZE];
+    private final long[] sortedFrameTimes = new long[WINDOW_SIZE];
+    private final long targetFrameNanos;
+    
+    /**
+     * The index in {@code frameTimes} of the next frame time.
+     */
+    private int nextIndex;
+    private long frameCount;
+    private long droppedFrames;
+    
+    /**
+     * Constructs a new statistics for the given frame period.
+     * 
+     * @param targetFrameNanos the target period between frames in 
+     *                         nanoseconds.
+     */
+    FrameTimeStatistics(long targetFrameNanos) {
+        this.targetFrameNanos = targetFrameNanos;
+    }
+    
+    /**
+     * Records the time between the previous frame and the current one. If it
+     * spans more than one frame period, the skipped periods are counted as 
+     * dropped frames.
+     * 
+     * @param frameNanos the frame time in nanoseconds.
+     */
+    void record(long frameNanos) {
+        frameTimes[nextIndex] = frameNanos;
+        nextIndex = (nextIndex + 1) & (WINDOW_SIZE - 1);
+        frameCount++;
+        long periods = (frameNanos + targetFrameNanos / 2) / targetFrameNanos;
+        
+        if (periods > 1L) {
+            droppedFrames += periods - 1L;
+        }
+    }
+    
+    /**
+     * Returns the given percentile of the recent frame times.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @return the frame time in nanoseconds, or 0 if no frames are recorded.
+     */
+    long getPercentile(double percentile) {
+        int size = (int) Math.min(frameCount, WINDOW_SIZE);
+        int rank = (int) Percentiles.getNearestRank(percentile, size);
+        
+        if (rank == 0) {
+            return 0L;
+        }
+        
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, size);
+        Arrays.sort(sortedFrameTimes, 0, size);
+        return sortedFrameTimes[rank - 1];
+    }
+    
+    long getDroppedFrames() {
+        return droppedFrames;
+    }
+    
+    long getFrameCount() {
+        return frameCount;
+    }
+}
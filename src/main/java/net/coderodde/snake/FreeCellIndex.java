@@ -0,0 +1,131 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class maintains the set of free cells of a grid, that is, the cells 
+ * that are neither walls nor occupied by the snake. The free cells are kept 
+ * densely in an array, and a reverse map gives the position of each cell in
+ * that array, so adding, removing and picking a uniformly random free cell
+ * all run in constant time no matter how full the grid is.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class FreeCellIndex {
+    
+    /**
+     * The free cells in the first {@code size} entries.
+     */
+    private final int[] freeCells;
+    
+    /**
+     * Maps each cell to its position in {@code freeCells}, or to {@code -1} 
+     * if the cell is not free.
+     */
+    private final int[] positions;
+    
+    private int size;
+    
+    /**
+     * Constructs the index of the cells of {@code grid} that are neither 
+     * walls nor occupied by {@code snake}.
+     * 
+     * @param grid  the game grid.
+     * @param snake the snake living in the grid.
+     */
+    FreeCellIndex(GameGrid grid, Snake snake) {
+        int cellCount = grid.getWidth() * grid.getHeight();
+        this.freeCells = new int[cellCount];
+        this.positions = new int[cellCount];
+        rebuild(grid, snake);
+    }
+    
+    /**
+     * Constructs an empty index for a grid with the given number of cells.
+     * 
+     * @param cellCount the number of cells in the grid.
+     */
+    FreeCellIndex(int cellCount) {
+        this.freeCells = new int[cellCount];
+        this.positions = new int[cellCount];
+        Arrays.fill(positions, -1);
+    }
+    
+    /**
+     * Recomputes the index from scratch. Needed only after the walls of the
+     * grid change.
+     * 
+     * @param grid  the game grid.
+     * @param snake the snake living in the grid.
+     */
+    void rebuild(GameGrid grid, Snake snake) {
+        Arrays.fill(positions, -1);
+        size = 0;
+        
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (!grid.isWall(x, y) && !snake.occupiesPoint(x, y)) {
+                    add(y * grid.getWidth() + x);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Marks the cell as free. Does nothing if the cell is already free.
+     * 
+     * @param cell the packed cell.
+     */
+    void add(int cell) {
+        if (positions[cell] >= 0) {
+            return;
+        }
+        
+        positions[cell] = size;
+        freeCells[size++] = cell;
+    }
+    
+    /**
+     * Marks the cell as not free by moving the last free cell into its 
+     * position. Does nothing if the cell is not free.
+     * 
+     * @param cell the packed cell.
+     */
+    void remove(int cell) {
+        int position = positions[cell];
+        
+        if (position < 0) {
+            return;
+        }
+        
+        int lastCell = freeCells[--size];
+        freeCells[position] = lastCell;
+        positions[lastCell] = position;
+        positions[cell] = -1;
+    }
+    
+    boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns a uniformly random free cell. Consumes exactly one value of 
+     * {@code random}, so the choice is reproducible from a seed.
+     * 
+     * @param random the random number generator.
+     * @return a free cell, or {@code -1} if there are none.
+     */
+    int getRandomCell(Random random) {
+        if (size == 0) {
+            return -1;
+        }
+        
+        return freeCells[random.nextInt(size)];
+    }
+}
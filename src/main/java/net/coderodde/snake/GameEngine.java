@@ -0,0 +1,366 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static net.coderodde.snake.MotionDirection.EAST;
+
+/**
+ * This class implements the rules of the game without any dependency on the
+ * user interface. The engine owns the snake, the grid and the berry, and 
+ * advances them one step at a time via {@link #step(MotionDirection)}.
+ * Renderers only observe the engine through {@link GameEngineListener}s.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameEngine {
+    
+    /**
+     * The game grid.
+     */
+    private final GameGrid grid;
+    
+    /**
+     * The snake being moved.
+     */
+    private final Snake snake;
+    
+    /**
+     * The random number generator used for placing the berries.
+     */
+    private final Random random;
+    
+    /**
+     * The listeners notified after each step.
+     */
+    private final List<GameEngineListener> listeners = 
+            new CopyOnWriteArrayList<>();
+    
+    /**
+     * The cells that are neither walls nor occupied by the snake. Kept up to
+     * date by each step, so that placing a berry takes constant time.
+     */
+    private final FreeCellIndex freeCellIndex;
+    
+    /**
+     * The modification count of the grid the free cell index was built for.
+     */
+    private long gridModificationCount;
+    
+    /**
+     * The coordinates of the current berry, or {@code -1} if the board is 
+     * full and there is no berry.
+     */
+    private int berryX;
+    private int berryY;
+    
+    /**
+     * The packed index of the cell the tail left in the last step, or 
+     * {@code -1} if the tail did not move.
+     */
+    private int vacatedCell = -1;
+    
+    /**
+     * The packed index of the berry cell before the last step.
+     */
+    private int previousBerryCell;
+    
+    /**
+     * The number of steps made so far.
+     */
+    private long stepCount;
+    
+    /**
+     * The outcome of the last step, or {@code null} if no step is made yet.
+     */
+    private StepOutcome lastOutcome;
+    
+    /**
+     * The metrics recording the steps and the berry spawns, or {@code null}.
+     */
+    private GameMetrics metrics;
+    
+    /**
+     * Constructs a new game engine.
+     * 
+     * @param grid   the game grid.
+     * @param snake  the snake living in the grid.
+     * @param random the random number generator for placing the berries.
+     */
+    public GameEngine(GameGrid grid, Snake snake, Random random) {
+        this.grid   = Objects.requireNonNull(grid, 
+                                             "The input game grid is null.");
+        this.snake  = Objects.requireNonNull(snake, "The input snake is null.");
+        this.random = Objects.requireNonNull(random, 
+                                             "The input random is null.");
+        this.freeCellIndex = new FreeCellIndex(grid, snake);
+        this.gridModificationCount = grid.getModificationCount();
+        createBerry();
+    }
+    
+    /**
+     * Constructs an engine in a saved state. Used for restoring saved games.
+     * 
+     * @param grid        the game grid.
+     * @param snake       the snake living in the grid.
+     * @param random      the random number generator for placing the 
+     *                    berries.
+     * @param berryCell   the berry cell, or {@code -1} for no berry.
+     * @param stepCount   the number of steps made so far.
+     * @param lastOutcome the outcome of the last step, or {@code null}.
+     */
+    GameEngine(GameGrid grid, 
+               Snake snake, 
+               Random random, 
+               int berryCell,
+               long stepCount,
+               StepOutcome lastOutcome) {
+        this.grid   = Objects.requireNonNull(grid, 
+                                             "The input game grid is null.");
+        this.snake  = Objects.requireNonNull(snake, "The input snake is null.");
+        this.random = Objects.requireNonNull(random, 
+                                             "The input random is null.");
+        this.freeCellIndex = new FreeCellIndex(grid, snake);
+        this.gridModificationCount = grid.getModificationCount();
+        this.stepCount = stepCount;
+        this.lastOutcome = lastOutcome;
+        this.previousBerryCell = berryCell;
+        placeBerry(berryCell);
+    }
+    
+    /**
+     * Constructs a new game engine on an empty grid with the initial snake of 
+     * length four in the top left corner moving to the east.
+     * 
+     * @param gridWidth  the width of the grid in cells.
+     * @param gridHeight the height of the grid in cells.
+     * @param random     the random number generator for placing the berries.
+     */
+    public GameEngine(int gridWidth, int gridHeight, Random random) {
+        this(new GameGrid(gridWidth, gridHeight),
+             createInitialSnake(gridWidth, gridHeight),
+             random);
+    }
+    
+    public void addListener(GameEngineListener listener) {
+        listeners.add(Objects.requireNonNull(listener, 
+                                             "The input listener is null."));
+    }
+    
+    public void removeListener(GameEngineListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Makes a single step. If the head of the snake is on the berry, the 
+     * snake grows, and a new berry is placed in a free cell after the snake
+     * moves. Once the
+     * game is over, further calls return the terminal outcome without 
+     * changing the state.
+     * 
+     * @param input the new motion direction of the snake, or {@code null} for
+     *              keeping the current direction.
+     * @return the outcome of the step.
+     */
+    public StepOutcome step(MotionDirection input) {
+        if (lastOutcome != null && lastOutcome.isTerminal()) {
+            return lastOutcome;
+        }
+        
+        GameMetrics metrics = this.metrics;
+        long startTime = metrics != null ? System.nanoTime() : 0L;
+        
+        if (input != null) {
+            snake.setDirection(input);
+        }
+        
+        StepOutcome outcome = StepOutcome.MOVED;
+        previousBerryCell = getBerryCell();
+        vacatedCell = -1;
+        
+        if (snake.getHeadX() == berryX && snake.getHeadY() == berryY) {
+            snake.grow();
+            freeCellIndex.remove(snake.getTailCell());
+            outcome = StepOutcome.GREW;
+        }
+        
+        if (snake.hitsWall(grid)) {
+            outcome = StepOutcome.WALL_COLLISION;
+        } else if (snake.eatsHimself()) {
+            outcome = StepOutcome.SELF_COLLISION;
+        } else {
+            int tailCell = snake.getTailCell();
+            
+            if (outcome == StepOutcome.MOVED) {
+                vacatedCell = tailCell;
+            }
+            
+            snake.makeUncheckedStep();
+            freeCellIndex.add(tailCell);
+            freeCellIndex.remove(snake.getHeadCell());
+            stepCount++;
+            
+            if (outcome == StepOutcome.GREW) {
+                createBerry();
+            }
+        }
+        
+        lastOutcome = outcome;
+        
+        if (metrics != null) {
+            // The listeners, such as the renderers, are not part of the step.
+            metrics.recordStep(System.nanoTime() - startTime);
+        }
+        
+        for (GameEngineListener listener : listeners) {
+            listener.onStep(this, outcome);
+        }
+        
+        return outcome;
+    }
+    
+    public boolean isGameOver() {
+        return lastOutcome != null && lastOutcome.isTerminal();
+    }
+    
+    public GameGrid getGrid() {
+        return grid;
+    }
+    
+    public Snake getSnake() {
+        return snake;
+    }
+    
+    public int getBerryX() {
+        return berryX;
+    }
+    
+    public int getBerryY() {
+        return berryY;
+    }
+    
+    public boolean isBerryAt(int x, int y) {
+        return berryX == x && berryY == y;
+    }
+    
+    /**
+     * Returns the packed index {@code y * width + x} of the berry cell.
+     * 
+     * @return the berry cell, or {@code -1} if there is no berry.
+     */
+    public int getBerryCell() {
+        return berryX < 0 ? -1 : berryY * grid.getWidth() + berryX;
+    }
+    
+    /**
+     * Returns the packed index of the berry cell before the last step. 
+     * Differs from {@link #getBerryCell()} only if the snake grew.
+     * 
+     * @return the previous berry cell.
+     */
+    public int getPreviousBerryCell() {
+        return previousBerryCell;
+    }
+    
+    /**
+     * Returns the packed index of the cell the tail left in the last step. 
+     * Together with the head cell and the berry cells, this is everything a
+     * step changes.
+     * 
+     * @return the vacated cell, or {@code -1} if the snake grew or did not 
+     *         move.
+     */
+    public int getVacatedCell() {
+        return vacatedCell;
+    }
+    
+    public long getStepCount() {
+        return stepCount;
+    }
+    
+    /**
+     * Returns the outcome of the last step.
+     * 
+     * @return the last outcome, or {@code null} if no step is made yet.
+     */
+    StepOutcome getLastOutcome() {
+        return lastOutcome;
+    }
+    
+    /**
+     * Moves the berry to the given cell. Used for replaying saved games, 
+     * whose berries do not come from the random number generator.
+     * 
+     * @param berryCell the new berry cell, or {@code -1} for no berry.
+     */
+    void placeBerry(int berryCell) {
+        if (berryCell < -1 || berryCell >= grid.getWidth() * grid.getHeight()) {
+            throw new IllegalArgumentException(
+                    "The berry cell " + berryCell + " is outside of the " + 
+                    "grid.");
+        }
+        
+        if (berryCell < 0) {
+            berryX = -1;
+            berryY = -1;
+        } else {
+            berryX = berryCell % grid.getWidth();
+            berryY = berryCell / grid.getWidth();
+        }
+    }
+    
+    /**
+     * Sets the metrics recording the steps and the berry spawns. Called 
+     * before the engine is stepped.
+     * 
+     * @param metrics the metrics, or {@code null} for recording nothing.
+     */
+    void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Returns the number of cells that are neither walls nor occupied by the
+     * snake.
+     * 
+     * @return the number of free cells.
+     */
+    public int getFreeCellCount() {
+        return freeCellIndex.size();
+    }
+    
+    /**
+     * Places the berry in a uniformly random free cell. If the board is full,
+     * no berry is placed.
+     */
+    private void createBerry() {
+        long startTime = metrics != null ? System.nanoTime() : 0L;
+        long modificationCount = grid.getModificationCount();
+        boolean rebuilt = gridModificationCount != modificationCount;
+        
+        if (rebuilt) {
+            // The walls changed since the index was built.
+            freeCellIndex.rebuild(grid, snake);
+            gridModificationCount = modificationCount;
+        }
+        
+        placeBerry(freeCellIndex.getRandomCell(random));
+        
+        if (metrics != null) {
+            metrics.recordBerrySpawn(System.nanoTime() - startTime, rebuilt);
+        }
+    }
+    
+    private static Snake createInitialSnake(int gridWidth, int gridHeight) {
+        List<SnakeCompartment> snakeCompartmentList = 
+                Arrays.asList(new SnakeCompartment(EAST, 3, 0),
+                              new SnakeCompartment(EAST, 2, 0),
+                              new SnakeCompartment(EAST, 1, 0),
+                              new SnakeCompartment(EAST, 0, 0));
+        
+        return new Snake(snakeCompartmentList, EAST, gridWidth, gridHeight);
+    }
+}
@@ -0,0 +1,19 @@
+package net.coderodde.snake;
+
+/**
+ * This interface defines the API for observing a {@link GameEngine}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@FunctionalInterface
+public interface GameEngineListener {
+    
+    /**
+     * Called by the engine after each step on the thread running the step.
+     * 
+     * @param gameEngine the engine that made the step.
+     * @param outcome    the outcome of the step.
+     */
+    void onStep(GameEngine gameEngine, StepOutcome outcome);
+}
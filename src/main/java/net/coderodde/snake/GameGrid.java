@@ -0,0 +1,171 @@
+package net.coderodde.snake;
+
+import java.util.Objects;
+
+/**
+ * This class implements the game grid as a single flat array of cell codes.
+ * The cell {@code (x, y)} is stored at the index {@code y * width + x}, which
+ * is the same packing the {@link Snake} uses for its body.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameGrid {
+    
+    /**
+     * Caches the grid cell types so that the stored ordinals can be mapped 
+     * back without allocating.
+     */
+    private static final GridCell[] GRID_CELLS = GridCell.values();
+    
+    /**
+     * The code of a wall cell.
+     */
+    private static final byte WALL = (byte) GridCell.WALL.ordinal();
+    
+    /**
+     * The width of the grid in cells.
+     */
+    private final int width;
+    
+    /**
+     * The height of the grid in cells.
+     */
+    private final int height;
+    
+    /**
+     * The cell codes in row-major order.
+     */
+    private final byte[] cells;
+    
+    /**
+     * The number of calls to {@link #setCell(int, int, GridCell)} so far. 
+     * Lets the renderers notice changed walls.
+     */
+    private volatile long modificationCount;
+    
+    /**
+     * Constructs a new grid with all the cells traversable.
+     * 
+     * @param width  the width of the grid in cells.
+     * @param height the height of the grid in cells.
+     */
+    public GameGrid(int width, int height) {
+        this.width  = checkDimension(width, "width");
+        this.height = checkDimension(height, "height");
+        
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The grid is too large (" + width + " x " + height + ").");
+        }
+        
+        // GridCell.TRAVERSABLE has the ordinal 0.
+        this.cells = new byte[width * height];
+    }
+    
+    /**
+     * Constructs a grid from the ordinals of its cells. Used for restoring 
+     * saved games.
+     * 
+     * @param width  the width of the grid.
+     * @param height the height of the grid.
+     * @param cells  the {@link GridCell} ordinals of the cells, row by row.
+     */
+    GameGrid(int width, int height, byte[] cells) {
+        this(width, height);
+        
+        if (cells.length != this.cells.length) {
+            throw new IllegalArgumentException(
+                    "The number of cells (" + cells.length + ") does not " + 
+                    "match the grid size.");
+        }
+        
+        for (byte cell : cells) {
+            if (cell < 0 || cell >= GRID_CELLS.length) {
+                throw new IllegalArgumentException(
+                        "Unknown grid cell code " + cell + ".");
+            }
+        }
+        
+        System.arraycopy(cells, 0, this.cells, 0, cells.length);
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public GridCell getCell(int x, int y) {
+        checkCoordinates(x, y);
+        return GRID_CELLS[cells[y * width + x]];
+    }
+    
+    public void setCell(int x, int y, GridCell gridCell) {
+        checkCoordinates(x, y);
+        Objects.requireNonNull(gridCell, "The input grid cell is null.");
+        cells[y * width + x] = (byte) gridCell.ordinal();
+        modificationCount++;
+    }
+    
+    public long getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * Checks whether the cell {@code (x, y)} may not be entered. The cells 
+     * outside of the grid are considered walls.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return {@code true} if the cell is a wall or outside of the grid.
+     */
+    public boolean isWall(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return true;
+        }
+        
+        return cells[y * width + x] == WALL;
+    }
+    
+    /**
+     * Checks whether the cell with the packed index {@code y * width + x} is 
+     * a wall. The index must be within the grid.
+     * 
+     * @param cellIndex the packed index of the cell.
+     * @return {@code true} if the cell is a wall.
+     */
+    boolean isWall(int cellIndex) {
+        return cells[cellIndex] == WALL;
+    }
+    
+    /**
+     * Returns the {@link GridCell} ordinal of the given cell.
+     * 
+     * @param cellIndex the packed cell.
+     * @return the ordinal of the cell.
+     */
+    byte getCellCode(int cellIndex) {
+        return cells[cellIndex];
+    }
+    
+    private void checkCoordinates(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException(
+                    "The cell (" + x + ", " + y + ") is outside of the " + 
+                    width + " x " + height + " grid.");
+        }
+    }
+    
+    private static int checkDimension(int dimension, String name) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException(
+                    "The grid " + name + " (" + dimension + 
+                    ") must be positive.");
+        }
+        
+        return dimension;
+    }
+}
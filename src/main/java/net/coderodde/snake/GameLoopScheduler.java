@@ -0,0 +1,283 @@
+package net.coderodde.snake;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * This class hosts many {@link GameSession}s without dedicating a platform 
+ * thread to each of them. In the shared mode all the sessions are ticked by
+ * a small {@link ScheduledExecutorService}; in the thread-per-session mode
+ * each session runs its own loop on a thread obtained from a 
+ * {@link ThreadFactory}, which is meant to produce virtual threads. In both 
+ * modes the ticks follow absolute deadlines, so they do not drift. A tick 
+ * throwing an exception stops its session, which keeps the exception as its
+ * failure, and the exception is passed to the uncaught exception handler of
+ * the thread.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameLoopScheduler implements AutoCloseable {
+    
+    /**
+     * The executor ticking the sessions in the shared mode, or {@code null}
+     * in the thread-per-session mode.
+     */
+    private final ScheduledExecutorService scheduledExecutorService;
+    
+    /**
+     * The factory of session threads in the thread-per-session mode, or 
+     * {@code null} in the shared mode.
+     */
+    private final ThreadFactory sessionThreadFactory;
+    
+    /**
+     * The clock of the deadlines in the shared mode, in nanoseconds.
+     */
+    private final LongSupplier clock;
+    
+    /**
+     * The sessions ticked on the shared pool.
+     */
+    private final Set<SessionTask> sessionTasks = 
+            ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Constructs a scheduler. Package-private for running the shared mode 
+     * against a test clock.
+     * 
+     * @param scheduledExecutorService the shared pool, or {@code null}.
+     * @param sessionThreadFactory     the session thread factory, or 
+     *                                 {@code null}.
+     * @param clock                    the clock of the shared mode.
+     */
+    GameLoopScheduler(ScheduledExecutorService scheduledExecutorService,
+                      ThreadFactory sessionThreadFactory,
+                      LongSupplier clock) {
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.sessionThreadFactory = sessionThreadFactory;
+        this.clock = clock;
+    }
+    
+    /**
+     * Creates a scheduler ticking all the sessions on a shared pool of 
+     * daemon threads.
+     * 
+     * @param threadCount the number of the pool threads.
+     * @return a shared-mode scheduler.
+     */
+    public static GameLoopScheduler newSharedScheduler(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return newSharedScheduler(threadCount, runnable -> {
+            Thread thread = new Thread(
+                    runnable,
+                    "game-loop-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Creates a scheduler ticking all the sessions on a shared pool whose 
+     * threads come from the given factory, for example for setting their 
+     * uncaught exception handler.
+     * 
+     * @param threadCount   the number of the pool threads.
+     * @param threadFactory the factory of the pool threads.
+     * @return a shared-mode scheduler.
+     */
+    public static GameLoopScheduler newSharedScheduler(
+            int threadCount, 
+            ThreadFactory threadFactory) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(
+                    "The thread count (" + threadCount + 
+                    ") must be positive.");
+        }
+        
+        ScheduledThreadPoolExecutor executor = 
+                new ScheduledThreadPoolExecutor(
+                        threadCount,
+                        Objects.requireNonNull(
+                                threadFactory,
+                                "The input thread factory is null."));
+        
+        executor.setRemoveOnCancelPolicy(true);
+        return new GameLoopScheduler(executor, null, System::nanoTime);
+    }
+    
+    /**
+     * Creates a scheduler running each session on its own thread.
+     * 
+     * @param sessionThreadFactory the factory of the session threads.
+     * @return a thread-per-session scheduler.
+     */
+    public static GameLoopScheduler 
+        newThreadPerSessionScheduler(ThreadFactory sessionThreadFactory) {
+        return new GameLoopScheduler(
+                null,
+                Objects.requireNonNull(sessionThreadFactory,
+                                       "The input thread factory is null."),
+                System::nanoTime);
+    }
+    
+    /**
+     * Returns a factory of virtual threads. Looked up reflectively, since 
+     * the code base targets Java 8.
+     * 
+     * @return a virtual thread factory.
+     * @throws UnsupportedOperationException if the running JVM does not 
+     *                                       support virtual threads.
+     */
+    public static ThreadFactory virtualThreadFactory() {
+        try {
+            Method ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtualMethod.invoke(null);
+            Method factoryMethod = 
+                    Class.forName("java.lang.Thread$Builder")
+                         .getMethod("factory");
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads are not supported by this JVM.", ex);
+        }
+    }
+    
+    /**
+     * Starts ticking the given session.
+     * 
+     * @param gameSession the session to host.
+     * @return the handle for cancelling the session.
+     */
+    public Registration schedule(GameSession gameSession) {
+        Objects.requireNonNull(gameSession, "The input game session is null.");
+        
+        if (sessionThreadFactory != null) {
+            Thread thread = 
+                    sessionThreadFactory.newThread(gameSession::runLoop);
+            thread.start();
+            return () -> {
+                gameSession.stop();
+                thread.interrupt();
+            };
+        }
+        
+        SessionTask sessionTask = new SessionTask(gameSession);
+        sessionTasks.add(sessionTask);
+        sessionTask.scheduleNext();
+        return sessionTask::cancel;
+    }
+    
+    /**
+     * Stops the shared pool and the sessions ticked on it. A tick running 
+     * meanwhile finds the pool shut down when scheduling the next one, which
+     * stops its session as well. The sessions hosted on their own threads 
+     * keep running until cancelled.
+     */
+    @Override
+    public void close() {
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+            
+            for (SessionTask sessionTask : sessionTasks) {
+                sessionTask.cancel();
+            }
+        }
+    }
+    
+    /**
+     * The handle of a hosted session.
+     */
+    @FunctionalInterface
+    public interface Registration {
+        
+        /**
+         * Stops the session and releases its scheduling resources.
+         */
+        void cancel();
+    }
+    
+    /**
+     * Ticks a session on the shared pool. Each run schedules the next one 
+     * against the next absolute deadline, which also picks up changes of the
+     * step duration.
+     */
+    private final class SessionTask implements Runnable {
+        
+        private final GameSession gameSession;
+        private long deadline = clock.getAsLong();
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
+        
+        SessionTask(GameSession gameSession) {
+            this.gameSession = gameSession;
+        }
+        
+        @Override
+        public void run() {
+            if (cancelled || gameSession.isStopped()) {
+                return;
+            }
+            
+            gameSession.getJitterHistogram().record(
+                    clock.getAsLong() - deadline);
+            
+            try {
+                gameSession.tick();
+            } catch (RuntimeException ex) {
+                // The executor would keep the exception in the future, 
+                // where nobody looks for it.
+                gameSession.fail(ex);
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler()
+                      .uncaughtException(thread, ex);
+            }
+            
+            if (gameSession.isStopped()) {
+                sessionTasks.remove(this);
+            } else {
+                scheduleNext();
+            }
+        }
+        
+        void scheduleNext() {
+            deadline += gameSession.getStepDurationNanos();
+            
+            if (cancelled) {
+                return;
+            }
+            
+            try {
+                future = scheduledExecutorService.schedule(
+                        this, 
+                        deadline - clock.getAsLong(),
+                        TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ex) {
+                // The scheduler is closed.
+                gameSession.stop();
+                sessionTasks.remove(this);
+            }
+        }
+        
+        void cancel() {
+            cancelled = true;
+            gameSession.stop();
+            sessionTasks.remove(this);
+            ScheduledFuture<?> currentFuture = future;
+            
+            if (currentFuture != null) {
+                currentFuture.cancel(false);
+            }
+        }
+    }
+}
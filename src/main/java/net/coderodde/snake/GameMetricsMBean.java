@@ -0,0 +1,54 @@
+package net.coderodde.snake;
+
+/**
+ * This interface defines the JMX view of {@link GameMetrics}. The latencies
+ * are in nanoseconds.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public interface GameMetricsMBean {
+    
+    long getStepCount();
+    
+    long getStepP50Nanos();
+    
+    long getStepP99Nanos();
+    
+    long getStepP999Nanos();
+    
+    long getStepMaximumNanos();
+    
+    long getBerrySpawnCount();
+    
+    long getBerrySpawnP99Nanos();
+    
+    long getBerrySpawnMaximumNanos();
+    
+    /**
+     * Returns the number of berry spawns that had to rebuild the free cell
+     * index because the walls changed.
+     * 
+     * @return the number of rebuilds.
+     */
+    long getFreeCellIndexRebuildCount();
+    
+    long getPaintCount();
+    
+    long getPaintP99Nanos();
+    
+    long getPaintMaximumNanos();
+    
+    long getTickLatenessP50Nanos();
+    
+    long getTickLatenessP99Nanos();
+    
+    long getTickLatenessMaximumNanos();
+    
+    /**
+     * Returns the current metrics as CSV.
+     * 
+     * @return the CSV rows headed by {@link GameMetrics#CSV_HEADER}.
+     */
+    String dumpCsv();
+}
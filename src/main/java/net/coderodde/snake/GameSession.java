@@ -0,0 +1,342 @@
+package net.coderodde.snake;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class holds the per-game loop state: the engine, the pause flag, the 
+ * step duration and the directions requested by the player. A session is 
+ * driven either by its own thread via {@link #runLoop()}, or by a 
+ * {@link GameLoopScheduler} calling {@link #tick()} at the step rate.
+ * 
+ * <p>The own loop parks until shortly before each deadline and spins for the
+ * rest, since parking alone may wake up tens of microseconds late. The delay
+ * of each tick past its deadline is recorded in a jitter histogram.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameSession {
+    
+    /**
+     * The default step duration in milliseconds.
+     */
+    static final long DEFAULT_STEP_DURATION = 1000L; // 1 second.
+    
+    /**
+     * The minimum allowed step duration in milliseconds.
+     */
+    static final long MINIMUM_STEP_DURATION = 1L;    // 0,001 seconds.
+    
+    /**
+     * The time before a deadline from which the loop spins instead of 
+     * parking, in nanoseconds.
+     */
+    static final long SPIN_DURATION = 250_000L;      // 250 microseconds.
+    
+    /**
+     * The game engine being stepped.
+     */
+    private final GameEngine gameEngine;
+    
+    /**
+     * The current step duration in nanoseconds.
+     */
+    private volatile long stepDurationNanos = 
+            TimeUnit.MILLISECONDS.toNanos(DEFAULT_STEP_DURATION);
+    
+    /**
+     * The flag for requesting a pause.
+     */
+    private volatile boolean pause;
+    
+    /**
+     * The flag set when the session must not be stepped any more.
+     */
+    private volatile boolean stopped;
+    
+    /**
+     * The exception thrown by the tick that stopped this session, or 
+     * {@code null}.
+     */
+    private volatile RuntimeException failure;
+    
+    /**
+     * The directions requested by the player, taken one turn per step.
+     */
+    private final DirectionInputQueue inputQueue = new DirectionInputQueue();
+    
+    /**
+     * The policy steering the snake instead of the player, or {@code null}.
+     */
+    private volatile SnakePolicy autopilot;
+    
+    /**
+     * The curve setting the step duration as the snake grows, or 
+     * {@code null} for a fixed step duration.
+     */
+    private volatile SpeedCurve speedCurve;
+    
+    /**
+     * The number of berries eaten in this session.
+     */
+    private volatile int berriesEaten;
+    
+    /**
+     * The delays of the ticks past their deadlines, in 10 microsecond 
+     * buckets up to 2 milliseconds.
+     */
+    private final LatencyHistogram jitterHistogram = 
+            new LatencyHistogram(10_000L, 200);
+    
+    /**
+     * Constructs a new session for the given engine.
+     * 
+     * @param gameEngine the game engine to step.
+     */
+    public GameSession(GameEngine gameEngine) {
+        this.gameEngine = Objects.requireNonNull(
+                gameEngine, 
+                "The input game engine is null.");
+    }
+    
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+    
+    /**
+     * Sets the step duration.
+     * 
+     * @param stepDuration the step duration in milliseconds.
+     */
+    public void setStepDuration(long stepDuration) {
+        setStepDurationNanos(TimeUnit.MILLISECONDS.toNanos(stepDuration));
+    }
+    
+    /**
+     * Sets the step duration with nanosecond precision.
+     * 
+     * @param stepDurationNanos the step duration in nanoseconds.
+     */
+    public void setStepDurationNanos(long stepDurationNanos) {
+        this.stepDurationNanos = checkStepDurationNanos(stepDurationNanos);
+    }
+    
+    public long getStepDurationNanos() {
+        return stepDurationNanos;
+    }
+    
+    public void setPause(boolean pause) {
+        this.pause = pause;
+    }
+    
+    public void togglePause() {
+        this.pause = !this.pause;
+    }
+    
+    public boolean isPaused() {
+        return pause;
+    }
+    
+    /**
+     * Requests the snake to turn to the given direction. The requests are 
+     * queued and applied one per step, skipping the ones that would not turn
+     * the snake, such as reversing it into its neck. Must be called by a 
+     * single thread, normally the event dispatch thread.
+     * 
+     * @param direction the requested direction.
+     * @return {@code false} if the queue is full and the request was dropped.
+     */
+    public boolean requestDirection(MotionDirection direction) {
+        return inputQueue.offer(Objects.requireNonNull(
+                direction, 
+                "The input direction is null."));
+    }
+    
+    /**
+     * Stops this session. No further steps are made.
+     */
+    public void stop() {
+        stopped = true;
+    }
+    
+    /**
+     * Tells whether this session is stopped, either explicitly or because the 
+     * game is over.
+     * 
+     * @return {@code true} if the session is stopped.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+    
+    /**
+     * Returns the exception thrown by a tick of this session, for example by
+     * a listener of the engine, which stopped the session.
+     * 
+     * @return the failure, or {@code null} if no tick failed.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+    
+    /**
+     * Stops this session for the given exception thrown by a tick.
+     * 
+     * @param failure the exception.
+     */
+    void fail(RuntimeException failure) {
+        this.failure = failure;
+        stopped = true;
+    }
+    
+    /**
+     * Lets the given policy steer the snake on each tick instead of the 
+     * player. The policy is called on the thread stepping the session.
+     * 
+     * @param autopilot the steering policy, or {@code null} for giving the 
+     *                  control back to the player.
+     */
+    public void setAutopilot(SnakePolicy autopilot) {
+        this.autopilot = autopilot;
+    }
+    
+    public SnakePolicy getAutopilot() {
+        return autopilot;
+    }
+    
+    /**
+     * Switches the speed progression on or off. While it is on, the step 
+     * duration follows the curve by the number of berries eaten in this 
+     * session, overriding the durations set directly.
+     * 
+     * @param speedCurve the speed curve, or {@code null} for keeping the 
+     *                   current step duration from now on.
+     */
+    public void setSpeedCurve(SpeedCurve speedCurve) {
+        if (speedCurve != null) {
+            checkStepDurationNanos(speedCurve.getMinimumStepNanos());
+            stepDurationNanos = speedCurve.getStepDurationNanos(berriesEaten);
+        }
+        
+        this.speedCurve = speedCurve;
+    }
+    
+    public SpeedCurve getSpeedCurve() {
+        return speedCurve;
+    }
+    
+    /**
+     * Returns the histogram of the delays of the ticks past their deadlines.
+     * 
+     * @return the jitter histogram.
+     */
+    public LatencyHistogram getJitterHistogram() {
+        return jitterHistogram;
+    }
+    
+    /**
+     * Makes a single step unless the session is paused or stopped.
+     * 
+     * @return the outcome of the step, or {@code null} if no step was made.
+     */
+    public StepOutcome tick() {
+        if (stopped || pause) {
+            return null;
+        }
+        
+        MotionDirection direction = 
+                inputQueue.pollTurn(gameEngine.getSnake().getDirection());
+        SnakePolicy autopilot = this.autopilot;
+        
+        if (autopilot != null) {
+            direction = autopilot.chooseDirection(gameEngine);
+        }
+        
+        StepOutcome outcome = gameEngine.step(direction);
+        
+        if (outcome == StepOutcome.GREW) {
+            berriesEaten++;
+            SpeedCurve speedCurve = this.speedCurve;
+            
+            if (speedCurve != null) {
+                stepDurationNanos = 
+                        speedCurve.getStepDurationNanos(berriesEaten);
+            }
+        } else if (outcome.isTerminal()) {
+            stopped = true;
+        }
+        
+        return outcome;
+    }
+    
+    /**
+     * Runs the loop of this session on the calling thread until the session
+     * stops or the thread is interrupted. The ticks are scheduled against 
+     * absolute deadlines, so the time spent in a step does not accumulate as
+     * drift. A tick throwing an exception stops the session and the 
+     * exception propagates.
+     */
+    public void runLoop() {
+        long deadline = System.nanoTime();
+        
+        while (!stopped) {
+            deadline += stepDurationNanos;
+            
+            if (!waitUntil(deadline)) {
+                return;
+            }
+            
+            jitterHistogram.record(System.nanoTime() - deadline);
+            
+            try {
+                tick();
+            } catch (RuntimeException ex) {
+                fail(ex);
+                throw ex;
+            }
+        }
+    }
+    
+    /**
+     * Waits until the deadline, parking the calling thread while the 
+     * deadline is more than {@code SPIN_DURATION} away and spinning after 
+     * that.
+     * 
+     * @param deadline the deadline in terms of {@link System#nanoTime()}.
+     * @return {@code false} if the thread was interrupted or the session was
+     *         stopped while waiting.
+     */
+    private boolean waitUntil(long deadline) {
+        long remaining;
+        
+        while ((remaining = deadline - System.nanoTime()) > SPIN_DURATION) {
+            LockSupport.parkNanos(this, remaining - SPIN_DURATION);
+            
+            if (Thread.currentThread().isInterrupted() || stopped) {
+                return false;
+            }
+        }
+        
+        while (deadline - System.nanoTime() > 0L) {
+            // Spin.
+        }
+        
+        return true;
+    }
+    
+    private static long checkStepDurationNanos(long stepDurationNanos) {
+        long minimumStepNanos = 
+                TimeUnit.MILLISECONDS.toNanos(MINIMUM_STEP_DURATION);
+        
+        if (stepDurationNanos < minimumStepNanos) {
+            throw new IllegalArgumentException(
+                    "The input step duration is too small (" + 
+                    stepDurationNanos + " nanoseconds). Must be at least " + 
+                    minimumStepNanos + " nanoseconds.");
+        }
+        
+        return stepDurationNanos;
+    }
+}
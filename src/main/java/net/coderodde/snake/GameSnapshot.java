@@ -0,0 +1,195 @@
+package net.coderodde.snake;
+
+/**
+ * This class holds a copy of the game state taken right after a step: the
+ * body cells, an occupancy bitmap of the body, the berry and what the step 
+ * changed. Snapshots are passed from the simulation thread to a renderer 
+ * through a {@link GameSnapshotExchange}, which recycles them; while a 
+ * renderer holds a snapshot, the snapshot is not modified.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameSnapshot {
+    
+    private final int gridWidth;
+    private final int gridHeight;
+    
+    /**
+     * The packed cells of the body from the head to the tail.
+     */
+    private int[] bodyCells = new int[16];
+    
+    /**
+     * The occupancy bitmap of the body, indexed by the packed cell.
+     */
+    private final long[] occupancy;
+    
+    private int length;
+    private MotionDirection headDirection;
+    private int berryCell;
+    private int previousBerryCell;
+    private int vacatedCell = -1;
+    private StepOutcome outcome;
+    private long stepCount;
+    private long tickNanos;
+    
+    /**
+     * The publication number of this snapshot, increasing with each 
+     * publication.
+     */
+    private volatile long sequenceNumber = -1L;
+    
+    GameSnapshot(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.occupancy = new long[(int)(((long) gridWidth * gridHeight + 63)
+                                        >>> 6)];
+    }
+    
+    /**
+     * Overwrites this snapshot with the current state of the engine. Runs in 
+     * time linear in the length of the snake, independent of the grid size.
+     * 
+     * @param gameEngine the engine to copy.
+     * @param outcome    the outcome of the last step, or {@code null}.
+     * @param tickNanos  the time of the step in terms of 
+     *                   {@link System#nanoTime()}.
+     */
+    void copyFrom(GameEngine gameEngine, StepOutcome outcome, long tickNanos) {
+        for (int i = 0; i < length; i++) {
+            int cell = bodyCells[i];
+            occupancy[cell >>> 6] &= ~(1L << cell);
+        }
+        
+        Snake snake = gameEngine.getSnake();
+        
+        if (bodyCells.length < snake.size()) {
+            bodyCells = new int[Math.max(snake.size(), 2 * bodyCells.length)];
+        }
+        
+        length = snake.copyBodyCells(bodyCells);
+        
+        for (int i = 0; i < length; i++) {
+            int cell = bodyCells[i];
+            occupancy[cell >>> 6] |= 1L << cell;
+        }
+        
+        this.headDirection = snake.getHeadDirection();
+        this.berryCell = gameEngine.getBerryCell();
+        this.previousBerryCell = gameEngine.getPreviousBerryCell();
+        this.vacatedCell = gameEngine.getVacatedCell();
+        this.outcome = outcome;
+        this.stepCount = gameEngine.getStepCount();
+        this.tickNanos = tickNanos;
+    }
+    
+    long getSequenceNumber() {
+        return sequenceNumber;
+    }
+    
+    void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+    
+    public int getGridWidth() {
+        return gridWidth;
+    }
+    
+    public int getGridHeight() {
+        return gridHeight;
+    }
+    
+    /**
+     * Returns the number of compartments of the snake.
+     * 
+     * @return the length of the snake.
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    /**
+     * Returns the packed cell {@code y * gridWidth + x} of the 
+     * {@code index}th compartment counting from the head.
+     * 
+     * @param index the index of the compartment.
+     * @return the packed cell of the compartment.
+     */
+    public int getBodyCell(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(
+                    "The compartment index " + index + " is not within [0, " + 
+                    length + ").");
+        }
+        
+        return bodyCells[index];
+    }
+    
+    /**
+     * Checks whether the cell {@code (x, y)} is occupied by the snake.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return {@code true} if the cell is occupied.
+     */
+    public boolean occupies(int x, int y) {
+        if (x < 0 || x >= gridWidth || y < 0 || y >= gridHeight) {
+            return false;
+        }
+        
+        int cell = y * gridWidth + x;
+        return (occupancy[cell >>> 6] & (1L << cell)) != 0L;
+    }
+    
+    public MotionDirection getHeadDirection() {
+        return headDirection;
+    }
+    
+    public int getBerryX() {
+        return berryCell < 0 ? -1 : berryCell % gridWidth;
+    }
+    
+    public int getBerryY() {
+        return berryCell < 0 ? -1 : berryCell / gridWidth;
+    }
+    
+    /**
+     * Returns the packed cell of the berry.
+     * 
+     * @return the berry cell, or {@code -1} if the board is full.
+     */
+    public int getBerryCell() {
+        return berryCell;
+    }
+    
+    public int getPreviousBerryCell() {
+        return previousBerryCell;
+    }
+    
+    /**
+     * Returns the cell the tail left in the step of this snapshot.
+     * 
+     * @return the vacated cell, or {@code -1} if the tail did not move.
+     */
+    public int getVacatedCell() {
+        return vacatedCell;
+    }
+    
+    /**
+     * Returns the outcome of the step of this snapshot.
+     * 
+     * @return the outcome, or {@code null} for the initial state.
+     */
+    public StepOutcome getOutcome() {
+        return outcome;
+    }
+    
+    public long getStepCount() {
+        return stepCount;
+    }
+    
+    public long getTickNanos() {
+        return tickNanos;
+    }
+}
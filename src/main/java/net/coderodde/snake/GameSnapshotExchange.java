@@ -0,0 +1,92 @@
+package net.coderodde.snake;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class passes {@link GameSnapshot}s from the simulation thread to a 
+ * single rendering thread without locks. Three snapshots are recycled: the 
+ * writer fills its back snapshot and swaps it with the shared middle one, and
+ * the reader swaps its front snapshot with the middle one whenever the 
+ * middle one is newer. Neither side ever touches the snapshot owned by the 
+ * other, so the reader always sees a complete, untorn state, and a steady 
+ * state tick allocates nothing.
+ * 
+ * <p>Each renderer needs an exchange of its own; the exchange may be 
+ * registered as a {@link GameEngineListener} of the engine it copies.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameSnapshotExchange implements GameEngineListener {
+    
+    /**
+     * The snapshot shared between the writer and the reader.
+     */
+    private final AtomicReference<GameSnapshot> middle;
+    
+    /**
+     * The snapshot owned by the writer.
+     */
+    private GameSnapshot back;
+    
+    /**
+     * The snapshot owned by the reader.
+     */
+    private GameSnapshot front;
+    
+    /**
+     * The sequence number of the next publication. Accessed by the writer 
+     * only.
+     */
+    private long nextSequenceNumber;
+    
+    /**
+     * Constructs an exchange for the given engine and publishes its current 
+     * state.
+     * 
+     * @param gameEngine the engine whose state is exchanged.
+     */
+    public GameSnapshotExchange(GameEngine gameEngine) {
+        Objects.requireNonNull(gameEngine, "The input game engine is null.");
+        int gridWidth  = gameEngine.getGrid().getWidth();
+        int gridHeight = gameEngine.getGrid().getHeight();
+        this.back   = new GameSnapshot(gridWidth, gridHeight);
+        this.front  = new GameSnapshot(gridWidth, gridHeight);
+        this.middle = 
+                new AtomicReference<>(new GameSnapshot(gridWidth, gridHeight));
+        publish(gameEngine, null);
+    }
+    
+    /**
+     * Copies the current state of the engine and publishes it. Must be 
+     * called by a single writer thread at a time.
+     * 
+     * @param gameEngine the engine to copy.
+     * @param outcome    the outcome of the last step, or {@code null}.
+     */
+    public void publish(GameEngine gameEngine, StepOutcome outcome) {
+        back.copyFrom(gameEngine, outcome, System.nanoTime());
+        back.setSequenceNumber(nextSequenceNumber++);
+        back = middle.getAndSet(back);
+    }
+    
+    @Override
+    public void onStep(GameEngine gameEngine, StepOutcome outcome) {
+        publish(gameEngine, outcome);
+    }
+    
+    /**
+     * Returns the most recently published snapshot. The returned snapshot 
+     * stays valid until the next call to this method by the reader thread.
+     * 
+     * @return the latest snapshot.
+     */
+    public GameSnapshot acquire() {
+        if (middle.get().getSequenceNumber() > front.getSequenceNumber()) {
+            front = middle.getAndSet(front);
+        }
+        
+        return front;
+    }
+}
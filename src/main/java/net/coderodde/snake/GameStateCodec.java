@@ -0,0 +1,495 @@
+package net.coderodde.snake;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * This class saves and restores the full state of a {@link GameSession}: the
+ * grid, the snake, the berry, the step count, the step duration and the 
+ * pause state.
+ * 
+ * <p>A saved game is a header followed by chunks. A snapshot chunk holds the
+ * whole state: the grid run-length encoded, and the snake as its head cell 
+ * plus a 2-bit direction code per link of the body, so a snake of a million 
+ * compartments takes about 250 kB. A delta chunk holds the ticks made since
+ * the previous chunk: a 2-bit direction code per tick, a bitmap of the ticks
+ * on which the snake grew and the berry cell placed after each growth. The 
+ * berries are stored rather than regenerated, since the state of the random
+ * number generator is not saved. {@link GameStateRecorder} writes such 
+ * streams with periodic snapshots.
+ * 
+ * <p>The links of the body are written in the packed layout of 
+ * {@link Snake}, and the directions of the head and the tail compartments 
+ * are stored explicitly.
+ * 
+ * <p>Reading treats the input as untrusted: the counts are checked against
+ * the data actually present before the buffers grow, and grids of more than
+ * {@value #MAXIMUM_CELL_COUNT} cells are rejected, so a corrupted file fails
+ * with an {@link IOException} rather than running out of memory.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameStateCodec {
+    
+    /**
+     * The magic number starting each saved game ("SNKS").
+     */
+    private static final int MAGIC = 0x534E4B53;
+    
+    private static final byte FORMAT_VERSION = 1;
+    
+    /**
+     * The maximum number of the cells of a saved grid.
+     */
+    static final int MAXIMUM_CELL_COUNT = 1 << 24;
+    
+    /**
+     * The initial size of the buffers filled from the input.
+     */
+    private static final int READ_CHUNK_SIZE = 8192;
+    
+    static final byte SNAPSHOT_CHUNK = 'S';
+    static final byte DELTA_CHUNK = 'D';
+    
+    private static final MotionDirection[] MOTION_DIRECTIONS = 
+            MotionDirection.values();
+    
+    private static final StepOutcome[] STEP_OUTCOMES = StepOutcome.values();
+    
+    private GameStateCodec() {}
+    
+    /**
+     * Saves the current state of the session as a header and a single 
+     * snapshot chunk. The session must not be stepped meanwhile.
+     * 
+     * @param gameSession  the session to save.
+     * @param outputStream the target stream.
+     * @throws IOException if writing fails.
+     */
+    public static void save(GameSession gameSession, OutputStream outputStream)
+            throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        writeHeader(dataOutputStream);
+        writeSnapshot(gameSession, dataOutputStream);
+        dataOutputStream.flush();
+    }
+    
+    /**
+     * Restores a session from a saved game, applying all its chunks.
+     * 
+     * @param inputStream the source stream.
+     * @param random      the random number generator for placing the future
+     *                    berries of the restored game.
+     * @return the restored session.
+     * @throws IOException if reading fails or the data is corrupted.
+     */
+    public static GameSession load(InputStream inputStream, Random random) 
+            throws IOException {
+        Objects.requireNonNull(random, "The input random is null.");
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        
+        if (dataInputStream.readInt() != MAGIC) {
+            throw new IOException("Not a saved game.");
+        }
+        
+        byte formatVersion = dataInputStream.readByte();
+        
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException(
+                    "Unsupported saved game format version " + 
+                    formatVersion + ".");
+        }
+        
+        GameSession gameSession = null;
+        int chunkType;
+        
+        try {
+            while ((chunkType = dataInputStream.read()) >= 0) {
+                if (chunkType == SNAPSHOT_CHUNK) {
+                    gameSession = readSnapshot(dataInputStream, random);
+                } else if (chunkType == DELTA_CHUNK && gameSession != null) {
+                    readDelta(dataInputStream, gameSession);
+                } else {
+                    throw new IOException(
+                            "Unexpected chunk type " + chunkType + ".");
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            throw new IOException("Corrupted saved game.", ex);
+        }
+        
+        if (gameSession == null) {
+            throw new IOException("The saved game has no snapshot.");
+        }
+        
+        return gameSession;
+    }
+    
+    static void writeHeader(DataOutputStream dataOutputStream) 
+            throws IOException {
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeByte(FORMAT_VERSION);
+    }
+    
+    static void writeSnapshot(GameSession gameSession, 
+                              DataOutputStream dataOutputStream) 
+            throws IOException {
+        GameEngine gameEngine = gameSession.getGameEngine();
+        GameGrid grid = gameEngine.getGrid();
+        Snake snake = gameEngine.getSnake();
+        int gridWidth = grid.getWidth();
+        int cellCount = gridWidth * grid.getHeight();
+        
+        if (cellCount > MAXIMUM_CELL_COUNT) {
+            throw new IOException(
+                    "The grid of " + cellCount + " cells is too large to " +
+                    "save.");
+        }
+        
+        dataOutputStream.writeByte(SNAPSHOT_CHUNK);
+        dataOutputStream.writeInt(gridWidth);
+        dataOutputStream.writeInt(grid.getHeight());
+        
+        // The grid as runs of equal cells.
+        for (int cell = 0; cell < cellCount;) {
+            byte code = grid.getCellCode(cell);
+            int runEnd = cell + 1;
+            
+            while (runEnd < cellCount && grid.getCellCode(runEnd) == code) {
+                runEnd++;
+            }
+            
+            dataOutputStream.writeByte(code);
+            writeVarInt(dataOutputStream, runEnd - cell);
+            cell = runEnd;
+        }
+        
+        // The snake as the head cell and the direction of each link.
+        int length = snake.size();
+        dataOutputStream.writeInt(snake.getHeadCell());
+        dataOutputStream.writeInt(length);
+        dataOutputStream.writeByte(snake.getDirection().ordinal());
+        dataOutputStream.writeByte(snake.getHeadDirection().ordinal());
+        dataOutputStream.writeByte(snake.getTailDirection().ordinal());
+        int packed = 0;
+        
+        for (int i = 0; i < length - 1; i++) {
+            packed |= snake.getLink(i) << (2 * (i & 3));
+            
+            if ((i & 3) == 3) {
+                dataOutputStream.writeByte(packed);
+                packed = 0;
+            }
+        }
+        
+        if (((length - 1) & 3) != 0) {
+            dataOutputStream.writeByte(packed);
+        }
+        
+        StepOutcome lastOutcome = gameEngine.getLastOutcome();
+        dataOutputStream.writeInt(gameEngine.getBerryCell());
+        dataOutputStream.writeLong(gameEngine.getStepCount());
+        dataOutputStream.writeByte(
+                lastOutcome == null ? -1 : lastOutcome.ordinal());
+        writeSessionState(gameSession, dataOutputStream);
+    }
+    
+    /**
+     * Writes a delta chunk.
+     * 
+     * @param gameSession      the session whose ticks are written.
+     * @param directions       the direction ordinals of the ticks.
+     * @param grew             the growth flags of the ticks.
+     * @param berryCells       the berry cells placed after the growths.
+     * @param tickCount        the number of ticks.
+     * @param dataOutputStream the target stream.
+     * @throws IOException if writing fails.
+     */
+    static void writeDelta(GameSession gameSession,
+                           byte[] directions,
+                           boolean[] grew,
+                           int[] berryCells,
+                           int tickCount,
+                           DataOutputStream dataOutputStream) 
+            throws IOException {
+        dataOutputStream.writeByte(DELTA_CHUNK);
+        writeVarInt(dataOutputStream, tickCount);
+        
+        for (int i = 0; i < tickCount; i += 4) {
+            int packed = 0;
+            
+            for (int j = i; j < Math.min(i + 4, tickCount); j++) {
+                packed |= directions[j] << (2 * (j & 3));
+            }
+            
+            dataOutputStream.writeByte(packed);
+        }
+        
+        int growCount = 0;
+        
+        for (int i = 0; i < tickCount; i += 8) {
+            int packed = 0;
+            
+            for (int j = i; j < Math.min(i + 8, tickCount); j++) {
+                if (grew[j]) {
+                    packed |= 1 << (j & 7);
+                    growCount++;
+                }
+            }
+            
+            dataOutputStream.writeByte(packed);
+        }
+        
+        for (int i = 0; i < growCount; i++) {
+            dataOutputStream.writeInt(berryCells[i]);
+        }
+        
+        writeSessionState(gameSession, dataOutputStream);
+    }
+    
+    private static void writeSessionState(GameSession gameSession,
+                                          DataOutputStream dataOutputStream)
+            throws IOException {
+        dataOutputStream.writeLong(gameSession.getStepDurationNanos());
+        dataOutputStream.writeBoolean(gameSession.isPaused());
+    }
+    
+    private static GameSession readSnapshot(DataInputStream dataInputStream, 
+                                            Random random) 
+            throws IOException {
+        int gridWidth = dataInputStream.readInt();
+        int gridHeight = dataInputStream.readInt();
+        
+        if (gridWidth < 1 || gridHeight < 1 
+                || (long) gridWidth * gridHeight > MAXIMUM_CELL_COUNT) {
+            throw new IOException("Corrupted grid dimensions.");
+        }
+        
+        int cellCount = gridWidth * gridHeight;
+        byte[] gridCells = new byte[cellCount];
+        
+        for (int cell = 0; cell < cellCount;) {
+            byte code = dataInputStream.readByte();
+            int runLength = readVarInt(dataInputStream);
+            
+            if (runLength < 1 || runLength > cellCount - cell) {
+                throw new IOException("Corrupted grid run.");
+            }
+            
+            if (code != 0) {
+                Arrays.fill(gridCells, cell, cell + runLength, code);
+            }
+            
+            cell += runLength;
+        }
+        
+        int headCell = dataInputStream.readInt();
+        int length = dataInputStream.readInt();
+        
+        if (length < 1 || length > cellCount) {
+            throw new IOException("Corrupted snake length.");
+        }
+        
+        MotionDirection motionDirection = readDirection(dataInputStream);
+        MotionDirection headDirection = readDirection(dataInputStream);
+        MotionDirection tailDirection = readDirection(dataInputStream);
+        byte[] links = readBytes(dataInputStream, (length + 2) >>> 2);
+        Snake snake = new Snake(headCell,
+                                links,
+                                length, 
+                                headDirection,
+                                tailDirection,
+                                motionDirection, 
+                                gridWidth,
+                                gridHeight);
+        int berryCell = dataInputStream.readInt();
+        GameGrid grid = new GameGrid(gridWidth, gridHeight, gridCells);
+        checkSnakeCells(grid, snake);
+        checkBerryCell(grid, snake, berryCell, true);
+        long stepCount = dataInputStream.readLong();
+        byte lastOutcomeCode = dataInputStream.readByte();
+        
+        if (lastOutcomeCode < -1 || lastOutcomeCode >= STEP_OUTCOMES.length) {
+            throw new IOException("Corrupted step outcome.");
+        }
+        
+        GameEngine gameEngine = 
+                new GameEngine(grid,
+                               snake,
+                               random,
+                               berryCell,
+                               stepCount,
+                               lastOutcomeCode < 0 ? 
+                                       null : 
+                                       STEP_OUTCOMES[lastOutcomeCode]);
+        GameSession gameSession = new GameSession(gameEngine);
+        readSessionState(dataInputStream, gameSession);
+        return gameSession;
+    }
+    
+    private static void readDelta(DataInputStream dataInputStream,
+                                  GameSession gameSession) 
+            throws IOException {
+        int tickCount = readVarInt(dataInputStream);
+        
+        if (tickCount < 0) {
+            throw new IOException("Corrupted tick count " + tickCount + ".");
+        }
+        
+        byte[] directions = readBytes(dataInputStream, (tickCount + 3) >>> 2);
+        byte[] grew = readBytes(dataInputStream, (tickCount + 7) >>> 3);
+        GameEngine gameEngine = gameSession.getGameEngine();
+        
+        for (int i = 0; i < tickCount; i++) {
+            int code = (directions[i >>> 2] >>> (2 * (i & 3))) & 3;
+            StepOutcome outcome = gameEngine.step(MOTION_DIRECTIONS[code]);
+            boolean grown = (grew[i >>> 3] & (1 << (i & 7))) != 0;
+            
+            if (grown != (outcome == StepOutcome.GREW)) {
+                throw new IOException(
+                        "The delta does not match the restored game.");
+            }
+            
+            if (grown) {
+                int berryCell = dataInputStream.readInt();
+                checkBerryCell(gameEngine.getGrid(), 
+                               gameEngine.getSnake(), 
+                               berryCell,
+                               false);
+                gameEngine.placeBerry(berryCell);
+            }
+        }
+        
+        readSessionState(dataInputStream, gameSession);
+    }
+    
+    private static void readSessionState(DataInputStream dataInputStream,
+                                         GameSession gameSession) 
+            throws IOException {
+        long stepDurationNanos = dataInputStream.readLong();
+        gameSession.setStepDurationNanos(stepDurationNanos);
+        gameSession.setPause(dataInputStream.readBoolean());
+    }
+    
+    /**
+     * Checks that no cell of the snake is a wall.
+     */
+    private static void checkSnakeCells(GameGrid grid, Snake snake) 
+            throws IOException {
+        int[] bodyCells = new int[snake.size()];
+        snake.copyBodyCells(bodyCells);
+        
+        for (int cell : bodyCells) {
+            if (grid.isWall(cell)) {
+                throw new IOException(
+                        "The snake cell " + cell + " is on a wall.");
+            }
+        }
+    }
+    
+    /**
+     * Checks that the berry cell is within the grid and neither a wall nor a
+     * cell of the snake. The berry of a snapshot may lie under the head, 
+     * which eats it on the next step, while a berry placed after a growth is
+     * always in a free cell.
+     */
+    private static void checkBerryCell(GameGrid grid, 
+                                       Snake snake, 
+                                       int berryCell,
+                                       boolean headAllowed) 
+            throws IOException {
+        if (berryCell == -1 
+                || (headAllowed && berryCell == snake.getHeadCell())) {
+            return;
+        }
+        
+        int gridWidth = grid.getWidth();
+        
+        if (berryCell < 0 
+                || berryCell >= gridWidth * grid.getHeight()
+                || grid.isWall(berryCell)
+                || snake.occupiesPoint(berryCell % gridWidth, 
+                                       berryCell / gridWidth)) {
+            throw new IOException(
+                    "The berry cell " + berryCell + " is not free.");
+        }
+    }
+    
+    /**
+     * Reads the given number of bytes. The buffer grows as the bytes arrive,
+     * so a corrupted count fails at the end of the input instead of 
+     * allocating memory for bytes that are not there.
+     */
+    private static byte[] readBytes(DataInputStream dataInputStream, 
+                                    int count) throws IOException {
+        byte[] bytes = new byte[Math.min(count, READ_CHUNK_SIZE)];
+        int offset = 0;
+        
+        while (offset < count) {
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(
+                        bytes, 
+                        (int) Math.min(count, 2L * bytes.length));
+            }
+            
+            int byteCount = dataInputStream.read(bytes, 
+                                                 offset, 
+                                                 bytes.length - offset);
+            
+            if (byteCount < 0) {
+                throw new EOFException(
+                        "The saved game ended after " + offset + " of " + 
+                        count + " bytes.");
+            }
+            
+            offset += byteCount;
+        }
+        
+        return bytes;
+    }
+    
+    private static MotionDirection readDirection(
+            DataInputStream dataInputStream) throws IOException {
+        byte code = dataInputStream.readByte();
+        
+        if (code < 0 || code >= MOTION_DIRECTIONS.length) {
+            throw new IOException("Corrupted direction.");
+        }
+        
+        return MOTION_DIRECTIONS[code];
+    }
+    
+    private static void writeVarInt(DataOutputStream dataOutputStream, 
+                                    int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            dataOutputStream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        
+        dataOutputStream.writeByte(value);
+    }
+    
+    private static int readVarInt(DataInputStream dataInputStream) 
+            throws IOException {
+        int value = 0;
+        
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = dataInputStream.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        
+        throw new IOException("Corrupted variable-length integer.");
+    }
+}
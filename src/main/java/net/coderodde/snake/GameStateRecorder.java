@@ -0,0 +1,147 @@
+package net.coderodde.snake;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * This class checkpoints a running {@link GameSession} into a stream in the
+ * format of {@link GameStateCodec}: a snapshot first, then a delta chunk 
+ * every {@code ticksPerDelta} ticks and a new snapshot every 
+ * {@code deltasPerSnapshot} delta chunks, which bounds the work needed for
+ * restoring. The recorder is a {@link GameEngineListener}, so it runs on the
+ * thread stepping the game; {@link #close()} must be called on that thread 
+ * or after the game loop stops.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GameStateRecorder implements GameEngineListener, Closeable {
+    
+    private final GameSession gameSession;
+    private final DataOutputStream dataOutputStream;
+    private final int deltasPerSnapshot;
+    
+    /**
+     * The pending ticks of the next delta chunk.
+     */
+    private final byte[] directions;
+    private final boolean[] grew;
+    private final int[] berryCells;
+    private int tickCount;
+    private int growCount;
+    
+    /**
+     * The number of delta chunks since the last snapshot.
+     */
+    private int deltaCount;
+    
+    /**
+     * Constructs a recorder and writes the initial snapshot. The recorder 
+     * registers itself with the engine of the session.
+     * 
+     * @param gameSession       the session to checkpoint.
+     * @param outputStream      the target stream.
+     * @param ticksPerDelta     the number of ticks per delta chunk.
+     * @param deltasPerSnapshot the number of delta chunks between two 
+     *                          snapshots.
+     * @throws IOException if writing the initial snapshot fails.
+     */
+    public GameStateRecorder(GameSession gameSession,
+                             OutputStream outputStream,
+                             int ticksPerDelta,
+                             int deltasPerSnapshot) throws IOException {
+        this.gameSession = Objects.requireNonNull(
+                gameSession, 
+                "The input game session is null.");
+        
+        if (ticksPerDelta < 1 || deltasPerSnapshot < 1) {
+            throw new IllegalArgumentException(
+                    "The chunk periods must be positive.");
+        }
+        
+        this.dataOutputStream = new DataOutputStream(outputStream);
+        this.deltasPerSnapshot = deltasPerSnapshot;
+        this.directions = new byte[ticksPerDelta];
+        this.grew = new boolean[ticksPerDelta];
+        this.berryCells = new int[ticksPerDelta];
+        GameStateCodec.writeHeader(dataOutputStream);
+        GameStateCodec.writeSnapshot(gameSession, dataOutputStream);
+        gameSession.getGameEngine().addListener(this);
+    }
+    
+    @Override
+    public void onStep(GameEngine gameEngine, StepOutcome outcome) {
+        directions[tickCount] = 
+                (byte) gameEngine.getSnake().getDirection().ordinal();
+        grew[tickCount] = outcome == StepOutcome.GREW;
+        
+        if (outcome == StepOutcome.GREW) {
+            berryCells[growCount++] = gameEngine.getBerryCell();
+        }
+        
+        if (++tickCount == directions.length) {
+            try {
+                writeChunk();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+    
+    /**
+     * Writes the pending ticks and flushes the stream.
+     * 
+     * @throws IOException if writing fails.
+     */
+    public void flush() throws IOException {
+        if (tickCount > 0) {
+            writeDelta();
+        }
+        
+        dataOutputStream.flush();
+    }
+    
+    /**
+     * Writes the pending ticks, stops recording and closes the stream.
+     * 
+     * @throws IOException if writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        gameSession.getGameEngine().removeListener(this);
+        
+        try {
+            flush();
+        } finally {
+            dataOutputStream.close();
+        }
+    }
+    
+    private void writeChunk() throws IOException {
+        if (deltaCount == deltasPerSnapshot) {
+            // The snapshot covers the pending ticks.
+            GameStateCodec.writeSnapshot(gameSession, dataOutputStream);
+            tickCount = 0;
+            growCount = 0;
+            deltaCount = 0;
+        } else {
+            writeDelta();
+        }
+    }
+    
+    private void writeDelta() throws IOException {
+        GameStateCodec.writeDelta(gameSession, 
+                                  directions, 
+                                  grew, 
+                                  berryCells, 
+                                  tickCount, 
+                                  dataOutputStream);
+        tickCount = 0;
+        growCount = 0;
+        deltaCount++;
+    }
+}
@@ -1,10 +1,11 @@
 package net.coderodde.snake;
 
-import java.awt.Point;
 import java.util.Objects;
 
 /**
  * This class defines a thread that moves the snake in its current direction.
+ * The thread runs the loop of a single {@link GameSession}; use 
+ * {@link GameLoopScheduler} for hosting many sessions on a few threads.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Dec 7, 2018)
@@ -12,118 +13,72 @@ import java.util.Objects;
 public final class GameStepThread extends Thread {
     
     /**
-     * The default step duration in milliseconds.
+     * The session whose loop this thread runs.
      */
-    private static final long DEFAULT_STEP_DURATION = 1000L; // 1 second.
+    private final GameSession gameSession;
     
     /**
-     * The minimum allowed step duration in milliseconds.
-     */
-    private static final long MINIMUM_STEP_DURATION = 100L;  // 0,1 seconds.
-    
-    /**
-     * The snake being moved. 
-     */
-    private final Snake snake;
-    
-    /**
-     * The game grid.
-     */
-    private final GridCell[][] grid;
-    
-    /**
-     * The current step duration.
-     */
-    private volatile long stepDuration;
-    
-    /**
-     * The flag for requesting the thread to exit.
-     */
-    private volatile boolean halt;
-    
-    /**
-     * The flag for requesting a pause.
+     * Constructs this game loop thread.
+     * 
+     * @param gameEngine the game engine to step.
      */
-    private volatile boolean pause;
-    
-    private SnakePanel snakePanel;
+    public GameStepThread(GameEngine gameEngine) {
+        this(new GameSession(gameEngine));
+    }
     
     /**
      * Constructs this game loop thread.
      * 
-     * @param snake the snake to control..
+     * @param gameSession the session to run.
      */
-    public GameStepThread(Snake snake, 
-                          GridCell[][] grid, 
-                          SnakePanel snakePanel) {
-        this.snake = Objects.requireNonNull(snake, "The input snake is null.");
-        this.grid  = Objects.requireNonNull(grid, 
-                                            "The input game grid is null.");
-        this.snakePanel = Objects.requireNonNull(
-                snakePanel, 
-                "The input game panel is null.");
-        
-        this.stepDuration = DEFAULT_STEP_DURATION;
-        // this.halt andn this.pause is set to false by default.
+    public GameStepThread(GameSession gameSession) {
+        this.gameSession = Objects.requireNonNull(
+                gameSession, 
+                "The input game session is null.");
+    }
+    
+    public GameSession getGameSession() {
+        return gameSession;
     }
     
     public void setStepDuration(long stepDuration) {
-        this.stepDuration = checkStepDuration(stepDuration);
+        gameSession.setStepDuration(stepDuration);
     }
     
     public void requestExit() {
-        halt = true;
+        gameSession.stop();
+        interrupt();
     }
     
     public void setPause(boolean pause) {
-        this.pause = pause;
+        gameSession.setPause(pause);
+    }
+    
+    /**
+     * Requests the snake to turn to the given direction on a coming step.
+     * 
+     * @param direction the requested direction.
+     * @see GameSession#requestDirection(MotionDirection)
+     */
+    public void requestDirection(MotionDirection direction) {
+        gameSession.requestDirection(direction);
     }
     
     @Override
     public void run() {
-        while (!halt) {
-            try {
-                Thread.sleep(stepDuration);
-            } catch (InterruptedException ex) {
-                throw new RuntimeException("Thread.sleep() threw an exception.",
-                                           ex);
-            }
-            
-            if (pause) {
-                continue;
-            }
-            
-            try {
-                Point snakeHeadCoordinates = snake.getSnakeHeadCoordinates();
-                Point berryCoordiinates = snakePanel.getCurrentBerryPoint();
-                
-                if (snakeHeadCoordinates.equals(berryCoordiinates)) {
-                    snake.grow();
-                    snakePanel.createNewBerry();
-                }
-                
-                snake.makeStep(grid);
-                snakePanel.repaint();
-            } catch (WallCollisionException ex) {
-                return;
-            } catch (EatHimselfException ex) {
-                return;
-            }
-        }
+        gameSession.runLoop();
     }
     
     public void togglePause() {
-        this.pause = !this.pause;
+        gameSession.togglePause();
     }
     
-    private long checkStepDuration(long stepDuration) {
-        if (stepDuration < MINIMUM_STEP_DURATION) {
-            throw new IllegalArgumentException(
-                    "The input step duration is too small (" + stepDuration +
-                    " milliseconds). Must be at least " + 
-                    MINIMUM_STEP_DURATION + " milliseconds.");
-        }
-        
-        return stepDuration;
+    /**
+     * Switches the {@link AStarSnakePolicy} autopilot on or off.
+     */
+    public void toggleAutopilot() {
+        gameSession.setAutopilot(gameSession.getAutopilot() == null ? 
+                                 new AStarSnakePolicy() : 
+                                 null);
     }
 }
@@ -0,0 +1,61 @@
+package net.coderodde.snake;
+
+/**
+ * This policy moves the head to the free neighbour cell closest to the berry
+ * in the Manhattan metric. It looks only one step ahead.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class GreedySnakePolicy implements SnakePolicy {
+    
+    private static final MotionDirection[] MOTION_DIRECTIONS = 
+            MotionDirection.values();
+    
+    @Override
+    public MotionDirection chooseDirection(GameEngine gameEngine) {
+        Snake snake = gameEngine.getSnake();
+        GameGrid grid = gameEngine.getGrid();
+        int headX = snake.getHeadX();
+        int headY = snake.getHeadY();
+        MotionDirection best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        
+        for (MotionDirection direction : MOTION_DIRECTIONS) {
+            int x = headX;
+            int y = headY;
+            
+            switch (direction) {
+                case NORTH:
+                    y--;
+                    break;
+                    
+                case EAST:
+                    x++;
+                    break;
+                    
+                case SOUTH:
+                    y++;
+                    break;
+                    
+                case WEST:
+                    x--;
+                    break;
+            }
+            
+            if (grid.isWall(x, y) || snake.occupiesPoint(x, y)) {
+                continue;
+            }
+            
+            int distance = Math.abs(x - gameEngine.getBerryX()) + 
+                           Math.abs(y - gameEngine.getBerryY());
+            
+            if (bestDistance > distance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        
+        return best;
+    }
+}
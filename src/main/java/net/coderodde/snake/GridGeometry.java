@@ -0,0 +1,143 @@
+package net.coderodde.snake;
+
+/**
+ * This class holds the pixel geometry of the grid drawn on a surface of a 
+ * given size: the cell length and the offsets centering the grid. Instances
+ * are immutable and are recomputed only when the surface is resized.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class GridGeometry {
+    
+    private final int surfaceWidth;
+    private final int surfaceHeight;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int gridLineThickness;
+    private final int cellLength;
+    private final int skipHorizontal;
+    private final int skipVertical;
+    
+    GridGeometry(int surfaceWidth, 
+                 int surfaceHeight, 
+                 int gridWidth, 
+                 int gridHeight,
+                 int gridLineThickness) {
+        this.surfaceWidth = surfaceWidth;
+        this.surfaceHeight = surfaceHeight;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.gridLineThickness = gridLineThickness;
+        
+        int auxCellWidth  = surfaceWidth;
+        int auxCellHeight = surfaceHeight;
+        
+        auxCellWidth -= (gridWidth + 1) * gridLineThickness;
+        auxCellWidth /= gridWidth;
+        
+        auxCellHeight -= (gridHeight + 1) * gridLineThickness;
+        auxCellHeight /= gridHeight;
+        
+        this.cellLength = Math.min(auxCellWidth, auxCellHeight);
+        
+        int horizontalLeftoverPixels = 
+                surfaceWidth - (gridWidth + 1) * gridLineThickness
+                             -  gridWidth * cellLength;
+        
+        int verticalLeftoverPixels = 
+                surfaceHeight - (gridHeight + 1) * gridLineThickness
+                              -  gridHeight * cellLength;
+        
+        this.skipHorizontal = horizontalLeftoverPixels / 2;
+        this.skipVertical   = verticalLeftoverPixels  /  2;
+    }
+    
+    int getSurfaceWidth() {
+        return surfaceWidth;
+    }
+    
+    int getSurfaceHeight() {
+        return surfaceHeight;
+    }
+    
+    int getGridWidth() {
+        return gridWidth;
+    }
+    
+    int getGridHeight() {
+        return gridHeight;
+    }
+    
+    int getGridLineThickness() {
+        return gridLineThickness;
+    }
+    
+    int getCellLength() {
+        return cellLength;
+    }
+    
+    int getSkipHorizontal() {
+        return skipHorizontal;
+    }
+    
+    int getSkipVertical() {
+        return skipVertical;
+    }
+    
+    /**
+     * Returns the distance in pixels between the left edges of two adjacent
+     * cells.
+     * 
+     * @return the cell pitch.
+     */
+    int getCellPitch() {
+        return cellLength + gridLineThickness;
+    }
+    
+    /**
+     * Returns the pixel x-coordinate of the left edge of the cell column.
+     * 
+     * @param x the column of the cell.
+     * @return the left edge of the cell.
+     */
+    int getCellLeft(int x) {
+        return skipHorizontal + gridLineThickness 
+                              + x * (cellLength + gridLineThickness);
+    }
+    
+    /**
+     * Returns the pixel y-coordinate of the top edge of the cell row.
+     * 
+     * @param y the row of the cell.
+     * @return the top edge of the cell.
+     */
+    int getCellTop(int y) {
+        return skipVertical + gridLineThickness
+                            + y * (cellLength + gridLineThickness);
+    }
+    
+    /**
+     * Returns the column containing the given pixel x-coordinate. May be 
+     * outside of the grid.
+     * 
+     * @param pixelX the pixel x-coordinate.
+     * @return the cell column.
+     */
+    int getColumnAt(int pixelX) {
+        return Math.floorDiv(pixelX - skipHorizontal - gridLineThickness, 
+                             getCellPitch());
+    }
+    
+    /**
+     * Returns the row containing the given pixel y-coordinate. May be outside
+     * of the grid.
+     * 
+     * @param pixelY the pixel y-coordinate.
+     * @return the cell row.
+     */
+    int getRowAt(int pixelY) {
+        return Math.floorDiv(pixelY - skipVertical - gridLineThickness, 
+                             getCellPitch());
+    }
+}
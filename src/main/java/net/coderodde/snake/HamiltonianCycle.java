@@ -0,0 +1,301 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class holds a Hamiltonian cycle through all the non-wall cells of a 
+ * grid, with the position of each cell on the cycle available in constant
+ * time.
+ * 
+ * <p>The cycle is built from a spanning tree of the 2x2 blocks of the grid 
+ * that contain no walls: every block starts as a small clockwise cycle of 
+ * its four cells, and each tree edge merges the cycles of the two blocks it
+ * connects into one. This finds a cycle whenever the walls fill whole 2x2 
+ * blocks and the remaining blocks are connected; other grids are rejected. 
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class HamiltonianCycle {
+    
+    private final int gridWidth;
+    private final int gridHeight;
+    
+    /**
+     * The cells in the order of the cycle.
+     */
+    private final int[] cells;
+    
+    /**
+     * The position of each cell on the cycle, or {@code -1} for walls.
+     */
+    private final int[] positions;
+    
+    /**
+     * Builds a Hamiltonian cycle for the given grid.
+     * 
+     * @param grid the grid to cover.
+     * @throws IllegalArgumentException if the construction finds no cycle.
+     */
+    public HamiltonianCycle(GameGrid grid) {
+        Objects.requireNonNull(grid, "The input grid is null.");
+        this.gridWidth = grid.getWidth();
+        this.gridHeight = grid.getHeight();
+        int cellCount = gridWidth * gridHeight;
+        int blockColumns = gridWidth / 2;
+        int blockRows = gridHeight / 2;
+        int[] successors = new int[cellCount];
+        Arrays.fill(successors, -1);
+        
+        // Make each wall-free block a clockwise cycle.
+        boolean[] freeBlocks = new boolean[blockColumns * blockRows];
+        int firstBlock = -1;
+        
+        for (int blockY = 0; blockY < blockRows; blockY++) {
+            for (int blockX = 0; blockX < blockColumns; blockX++) {
+                int topLeft = 2 * blockY * gridWidth + 2 * blockX;
+                int topRight = topLeft + 1;
+                int bottomLeft = topLeft + gridWidth;
+                int bottomRight = bottomLeft + 1;
+                
+                if (grid.isWall(topLeft) || grid.isWall(topRight) 
+                        || grid.isWall(bottomLeft) 
+                        || grid.isWall(bottomRight)) {
+                    continue;
+                }
+                
+                int block = blockY * blockColumns + blockX;
+                freeBlocks[block] = true;
+                successors[topLeft] = topRight;
+                successors[topRight] = bottomRight;
+                successors[bottomRight] = bottomLeft;
+                successors[bottomLeft] = topLeft;
+                
+                if (firstBlock < 0) {
+                    firstBlock = block;
+                }
+            }
+        }
+        
+        if (firstBlock < 0) {
+            throw new IllegalArgumentException(
+                    "The grid has no 2x2 block without walls.");
+        }
+        
+        // Merge the block cycles along a breadth-first spanning tree.
+        boolean[] reached = new boolean[freeBlocks.length];
+        int[] queue = new int[freeBlocks.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = firstBlock;
+        reached[firstBlock] = true;
+        
+        while (head < tail) {
+            int block = queue[head++];
+            int blockX = block % blockColumns;
+            int blockY = block / blockColumns;
+            
+            for (int i = 0; i < 4; i++) {
+                int otherX = blockX;
+                int otherY = blockY;
+                
+                switch (i) {
+                    case 0:
+                        otherX++;
+                        break;
+                        
+                    case 1:
+                        otherY++;
+                        break;
+                        
+                    case 2:
+                        otherX--;
+                        break;
+                        
+                    default:
+                        otherY--;
+                        break;
+                }
+                
+                if (otherX < 0 || otherX >= blockColumns 
+                        || otherY < 0 || otherY >= blockRows) {
+                    continue;
+                }
+                
+                int other = otherY * blockColumns + otherX;
+                
+                if (!freeBlocks[other] || reached[other]) {
+                    continue;
+                }
+                
+                reached[other] = true;
+                queue[tail++] = other;
+                
+                if (otherX != blockX) {
+                    mergeHorizontally(successors, 
+                                      Math.min(blockX, otherX), 
+                                      blockY);
+                } else {
+                    mergeVertically(successors, 
+                                    blockX, 
+                                    Math.min(blockY, otherY));
+                }
+            }
+        }
+        
+        // Number the cells along the merged cycle.
+        int start = 2 * (firstBlock / blockColumns) * gridWidth 
+                  + 2 * (firstBlock % blockColumns);
+        int length = 0;
+        this.positions = new int[cellCount];
+        Arrays.fill(positions, -1);
+        int[] order = new int[cellCount];
+        int cell = start;
+        
+        do {
+            positions[cell] = length;
+            order[length++] = cell;
+            cell = successors[cell];
+        } while (cell != start);
+        
+        for (cell = 0; cell < cellCount; cell++) {
+            if (!grid.isWall(cell) && positions[cell] < 0) {
+                throw new IllegalArgumentException(
+                        "The cell (" + cell % gridWidth + ", " + 
+                        cell / gridWidth + ") cannot be put on a " + 
+                        "Hamiltonian cycle built from 2x2 blocks.");
+            }
+        }
+        
+        this.cells = Arrays.copyOf(order, length);
+    }
+    
+    /**
+     * Returns the number of cells on the cycle.
+     * 
+     * @return the length of the cycle.
+     */
+    public int length() {
+        return cells.length;
+    }
+    
+    /**
+     * Returns the position of the cell on the cycle.
+     * 
+     * @param cell the packed cell.
+     * @return the position, or {@code -1} if the cell is a wall.
+     */
+    public int getPosition(int cell) {
+        return positions[cell];
+    }
+    
+    /**
+     * Returns the cell at the given position of the cycle.
+     * 
+     * @param position the position within {@code [0, length())}.
+     * @return the packed cell.
+     */
+    public int getCell(int position) {
+        return cells[position];
+    }
+    
+    /**
+     * Returns the number of steps along the cycle from the cell 
+     * {@code from} to the cell {@code to}.
+     * 
+     * @param from the start cell.
+     * @param to   the end cell.
+     * @return the distance along the cycle.
+     */
+    public int getDistance(int from, int to) {
+        int distance = positions[to] - positions[from];
+        return distance < 0 ? distance + cells.length : distance;
+    }
+    
+    /**
+     * Creates a snake lying on this cycle with the tail at the position 0 and
+     * the head at the position {@code length - 1}, moving along the cycle. A
+     * snake almost as long as the cycle lets stress runs start near the full
+     * board instead of growing there.
+     * 
+     * @param length the length of the snake.
+     * @return a new snake.
+     */
+    Snake createSnake(int length) {
+        if (length < 1 || length > cells.length) {
+            throw new IllegalArgumentException(
+                    "The snake length " + length + " is not within [1, " + 
+                    cells.length + "].");
+        }
+        
+        // The link k leads from the position length - k - 2 to the position
+        // length - k - 1.
+        byte[] packedLinks = new byte[(length + 2) >>> 2];
+        
+        for (int k = 0; k < length - 1; k++) {
+            int ordinal = getDirection(length - k - 2).ordinal();
+            packedLinks[k >>> 2] |= ordinal << (2 * (k & 3));
+        }
+        
+        MotionDirection headDirection = getDirection(Math.max(0, length - 2));
+        MotionDirection tailDirection = getDirection(0);
+        
+        return new Snake(cells[length - 1],
+                         packedLinks,
+                         length,
+                         headDirection,
+                         tailDirection,
+                         getDirection(length - 1),
+                         gridWidth,
+                         gridHeight);
+    }
+    
+    /**
+     * Returns the direction from the given position to the next one.
+     */
+    private MotionDirection getDirection(int position) {
+        int cell = cells[position];
+        int nextCell = cells[position + 1 == cells.length ? 0 : position + 1];
+        
+        if (nextCell == cell - gridWidth) {
+            return MotionDirection.NORTH;
+        } else if (nextCell == cell + 1) {
+            return MotionDirection.EAST;
+        } else if (nextCell == cell + gridWidth) {
+            return MotionDirection.SOUTH;
+        } else {
+            return MotionDirection.WEST;
+        }
+    }
+    
+    /**
+     * Joins the block at {@code (blockX, blockY)} with the block to its 
+     * right. The right side of the left block runs down and the left side of
+     * the right block runs up; both are replaced by two edges crossing the 
+     * border.
+     */
+    private void mergeHorizontally(int[] successors, int blockX, int blockY) {
+        int leftTopRight = 2 * blockY * gridWidth + 2 * blockX + 1;
+        int leftBottomRight = leftTopRight + gridWidth;
+        int rightTopLeft = leftTopRight + 1;
+        int rightBottomLeft = rightTopLeft + gridWidth;
+        successors[leftTopRight] = rightTopLeft;
+        successors[rightBottomLeft] = leftBottomRight;
+    }
+    
+    /**
+     * Joins the block at {@code (blockX, blockY)} with the block below it. 
+     * The bottom side of the upper block runs to the left and the top side 
+     * of the lower block runs to the right; both are replaced by two edges
+     * crossing the border.
+     */
+    private void mergeVertically(int[] successors, int blockX, int blockY) {
+        int upperBottomLeft = (2 * blockY + 1) * gridWidth + 2 * blockX;
+        int upperBottomRight = upperBottomLeft + 1;
+        int lowerTopLeft = upperBottomLeft + gridWidth;
+        int lowerTopRight = lowerTopLeft + 1;
+        successors[upperBottomRight] = lowerTopRight;
+        successors[lowerTopLeft] = upperBottomLeft;
+    }
+}
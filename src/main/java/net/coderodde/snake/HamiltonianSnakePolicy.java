@@ -0,0 +1,156 @@
+package net.coderodde.snake;
+
+/**
+ * This policy steers the snake along a precomputed {@link HamiltonianCycle},
+ * so the snake never dies and eventually fills every non-wall cell of the 
+ * board. To get there faster, the snake takes shortcuts: it may move to any
+ * neighbour cell further ahead on the cycle, as long as it neither passes 
+ * the berry nor comes too close to its tail.
+ * 
+ * <p>The body always lies on the cycle in order from the tail to the head, 
+ * with every cell after the head and before the tail free. A shortcut keeps
+ * that true, but leaves the skipped cells free behind the head until the 
+ * tail passes them, so it is taken only while plenty of cells stay ahead. 
+ * The number of those cells is the cycle distance from the head to the 
+ * tail, so each decision takes a constant number of lookups.
+ * 
+ * <p>The body must initially lie on the cycle in order, which holds for the
+ * initial snake of {@link GameEngine}. If the policy finds no safe move, it 
+ * falls back to {@link AStarSnakePolicy}. Once the board is full, the only 
+ * cell left to enter is the tail, and the game ends with a 
+ * {@link StepOutcome#SELF_COLLISION}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class HamiltonianSnakePolicy implements SnakePolicy {
+    
+    /**
+     * The number of free cells ahead of the head a shortcut must leave on top
+     * of the cells it skips and the length of the snake.
+     */
+    private static final int TAIL_MARGIN = 3;
+    
+    private SnakePolicy fallbackPolicy;
+    
+    /**
+     * The cycle and the grid it was built for.
+     */
+    private HamiltonianCycle cycle;
+    private GameGrid cycleGrid;
+    private long cycleModificationCount;
+    
+    @Override
+    public MotionDirection chooseDirection(GameEngine gameEngine) {
+        GameGrid grid = gameEngine.getGrid();
+        HamiltonianCycle cycle = getCycle(grid);
+        Snake snake = gameEngine.getSnake();
+        int gridWidth = grid.getWidth();
+        int headCell = snake.getHeadCell();
+        int headX = snake.getHeadX();
+        int headY = snake.getHeadY();
+        int berryCell = gameEngine.getBerryCell();
+        int tailDistance = cycle.getDistance(headCell, snake.getTailCell());
+        int berryDistance = berryCell < 0 ? 
+                            Integer.MAX_VALUE : 
+                            cycle.getDistance(headCell, berryCell);
+        
+        // The free cells ahead of the head on the cycle, and the free cells 
+        // skipped by the earlier shortcuts, which the tail has not passed yet.
+        int aheadCount = tailDistance - 1;
+        int holeCount = gameEngine.getFreeCellCount() - aheadCount;
+        int tailStep = berryCell == headCell ? 0 : 1;
+        int bestCell = -1;
+        int bestDistance = 0;
+        
+        for (int i = 0; i < 4; i++) {
+            int x = headX;
+            int y = headY;
+            
+            switch (i) {
+                case 0:
+                    y--;
+                    break;
+                    
+                case 1:
+                    x++;
+                    break;
+                    
+                case 2:
+                    y++;
+                    break;
+                    
+                default:
+                    x--;
+                    break;
+            }
+            
+            if (grid.isWall(x, y) || snake.occupiesPoint(x, y)) {
+                continue;
+            }
+            
+            int cell = y * gridWidth + x;
+            int distance = cycle.getDistance(headCell, cell);
+            
+            if (distance >= tailDistance) {
+                // The cell is a hole behind the head.
+                continue;
+            }
+            
+            if (distance > 1) {
+                if (distance > berryDistance) {
+                    continue;
+                }
+                
+                // The holes drain only as the tail passes them, which takes
+                // up to the length of the snake in steps. Until then, every 
+                // berry eaten takes one of the cells ahead.
+                int newAheadCount = aheadCount - distance + tailStep;
+                int newHoleCount = holeCount + distance - 1;
+                
+                if (newAheadCount - newHoleCount < TAIL_MARGIN + snake.size()) {
+                    continue;
+                }
+            }
+            
+            if (distance > bestDistance) {
+                bestCell = cell;
+                bestDistance = distance;
+            }
+        }
+        
+        if (bestCell < 0) {
+            if (fallbackPolicy == null) {
+                fallbackPolicy = new AStarSnakePolicy();
+            }
+            
+            return fallbackPolicy.chooseDirection(gameEngine);
+        }
+        
+        if (bestCell == headCell - gridWidth) {
+            return MotionDirection.NORTH;
+        } else if (bestCell == headCell + 1) {
+            return MotionDirection.EAST;
+        } else if (bestCell == headCell + gridWidth) {
+            return MotionDirection.SOUTH;
+        } else {
+            return MotionDirection.WEST;
+        }
+    }
+    
+    /**
+     * Returns the cycle for the grid, building it on the first call and 
+     * whenever the walls change.
+     */
+    private HamiltonianCycle getCycle(GameGrid grid) {
+        if (cycle == null 
+                || cycleGrid != grid 
+                || cycleModificationCount != grid.getModificationCount()) {
+            cycle = new HamiltonianCycle(grid);
+            cycleGrid = grid;
+            cycleModificationCount = grid.getModificationCount();
+        }
+        
+        return cycle;
+    }
+}
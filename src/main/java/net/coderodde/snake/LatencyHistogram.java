@@ -0,0 +1,251 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class counts latencies in buckets, with a last bucket for everything
+ * beyond the range. The buckets are either of equal width, or logarithmic as
+ * in HdrHistogram: each power of two is split into the same number of
+ * sub-buckets, so that the relative error is bounded from nanoseconds to
+ * minutes. Recording is constant time and allocates nothing. A histogram has
+ * a single writer thread; any thread may read it, seeing each count as of
+ * some recent moment.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class LatencyHistogram {
+    
+    /**
+     * The header of the CSV export.
+     */
+    public static final String CSV_HEADER = "from_us,to_us,count";
+    
+    /**
+     * The default number of bits of the sub-bucket index of a logarithmic
+     * histogram, bounding the relative error by 1/32.
+     */
+    static final int DEFAULT_SUB_BUCKET_BITS = 5;
+    
+    /**
+     * The latencies from {@code 2^40} nanoseconds, about 18 minutes, on go to
+     * the overflow bucket of a logarithmic histogram.
+     */
+    private static final int MAXIMUM_MAGNITUDE = 40;
+    
+    /**
+     * The width of a bucket of a linear histogram, or {@code 0} for a
+     * logarithmic one.
+     */
+    private final long bucketWidthNanos;
+    
+    /**
+     * The number of bits of the sub-bucket index of a logarithmic histogram.
+     */
+    private final int subBucketBits;
+    
+    /**
+     * The counts by bucket; the last bucket counts the overflows.
+     */
+    private final AtomicLongArray counts;
+    
+    /**
+     * The maximum latency recorded.
+     */
+    private volatile long maximumNanos;
+    
+    /**
+     * Constructs an empty histogram.
+     * 
+     * @param bucketWidthNanos the width of a bucket in nanoseconds.
+     * @param bucketCount      the number of buckets before the overflow
+     *                         bucket.
+     */
+    public LatencyHistogram(long bucketWidthNanos, int bucketCount) {
+        if (bucketWidthNanos < 1L || bucketCount < 1) {
+            throw new IllegalArgumentException(
+                    "The bucket width (" + bucketWidthNanos + ") and the " +
+                    "bucket count (" + bucketCount + ") must be positive.");
+        }
+        
+        this.bucketWidthNanos = bucketWidthNanos;
+        this.subBucketBits = 0;
+        this.counts = new AtomicLongArray(bucketCount + 1);
+    }
+    
+    private LatencyHistogram(int subBucketBits) {
+        this.bucketWidthNanos = 0L;
+        this.subBucketBits = subBucketBits;
+        this.counts = new AtomicLongArray(
+                ((MAXIMUM_MAGNITUDE - subBucketBits + 1) << subBucketBits) +
+                1);
+    }
+    
+    /**
+     * Constructs an empty logarithmic histogram with a relative error of at
+     * most {@code 1 / 2^subBucketBits}.
+     * 
+     * @param subBucketBits the number of bits of the sub-bucket index.
+     * @return the histogram.
+     */
+    public static LatencyHistogram createLogarithmic(int subBucketBits) {
+        if (subBucketBits < 1 || subBucketBits > 16) {
+            throw new IllegalArgumentException(
+                    "The number of sub-bucket bits (" + subBucketBits + 
+                    ") is not within [1, 16].");
+        }
+        
+        return new LatencyHistogram(subBucketBits);
+    }
+    
+    public static LatencyHistogram createLogarithmic() {
+        return createLogarithmic(DEFAULT_SUB_BUCKET_BITS);
+    }
+    
+    public boolean isLogarithmic() {
+        return bucketWidthNanos == 0L;
+    }
+    
+    /**
+     * Records a latency. Negative latencies count as zero. Called by the
+     * writer thread only.
+     * 
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0L, nanos);
+        int bucket = getBucket(nanos);
+        counts.lazySet(bucket, counts.get(bucket) + 1L);
+        
+        if (nanos > maximumNanos) {
+            maximumNanos = nanos;
+        }
+    }
+    
+    public long getTotalCount() {
+        long totalCount = 0L;
+        
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            totalCount += counts.get(bucket);
+        }
+        
+        return totalCount;
+    }
+    
+    public long getMaximumNanos() {
+        return maximumNanos;
+    }
+    
+    /**
+     * Returns an upper bound of the given percentile: the end of the bucket
+     * holding it, or the maximum if it lies in the overflow bucket.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @return the latency percentile in nanoseconds, or 0 if nothing is
+     *         recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long rank = Percentiles.getNearestRank(percentile, getTotalCount());
+        
+        if (rank == 0L) {
+            return 0L;
+        }
+        
+        long count = 0L;
+        
+        for (int bucket = 0; bucket < counts.length() - 1; bucket++) {
+            count += counts.get(bucket);
+            
+            if (count >= rank) {
+                return Math.min(getBucketEnd(bucket), maximumNanos);
+            }
+        }
+        
+        return maximumNanos;
+    }
+    
+    /**
+     * Writes the non-empty buckets as CSV, in microseconds, headed by
+     * {@link #CSV_HEADER}. The overflow bucket ends at the maximum.
+     * 
+     * @param appendable the target.
+     * @throws IOException if writing fails.
+     */
+    public void writeCsv(Appendable appendable) throws IOException {
+        appendable.append(CSV_HEADER).append('\n');
+        // The logarithmic buckets are down to a nanosecond wide.
+        String format = isLogarithmic() ? "%.3f,%.3f,%d\n" : "%.1f,%.1f,%d\n";
+        
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            long count = counts.get(bucket);
+            
+            if (count == 0L) {
+                continue;
+            }
+            
+            long toNanos = bucket == counts.length() - 1 ?
+                           maximumNanos :
+                           getBucketEnd(bucket);
+            appendable.append(String.format(Locale.ROOT,
+                                            format,
+                                            getBucketStart(bucket) / 1e3,
+                                            toNanos / 1e3,
+                                            count));
+        }
+    }
+    
+    /**
+     * Returns the bucket of a non-negative latency. In a logarithmic
+     * histogram, the latencies below {@code 2^(subBucketBits + 1)} have
+     * buckets of their own, and each following power of two is split into
+     * {@code 2^subBucketBits} buckets.
+     */
+    private int getBucket(long nanos) {
+        int overflowBucket = counts.length() - 1;
+        
+        if (bucketWidthNanos > 0L) {
+            return (int) Math.min(nanos / bucketWidthNanos, overflowBucket);
+        }
+        
+        int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(nanos) -
+                                    subBucketBits);
+        
+        if (magnitude > MAXIMUM_MAGNITUDE - subBucketBits - 1) {
+            return overflowBucket;
+        }
+        
+        return (magnitude << subBucketBits) + (int) (nanos >>> magnitude);
+    }
+    
+    private long getBucketStart(int bucket) {
+        if (bucketWidthNanos > 0L) {
+            return bucket * bucketWidthNanos;
+        }
+        
+        int magnitude = Math.max(0, (bucket >>> subBucketBits) - 1);
+        return (long) (bucket - (magnitude << subBucketBits)) << magnitude;
+    }
+    
+    private long getBucketEnd(int bucket) {
+        if (bucketWidthNanos > 0L) {
+            return (bucket + 1) * bucketWidthNanos;
+        }
+        
+        int magnitude = Math.max(0, (bucket >>> subBucketBits) - 1);
+        return getBucketStart(bucket) + (1L << magnitude);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+                "count: %d, p50: %.1f us, p99: %.1f us, p99.9: %.1f us, " +
+                "maximum: %.1f us",
+                getTotalCount(),
+                getPercentileNanos(50.0) / 1e3,
+                getPercentileNanos(99.0) / 1e3,
+                getPercentileNanos(99.9) / 1e3,
+                maximumNanos / 1e3);
+    }
+}
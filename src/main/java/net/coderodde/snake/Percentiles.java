@@ -0,0 +1,39 @@
+package net.coderodde.snake;
+
+/**
+ * This class computes the nearest ranks of percentiles, shared by the batch
+ * results, the latency histograms and the frame time statistics so that they
+ * all agree on what a percentile means.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class Percentiles {
+    
+    private Percentiles() {}
+    
+    /**
+     * Returns the nearest rank of the given percentile: the smallest rank
+     * such that at least the given percentage of the values is not greater
+     * than the value of that rank.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @param count      the number of the values.
+     * @return the 1-based rank within {@code [1, count]}, or 0 if there are
+     *         no values.
+     */
+    static long getNearestRank(double percentile, long count) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException(
+                    "The percentile " + percentile + " is not within " +
+                    "[0, 100].");
+        }
+        
+        if (count == 0L) {
+            return 0L;
+        }
+        
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        return Math.max(1L, Math.min(count, rank));
+    }
+}
@@ -0,0 +1,211 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * This class ranks autopilot policies by running each of them on the same 
+ * seeded games with a {@link BatchSimulator}. Since every policy plays the 
+ * same seeds, the scores are directly comparable. The results can be written
+ * as CSV, one row per policy.
+ * 
+ * <p>The class is also shipped as a command-line tool: 
+ * {@link #main(String[])} ranks the built-in policies and writes the CSV to
+ * a file or to the standard output. It is the only entry point of the 
+ * library besides the game itself.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class PolicyEvaluator {
+    
+    /**
+     * The header of the CSV output.
+     */
+    static final String CSV_HEADER = 
+            "policy,games,wall_collisions,self_collisions," + 
+            "step_limit_reached,boards_filled,mean_length,p50_length," + 
+            "p90_length,p99_length,max_length,mean_steps_to_death," + 
+            "p50_steps_to_death,p90_steps_to_death,decisions_per_second";
+    
+    private final BatchSimulator batchSimulator;
+    
+    /**
+     * The policy factories by name in the order of registration.
+     */
+    private final Map<String, Supplier<? extends SnakePolicy>> 
+            policyFactories = new LinkedHashMap<>();
+    
+    /**
+     * Constructs an evaluator running the games on the given simulator.
+     * 
+     * @param batchSimulator the simulator to run the games on.
+     */
+    public PolicyEvaluator(BatchSimulator batchSimulator) {
+        this.batchSimulator = Objects.requireNonNull(
+                batchSimulator, 
+                "The input batch simulator is null.");
+    }
+    
+    /**
+     * Registers a policy for evaluation. The factory is called once per game, 
+     * so the policy instances need not be thread-safe.
+     * 
+     * @param name          the name of the policy in the results.
+     * @param policyFactory the factory creating a policy for each game.
+     * @return this evaluator.
+     */
+    public PolicyEvaluator addPolicy(
+            String name, 
+            Supplier<? extends SnakePolicy> policyFactory) {
+        policyFactories.put(
+                Objects.requireNonNull(name, "The input name is null."),
+                Objects.requireNonNull(policyFactory, 
+                                       "The input policy factory is null."));
+        return this;
+    }
+    
+    /**
+     * Runs {@code gameCount} games with each registered policy.
+     * 
+     * @param gameCount    the number of games per policy.
+     * @param gridWidth    the width of the grids in cells.
+     * @param gridHeight   the height of the grids in cells.
+     * @param seed         the seed of the first game.
+     * @param maximumSteps the maximum number of steps per game.
+     * @return the results by policy name, from the highest mean length to 
+     *         the lowest.
+     */
+    public Map<String, BatchResult> evaluate(int gameCount,
+                                             int gridWidth,
+                                             int gridHeight,
+                                             long seed,
+                                             long maximumSteps) {
+        List<Map.Entry<String, BatchResult>> entries = new ArrayList<>();
+        
+        for (Map.Entry<String, Supplier<? extends SnakePolicy>> entry 
+                : policyFactories.entrySet()) {
+            BatchResult batchResult = batchSimulator.run(gameCount, 
+                                                         gridWidth,
+                                                         gridHeight,
+                                                         seed,
+                                                         maximumSteps,
+                                                         entry.getValue());
+            entries.add(new SimpleImmutableEntry<>(
+                    entry.getKey(), 
+                    batchResult));
+        }
+        
+        entries.sort((entry1, entry2) -> 
+                Double.compare(entry2.getValue().getMeanLength(),
+                               entry1.getValue().getMeanLength()));
+        
+        Map<String, BatchResult> results = new LinkedHashMap<>();
+        
+        for (Map.Entry<String, BatchResult> entry : entries) {
+            results.put(entry.getKey(), entry.getValue());
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Writes the results as CSV with a header row. Every row ends with a
+     * line feed, and a policy name holding a comma, a quote or a line break
+     * is quoted.
+     * 
+     * @param results the results by policy name.
+     * @param out     the target to write to.
+     * @throws IOException if writing fails.
+     */
+    public static void writeCsv(Map<String, BatchResult> results, 
+                                Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+        
+        for (Map.Entry<String, BatchResult> entry : results.entrySet()) {
+            BatchResult batchResult = entry.getValue();
+            out.append(String.format(
+                    Locale.ROOT,
+                    "%s,%d,%d,%d,%d,%d,%.3f,%d,%d,%d,%d,%.1f,%d,%d,%.0f",
+                    quoteCsv(entry.getKey()),
+                    batchResult.getGameCount(),
+                    batchResult.getWallCollisions(),
+                    batchResult.getSelfCollisions(),
+                    batchResult.getStepLimitReached(),
+                    batchResult.getBoardsFilled(),
+                    batchResult.getMeanLength(),
+                    batchResult.getLengthPercentile(50.0),
+                    batchResult.getLengthPercentile(90.0),
+                    batchResult.getLengthPercentile(99.0),
+                    batchResult.getMaximumLength(),
+                    batchResult.getMeanStepsToDeath(),
+                    batchResult.getStepsToDeathPercentile(50.0),
+                    batchResult.getStepsToDeathPercentile(90.0),
+                    batchResult.getDecisionsPerSecond()))
+               .append('\n');
+        }
+    }
+    
+    /**
+     * Quotes the given CSV field if it holds a comma, a quote or a line 
+     * break, doubling the quotes in it.
+     */
+    private static String quoteCsv(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + field.replace("\"", "\"\"") + '"';
+            }
+        }
+        
+        return field;
+    }
+    
+    /**
+     * Ranks the built-in policies and prints the CSV.
+     * 
+     * @param args the optional number of games, the side length of the board,
+     *             the step limit and the CSV file to write instead of the 
+     *             standard output.
+     * @throws IOException if writing the CSV fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int gridSize  = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long maximumSteps = 
+                args.length > 2 ? Long.parseLong(args[2]) : 100_000L;
+        Map<String, BatchResult> results = 
+                new PolicyEvaluator(new BatchSimulator())
+                        .addPolicy("greedy", GreedySnakePolicy::new)
+                        .addPolicy("a-star", AStarSnakePolicy::new)
+                        .addPolicy("hamiltonian", HamiltonianSnakePolicy::new)
+                        .evaluate(gameCount, 
+                                  gridSize, 
+                                  gridSize, 
+                                  0L, 
+                                  maximumSteps);
+        
+        if (args.length > 3) {
+            try (Writer writer = 
+                    Files.newBufferedWriter(Paths.get(args[3]),
+                                            StandardCharsets.UTF_8)) {
+                writeCsv(results, writer);
+            }
+        } else {
+            writeCsv(results, System.out);
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.coderodde.snake;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class holds a recorded game: the seed of the berry generator, the 
+ * dimensions of the grid and the direction applied on each tick. Since the 
+ * engine is deterministic, this is enough for reproducing the game exactly.
+ * 
+ * <p>The directions are stored relative to the previous one as a prefix 
+ * code: {@code 0} for going straight, {@code 10} for turning right, 
+ * {@code 110} for turning left and {@code 111} for reversing. Most ticks go
+ * straight, so a typical game takes little more than a bit per tick.
+ * 
+ * <p>The binary format is the magic number, the format version, the seed, 
+ * the grid width and height, the tick count, the length of the bit stream in
+ * bytes and the bit stream itself, most significant bit first.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class Replay {
+    
+    /**
+     * The magic number starting each replay file ("SNKR").
+     */
+    private static final int MAGIC = 0x534E4B52;
+    
+    private static final byte FORMAT_VERSION = 1;
+    
+    private final long seed;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final long tickCount;
+    
+    /**
+     * The encoded directions.
+     */
+    private final byte[] inputBits;
+    
+    Replay(long seed, 
+           int gridWidth, 
+           int gridHeight, 
+           long tickCount, 
+           byte[] inputBits) {
+        this.seed = seed;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.tickCount = tickCount;
+        this.inputBits = inputBits;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getGridWidth() {
+        return gridWidth;
+    }
+    
+    public int getGridHeight() {
+        return gridHeight;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Returns the size of the encoded directions in bytes.
+     * 
+     * @return the size of the input stream.
+     */
+    public int getInputSize() {
+        return inputBits.length;
+    }
+    
+    byte[] getInputBits() {
+        return inputBits;
+    }
+    
+    /**
+     * Creates the engine in the initial state of the recorded game.
+     * 
+     * @return a new game engine.
+     */
+    public GameEngine newGameEngine() {
+        return new GameEngine(gridWidth, gridHeight, new Random(seed));
+    }
+    
+    /**
+     * Writes this replay to the given stream.
+     * 
+     * @param outputStream the target stream.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeByte(FORMAT_VERSION);
+        dataOutputStream.writeLong(seed);
+        dataOutputStream.writeInt(gridWidth);
+        dataOutputStream.writeInt(gridHeight);
+        dataOutputStream.writeLong(tickCount);
+        dataOutputStream.writeInt(inputBits.length);
+        dataOutputStream.write(inputBits);
+        dataOutputStream.flush();
+    }
+    
+    /**
+     * Reads a replay from the given stream.
+     * 
+     * @param inputStream the source stream.
+     * @return the replay read.
+     * @throws IOException if reading fails or the data is not a replay.
+     */
+    public static Replay readFrom(InputStream inputStream) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        
+        if (dataInputStream.readInt() != MAGIC) {
+            throw new IOException("Not a replay.");
+        }
+        
+        byte formatVersion = dataInputStream.readByte();
+        
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException(
+                    "Unsupported replay format version " + formatVersion + 
+                    ".");
+        }
+        
+        long seed = dataInputStream.readLong();
+        int gridWidth = dataInputStream.readInt();
+        int gridHeight = dataInputStream.readInt();
+        long tickCount = dataInputStream.readLong();
+        int inputSize = dataInputStream.readInt();
+        
+        if (gridWidth <= 0 || gridHeight <= 0 || tickCount < 0L 
+                || inputSize < 0 || inputSize < (tickCount + 7) >>> 3) {
+            throw new IOException("Corrupted replay header.");
+        }
+        
+        byte[] inputBits = new byte[inputSize];
+        dataInputStream.readFully(inputBits);
+        return new Replay(seed, gridWidth, gridHeight, tickCount, inputBits);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        
+        if (o == null || !getClass().equals(o.getClass())) {
+            return false;
+        }
+        
+        Replay other = (Replay) o;
+        return seed == other.seed 
+                && gridWidth == other.gridWidth
+                && gridHeight == other.gridHeight
+                && tickCount == other.tickCount
+                && Arrays.equals(inputBits, other.inputBits);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(seed ^ tickCount) 
+                + Arrays.hashCode(inputBits);
+    }
+}
@@ -0,0 +1,134 @@
+package net.coderodde.snake;
+
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class re-runs a {@link Replay} through a fresh {@link GameEngine}, 
+ * either at full speed for validating the result of a game, or in real time
+ * for watching it. Listeners, such as a renderer, may be attached to the 
+ * engine before playing.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ReplayPlayer {
+    
+    private static final MotionDirection[] MOTION_DIRECTIONS = 
+            MotionDirection.values();
+    
+    private final Replay replay;
+    private final GameEngine gameEngine;
+    private final byte[] inputBits;
+    private long bitIndex;
+    private long tickIndex;
+    private StepOutcome lastOutcome;
+    
+    /**
+     * Constructs a player positioned before the first tick of the replay.
+     * 
+     * @param replay the replay to play.
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = Objects.requireNonNull(replay, 
+                                             "The input replay is null.");
+        this.gameEngine = replay.newGameEngine();
+        this.inputBits = replay.getInputBits();
+    }
+    
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+    
+    public boolean hasNextTick() {
+        return tickIndex < replay.getTickCount();
+    }
+    
+    /**
+     * Plays the next tick of the replay.
+     * 
+     * @return the outcome of the tick.
+     * @throws IllegalStateException if the replay has no more ticks.
+     */
+    public StepOutcome step() {
+        if (!hasNextTick()) {
+            throw new IllegalStateException("The replay has ended.");
+        }
+        
+        MotionDirection direction = gameEngine.getSnake().getDirection();
+        int turn;
+        
+        if (readBit() == 0) {
+            turn = 0;
+        } else if (readBit() == 0) {
+            turn = 1;
+        } else if (readBit() == 0) {
+            turn = 3;
+        } else {
+            turn = 2;
+        }
+        
+        tickIndex++;
+        lastOutcome = gameEngine.step(
+                MOTION_DIRECTIONS[(direction.ordinal() + turn) & 3]);
+        return lastOutcome;
+    }
+    
+    /**
+     * Plays the rest of the replay as fast as possible.
+     * 
+     * @return the outcome of the last tick, or {@code null} if the replay has
+     *         no ticks.
+     */
+    public StepOutcome playToEnd() {
+        while (hasNextTick()) {
+            step();
+        }
+        
+        return lastOutcome;
+    }
+    
+    /**
+     * Plays the rest of the replay on the calling thread, one tick per 
+     * {@code stepDurationNanos}. The ticks are scheduled against absolute 
+     * deadlines.
+     * 
+     * @param stepDurationNanos the duration of a tick in nanoseconds.
+     * @return the outcome of the last tick, or {@code null} if the replay has
+     *         no ticks.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    public StepOutcome playInRealTime(long stepDurationNanos) 
+            throws InterruptedException {
+        long deadline = System.nanoTime();
+        
+        while (hasNextTick()) {
+            deadline += stepDurationNanos;
+            long remaining;
+            
+            while ((remaining = deadline - System.nanoTime()) > 0L) {
+                LockSupport.parkNanos(this, remaining);
+                
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            
+            step();
+        }
+        
+        return lastOutcome;
+    }
+    
+    private int readBit() {
+        if ((bitIndex >>> 3) >= inputBits.length) {
+            throw new IllegalStateException(
+                    "The input stream of the replay ended prematurely.");
+        }
+        
+        int bit = (inputBits[(int)(bitIndex >>> 3)] >>> (7 - (bitIndex & 7)))
+                  & 1;
+        bitIndex++;
+        return bit;
+    }
+}
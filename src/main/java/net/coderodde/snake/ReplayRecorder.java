@@ -0,0 +1,107 @@
+package net.coderodde.snake;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class records the direction applied on each step of a game into a 
+ * {@link Replay}. The recorder creates the engine itself from the seed, so 
+ * that the recorded game is guaranteed to be reproducible.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ReplayRecorder implements GameEngineListener {
+    
+    private final long seed;
+    private final GameEngine gameEngine;
+    
+    /**
+     * The direction applied on the previous tick.
+     */
+    private MotionDirection previousDirection;
+    
+    private byte[] inputBits = new byte[64];
+    private long bitCount;
+    private long tickCount;
+    
+    /**
+     * Constructs a recorder along with the engine of the recorded game.
+     * 
+     * @param gridWidth  the width of the grid.
+     * @param gridHeight the height of the grid.
+     * @param seed       the seed of the berry generator.
+     */
+    public ReplayRecorder(int gridWidth, int gridHeight, long seed) {
+        this.seed = seed;
+        this.gameEngine = new GameEngine(gridWidth, 
+                                         gridHeight, 
+                                         new Random(seed));
+        this.previousDirection = gameEngine.getSnake().getDirection();
+        gameEngine.addListener(this);
+    }
+    
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    @Override
+    public void onStep(GameEngine gameEngine, StepOutcome outcome) {
+        MotionDirection direction = gameEngine.getSnake().getDirection();
+        
+        switch ((direction.ordinal() - previousDirection.ordinal()) & 3) {
+            case 0:
+                writeBits(0b0, 1);
+                break;
+                
+            case 1:
+                writeBits(0b10, 2);
+                break;
+                
+            case 3:
+                writeBits(0b110, 3);
+                break;
+                
+            default:
+                writeBits(0b111, 3);
+                break;
+        }
+        
+        previousDirection = direction;
+        tickCount++;
+    }
+    
+    /**
+     * Returns the replay of the ticks recorded so far.
+     * 
+     * @return the replay.
+     */
+    public Replay toReplay() {
+        return new Replay(seed, 
+                          gameEngine.getGrid().getWidth(),
+                          gameEngine.getGrid().getHeight(),
+                          tickCount, 
+                          Arrays.copyOf(inputBits, 
+                                        (int)((bitCount + 7) >>> 3)));
+    }
+    
+    private void writeBits(int bits, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            int byteIndex = (int)(bitCount >>> 3);
+            
+            if (byteIndex == inputBits.length) {
+                inputBits = Arrays.copyOf(inputBits, 2 * inputBits.length);
+            }
+            
+            if (((bits >>> i) & 1) != 0) {
+                inputBits[byteIndex] |= 0x80 >>> (bitCount & 7);
+            }
+            
+            bitCount++;
+        }
+    }
+}
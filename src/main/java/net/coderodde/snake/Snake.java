@@ -1,36 +1,268 @@
 package net.coderodde.snake;
 
 import java.awt.Point;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
- *
+ * 
  * @author rodde
  */
 public final class Snake implements Iterable<SnakeCompartment> {
     
-    private final Deque<SnakeCompartment> compartmentQueue = new ArrayDeque<>();
+    /**
+     * The minimum capacity of the link ring buffer in links.
+     */
+    private static final int MINIMUM_CAPACITY = 64;
+    
+    /**
+     * The number of 2-bit links packed into a {@code long}.
+     */
+    private static final int LINKS_PER_WORD = 32;
+    
+    /**
+     * Caches the motion directions so that the ordinals stored in the body can
+     * be mapped back without allocating.
+     */
+    private static final MotionDirection[] MOTION_DIRECTIONS =
+            MotionDirection.values();
+    
+    /**
+     * The ring buffer of links packed 2 bits each. The link {@code k}, 
+     * counting from the head, is the ordinal of the direction leading from 
+     * the cell of the compartment {@code k + 1} to the cell of the 
+     * compartment {@code k}, which is also the direction of the compartment
+     * {@code k}. Only the head and the tail cells are stored; the rest of the
+     * body is rebuilt by walking the links from the head.
+     */
+    private long[] links;
+    
+    /**
+     * The ring buffer position of the link nearest to the head.
+     */
+    private int firstLink;
+    
+    /**
+     * The packed cells {@code y * gridWidth + x} of the head and the tail.
+     */
+    private int headCell;
+    private int tailCell;
+    
+    /**
+     * The directions of the head and the tail compartments. The direction of
+     * every other compartment is its link.
+     */
+    private MotionDirection headDirection;
+    private MotionDirection tailDirection;
+    
+    /**
+     * The number of compartments in the snake.
+     */
+    private int size;
+    
     private MotionDirection motionDirection;
     
+    /**
+     * The width of the grid the snake lives in.
+     */
+    private final int gridWidth;
+    
+    /**
+     * The height of the grid the snake lives in.
+     */
+    private final int gridHeight;
+    
+    /**
+     * The occupancy index. The bit {@code y * gridWidth + x} is set if and
+     * only if the cell {@code (x, y)} is occupied by a snake compartment. 
+     * Snakes whose collisions are resolved elsewhere, such as in an 
+     * {@link Arena}, build it only on the first query.
+     */
+    private long[] occupancy;
+    
     public Snake(List<SnakeCompartment> snakeCompartmentList,
-                 MotionDirection motionDirection) {
+                 MotionDirection motionDirection,
+                 int gridWidth,
+                 int gridHeight) {
+        this(snakeCompartmentList, motionDirection, gridWidth, gridHeight, 
+             true);
+    }
+    
+    /**
+     * Constructs a snake, optionally without the occupancy index. Without it
+     * the caller guarantees that the compartments do not intersect, and the
+     * index is built only if {@link #occupiesPoint(int, int)} is called.
+     * 
+     * @param snakeCompartmentList the compartments from the head to the tail.
+     * @param motionDirection      the motion direction of the snake.
+     * @param gridWidth            the width of the grid.
+     * @param gridHeight           the height of the grid.
+     * @param indexed              whether to build the occupancy index.
+     */
+    Snake(List<SnakeCompartment> snakeCompartmentList,
+          MotionDirection motionDirection,
+          int gridWidth,
+          int gridHeight,
+          boolean indexed) {
+        this.gridWidth  = checkGridDimension(gridWidth, "width");
+        this.gridHeight = checkGridDimension(gridHeight, "height");
+        this.occupancy = indexed ? newOccupancy() : null;
         checkSnakeCompartment(snakeCompartmentList);
-        compartmentQueue.addAll(snakeCompartmentList);
+        this.links = new long[getCapacity(snakeCompartmentList.size()) 
+                              / LINKS_PER_WORD];
+        
+        for (SnakeCompartment snakeCompartment : snakeCompartmentList) {
+            if (indexed && 
+                    occupiesPoint(snakeCompartment.x, snakeCompartment.y)) {
+                throw new IllegalArgumentException(
+                        "The snake intersects itself.");
+            }
+            
+            Objects.requireNonNull(snakeCompartment.motionDirection,
+                                   "The compartment direction is null.");
+            
+            int cell = snakeCompartment.y * gridWidth + snakeCompartment.x;
+            
+            if (size == 0) {
+                headCell = cell;
+                headDirection = snakeCompartment.motionDirection;
+            } else {
+                setLink(size - 1, getDirectionOrdinal(cell, tailCell));
+            }
+            
+            tailCell = cell;
+            tailDirection = snakeCompartment.motionDirection;
+            size++;
+            setOccupied(cell);
+        }
+        
+        setDirection(motionDirection);
+    }
+    
+    /**
+     * Constructs a snake directly from its head cell and packed links without
+     * materializing any {@link SnakeCompartment}s. Used for restoring saved 
+     * games.
+     * 
+     * @param headCell        the packed head cell.
+     * @param packedLinks     the links from the head, four per byte starting
+     *                        from the least significant bits.
+     * @param length          the number of compartments.
+     * @param headDirection   the direction of the head compartment.
+     * @param tailDirection   the direction of the tail compartment.
+     * @param motionDirection the motion direction of the snake.
+     * @param gridWidth       the width of the grid.
+     * @param gridHeight      the height of the grid.
+     */
+    Snake(int headCell,
+          byte[] packedLinks,
+          int length,
+          MotionDirection headDirection,
+          MotionDirection tailDirection,
+          MotionDirection motionDirection,
+          int gridWidth, 
+          int gridHeight) {
+        this.gridWidth  = checkGridDimension(gridWidth, "width");
+        this.gridHeight = checkGridDimension(gridHeight, "height");
+        this.occupancy = newOccupancy();
+        
+        if (length < 1) {
+            throw new IllegalArgumentException(
+                    "The snake length (" + length + ") must be positive.");
+        }
+        
+        this.links = new long[getCapacity(length) / LINKS_PER_WORD];
+        
+        // The byte layout matches the word layout, little end first.
+        for (int i = 0; i < (length + 2) >>> 2; i++) {
+            links[i >>> 3] |= (packedLinks[i] & 0xFFL) << (8 * (i & 7));
+        }
+        
+        int cellCount = gridWidth * gridHeight;
+        
+        if (headCell < 0 || headCell >= cellCount) {
+            throw new IllegalArgumentException(
+                    "The head cell " + headCell + " is outside of the grid.");
+        }
+        
+        // Walk the body, tracking the coordinates instead of dividing.
+        int cell = headCell;
+        int x = headCell % gridWidth;
+        int y = headCell / gridWidth;
+        
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                switch (getLink(i - 1)) {
+                    case 0:
+                        y++;
+                        cell += gridWidth;
+                        break;
+                    
+                    case 1:
+                        x--;
+                        cell--;
+                        break;
+                    
+                    case 2:
+                        y--;
+                        cell -= gridWidth;
+                        break;
+                    
+                    default:
+                        x++;
+                        cell++;
+                        break;
+                }
+                
+                if (!isInsideGrid(x, y)) {
+                    throw new IllegalArgumentException(
+                            "The snake compartment (" + x + ", " + y + 
+                            ") is outside of the grid.");
+                }
+            }
+            
+            if ((occupancy[cell >>> 6] & (1L << cell)) != 0L) {
+                throw new IllegalArgumentException(
+                        "The snake intersects itself.");
+            }
+            
+            setOccupied(cell);
+        }
+        
+        this.headCell = headCell;
+        this.tailCell = cell;
+        this.headDirection = Objects.requireNonNull(headDirection);
+        this.tailDirection = Objects.requireNonNull(tailDirection);
+        this.size = length;
         setDirection(motionDirection);
     }
     
     public void setDirection(MotionDirection direction) {
         this.motionDirection = Objects.requireNonNull(
-                direction, 
+                direction,
                 "The input direction is null.");
     }
     
-    public void makeStep(GridCell[][] grid) {
+    /**
+     * Returns the direction the snake moves to on the next step.
+     * 
+     * @return the current motion direction.
+     */
+    public MotionDirection getDirection() {
+        return motionDirection;
+    }
+    
+    /**
+     * Moves the snake one cell in its motion direction.
+     * 
+     * @param grid the grid the snake lives in.
+     * @throws WallCollisionException if the snake would hit a wall.
+     * @throws EatHimselfException    if the snake would hit itself.
+     */
+    public void makeStep(GameGrid grid) {
         if (hitsWall(grid)) {
             throw new WallCollisionException();
         }
@@ -39,86 +271,218 @@ public final class Snake implements Iterable<SnakeCompartment> {
             throw new EatHimselfException();
         }
         
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        SnakeCompartment tailSnakeCompartment = compartmentQueue.removeLast();
-        
-        tailSnakeCompartment.x = headSnakeCompartment.x;
-        tailSnakeCompartment.y = headSnakeCompartment.y;
+        makeUncheckedStep();
+    }
+    
+    /**
+     * Moves the snake one cell in its motion direction without checking for
+     * collisions. For callers that have already ruled them out, such as the
+     * engine, which checks {@link #hitsWall(GameGrid)} and 
+     * {@link #eatsHimself()} to decide the outcome of the step.
+     */
+    void makeUncheckedStep() {
+        clearOccupied(tailCell);
+        int newHeadCell = headCell + getCellOffset(motionDirection.ordinal());
         
-        switch (motionDirection) {
-            case NORTH:
-                tailSnakeCompartment.y--;
-                break;
-                
-            case EAST:
-                tailSnakeCompartment.x++;
-                break;
-                
-            case SOUTH:
-                tailSnakeCompartment.y++;
-                break;
-                
-            case WEST:
-                tailSnakeCompartment.x--;
-                break;
-                
-            default:
-                throw new EnumConstantNotPresentException(
-                        MotionDirection.class,
-                        motionDirection.name());
+        if (size == 1) {
+            tailCell = newHeadCell;
+            tailDirection = motionDirection;
+        } else {
+            // The tail moves along its link, and the new tail takes the 
+            // direction of that link.
+            int tailLink = getLink(size - 2);
+            tailCell += getCellOffset(tailLink);
+            tailDirection = MOTION_DIRECTIONS[tailLink];
+            firstLink = (firstLink - 1) & (getLinkCapacity() - 1);
+            setLink(0, motionDirection.ordinal());
         }
         
-        tailSnakeCompartment.motionDirection = this.motionDirection;
-        compartmentQueue.addFirst(tailSnakeCompartment);
+        headCell = newHeadCell;
+        headDirection = motionDirection;
+        setOccupied(newHeadCell);
     }
     
     public void grow() {
-        SnakeCompartment lastSnakeCompartment = compartmentQueue.getLast();
-        SnakeCompartment newSnakeCompartment = 
-                new SnakeCompartment(lastSnakeCompartment);
+        int cell = getCellBehindTail();
+        
+        if (cell < 0 || occupiesPoint(cell % gridWidth, cell / gridWidth)) {
+            throw new IllegalStateException(
+                    "The cell behind the tail is not free.");
+        }
+        
+        growUnchecked();
+    }
+    
+    /**
+     * Appends a compartment behind the tail without checking that its cell is
+     * free. For callers that track the free cells themselves, such as the 
+     * {@link Arena}, which grows a snake into the cell its tail just left.
+     */
+    void growUnchecked() {
+        if (size == getLinkCapacity()) {
+            expandLinks();
+        }
+        
+        // The new tail keeps the direction of the old one, which is also the
+        // link between them.
+        setLink(size - 1, tailDirection.ordinal());
+        tailCell = getCellBehindTail();
+        size++;
+        setOccupied(tailCell);
+    }
+    
+    /**
+     * Returns the cell behind the tail, opposite to the direction of the 
+     * tail, or -1 if that cell is outside of the grid.
+     */
+    private int getCellBehindTail() {
+        int x = tailCell % gridWidth;
+        int y = tailCell / gridWidth;
         
-        switch (lastSnakeCompartment.motionDirection) {
+        switch (tailDirection) {
             case NORTH:
-                newSnakeCompartment.y++;
+                y++;
                 break;
-                
+            
             case EAST:
-                newSnakeCompartment.x--;
+                x--;
                 break;
-                
+            
             case SOUTH:
-                newSnakeCompartment.y--;
+                y--;
                 break;
-                
+            
             case WEST:
-                newSnakeCompartment.x++;
+                x++;
                 break;
         }
         
-        newSnakeCompartment.motionDirection =
-                lastSnakeCompartment.motionDirection;
-        compartmentQueue.addLast(newSnakeCompartment);
+        return isInsideGrid(x, y) ? y * gridWidth + x : -1;
     }
     
+    /**
+     * Returns the coordinates of the head. Allocates a new point on each call;
+     * use {@link #getHeadX()} and {@link #getHeadY()} on hot paths.
+     * 
+     * @return the coordinates of the head compartment.
+     */
     public Point getSnakeHeadCoordinates() {
-        return new Point(compartmentQueue.getFirst().x,
-                         compartmentQueue.getFirst().y);
+        return new Point(getHeadX(), getHeadY());
+    }
+    
+    /**
+     * Returns the x-coordinate of the head compartment.
+     * 
+     * @return the x-coordinate of the head.
+     */
+    public int getHeadX() {
+        return headCell % gridWidth;
+    }
+    
+    /**
+     * Returns the y-coordinate of the head compartment.
+     * 
+     * @return the y-coordinate of the head.
+     */
+    public int getHeadY() {
+        return headCell / gridWidth;
+    }
+    
+    /**
+     * Returns the packed index {@code y * gridWidth + x} of the head cell.
+     * 
+     * @return the packed head cell.
+     */
+    int getHeadCell() {
+        return headCell;
+    }
+    
+    /**
+     * Returns the packed index {@code y * gridWidth + x} of the tail cell.
+     * 
+     * @return the packed tail cell.
+     */
+    int getTailCell() {
+        return tailCell;
+    }
+    
+    /**
+     * Copies the packed cells of the body from the head to the tail into the
+     * given array, which must hold at least {@link #size()} elements. Walks 
+     * the links, so runs in time linear in the length of the snake.
+     * 
+     * @param target the target array.
+     * @return the number of copied cells.
+     */
+    int copyBodyCells(int[] target) {
+        int cell = headCell;
+        target[0] = cell;
+        
+        for (int i = 1; i < size; i++) {
+            cell -= getCellOffset(getLink(i - 1));
+            target[i] = cell;
+        }
+        
+        return size;
+    }
+    
+    /**
+     * Returns the ordinal of the direction of the {@code index}th link 
+     * counting from the head, that is, the direction leading from the 
+     * compartment {@code index + 1} to the compartment {@code index}.
+     * 
+     * @param index the index of the link within {@code [0, size() - 1)}.
+     * @return the direction ordinal of the link.
+     */
+    int getLink(int index) {
+        int position = (firstLink + index) & (getLinkCapacity() - 1);
+        return (int)(links[position >>> 5] >>> ((position & 31) << 1)) & 3;
+    }
+    
+    /**
+     * Returns the motion direction of the head compartment.
+     * 
+     * @return the direction of the head.
+     */
+    MotionDirection getHeadDirection() {
+        return headDirection;
+    }
+    
+    /**
+     * Returns the motion direction of the tail compartment.
+     * 
+     * @return the direction of the tail.
+     */
+    MotionDirection getTailDirection() {
+        return tailDirection;
     }
     
-    public boolean hitsWall(GridCell[][] grid) {
+    /**
+     * Returns the number of compartments in this snake.
+     * 
+     * @return the length of the snake.
+     */
+    public int size() {
+        return size;
+    }
+    
+    public boolean hitsWall(GameGrid grid) {
+        int x = getHeadX();
+        int y = getHeadY();
+        
         switch (motionDirection) {
             case NORTH:
-                return hitsWallMovingToNorth(grid);
-                
+                return grid.isWall(x, y - 1);
+            
             case EAST:
-                return hitsWallMovingToEast(grid);
-                
+                return grid.isWall(x + 1, y);
+            
             case SOUTH:
-                return hitsWalMovingToSouth(grid);
-                
+                return grid.isWall(x, y + 1);
+            
             case WEST:
-                return hitsWalMovingToWest(grid);
-                
+                return grid.isWall(x - 1, y);
+            
             default:
                 throw new IllegalStateException("Should never get here.");
         }
@@ -128,34 +492,128 @@ public final class Snake implements Iterable<SnakeCompartment> {
         switch (motionDirection) {
             case NORTH:
                 return eatsHimselfMovingToNorth();
-                
+            
             case EAST:
                 return eatsHimselfMovingToEast();
-                
+            
             case SOUTH:
                 return eatsHimselfMovingToSouth();
-                
+            
             case WEST:
                 return eatsHimselfMovingToWest();
-                
+            
             default:
-                throw new EnumConstantNotPresentException(GridCell.class, 
+                throw new EnumConstantNotPresentException(GridCell.class,
                                                           "Unknown constant.");
         }
     }
     
+    /**
+     * Returns an iterator over the compartments from the head to the tail.
+     * The iterator is a flyweight cursor: every call to {@code next()}
+     * returns the same {@link SnakeCompartment} instance updated in place, so
+     * callers must copy a compartment they want to keep.
+     * 
+     * @return a flyweight iterator over the snake compartments.
+     */
     @Override
     public Iterator<SnakeCompartment> iterator() {
-        return compartmentQueue.iterator();
+        return new CompartmentCursor();
     }
     
     List<SnakeCompartment> getSnakeCompartmentList() {
-        return new ArrayList<>(compartmentQueue);
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>(size);
+        
+        for (SnakeCompartment snakeCompartment : this) {
+            snakeCompartmentList.add(new SnakeCompartment(snakeCompartment));
+        }
+        
+        return snakeCompartmentList;
+    }
+    
+    private void setLink(int index, int directionOrdinal) {
+        int position = (firstLink + index) & (getLinkCapacity() - 1);
+        int shift = (position & 31) << 1;
+        long word = links[position >>> 5];
+        links[position >>> 5] = 
+                (word & ~(3L << shift)) | ((long) directionOrdinal << shift);
+    }
+    
+    private int getLinkCapacity() {
+        return links.length * LINKS_PER_WORD;
+    }
+    
+    /**
+     * Doubles the capacity of the link ring buffer, moving the first link to
+     * the position zero.
+     */
+    private void expandLinks() {
+        long[] oldLinks = links;
+        int oldFirstLink = firstLink;
+        int oldMask = getLinkCapacity() - 1;
+        links = new long[oldLinks.length << 1];
+        firstLink = 0;
+        
+        for (int i = 0; i < size - 1; i++) {
+            int position = (oldFirstLink + i) & oldMask;
+            setLink(i, (int)(oldLinks[position >>> 5] 
+                             >>> ((position & 31) << 1)) & 3);
+        }
+    }
+    
+    /**
+     * Returns the change of the packed cell index caused by a move to the 
+     * direction with the given ordinal.
+     */
+    private int getCellOffset(int directionOrdinal) {
+        switch (directionOrdinal) {
+            case 0:
+                return -gridWidth;
+            
+            case 1:
+                return 1;
+            
+            case 2:
+                return gridWidth;
+            
+            default:
+                return -1;
+        }
+    }
+    
+    /**
+     * Returns the ordinal of the direction leading from {@code from} to the
+     * adjacent cell {@code to}.
+     */
+    private int getDirectionOrdinal(int from, int to) {
+        if (to == from - gridWidth) {
+            return MotionDirection.NORTH.ordinal();
+        } else if (to == from + 1) {
+            return MotionDirection.EAST.ordinal();
+        } else if (to == from + gridWidth) {
+            return MotionDirection.SOUTH.ordinal();
+        } else {
+            return MotionDirection.WEST.ordinal();
+        }
+    }
+    
+    /**
+     * Returns the smallest power-of-two link capacity, of at least 
+     * {@code MINIMUM_CAPACITY}, fitting a snake of the given length.
+     */
+    private static int getCapacity(int length) {
+        int capacity = MINIMUM_CAPACITY;
+        
+        while (capacity < length) {
+            capacity <<= 1;
+        }
+        
+        return capacity;
     }
     
     private void checkSnakeCompartment(
             List<SnakeCompartment> snakeCompartmentList) {
-        Objects.requireNonNull(snakeCompartmentList, 
+        Objects.requireNonNull(snakeCompartmentList,
                                "The snake compartment list is null.");
         
         if (snakeCompartmentList.isEmpty()) {
@@ -168,7 +626,7 @@ public final class Snake implements Iterable<SnakeCompartment> {
             SnakeCompartment snakeCompartment2 = snakeCompartmentList.get(j);
             int horizontalDifference = Math.abs(snakeCompartment1.x -
                                                 snakeCompartment2.x);
-            int verticalDifference = Math.abs(snakeCompartment1.y - 
+            int verticalDifference = Math.abs(snakeCompartment1.y -
                                               snakeCompartment2.y);
             
             if (horizontalDifference + verticalDifference != 1) {
@@ -176,107 +634,165 @@ public final class Snake implements Iterable<SnakeCompartment> {
                         "The snake is disconnected.");
             }
         }
-    }
-    
-    private boolean hitsWallMovingToNorth(GridCell[][] grid) {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        
-        if (y == 0) {
-            return true;
-        }
         
-        if (grid[y - 1][x].equals(GridCell.WALL)) {
-            return true;
+        for (SnakeCompartment snakeCompartment : snakeCompartmentList) {
+            if (!isInsideGrid(snakeCompartment.x, snakeCompartment.y)) {
+                throw new IllegalArgumentException(
+                        "The snake compartment (" + snakeCompartment.x +
+                        ", " + snakeCompartment.y + ") is outside of the " +
+                        "grid.");
+            }
         }
-
-        return false;
     }
     
-    private boolean hitsWallMovingToEast(GridCell[][] grid) {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
- 
-        if (x == grid[0].length - 1) {
-            return true;
-        }
-        
-        if (grid[y][x + 1] == GridCell.WALL) {
-            return true;
+    private static int checkGridDimension(int dimension, String name) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException(
+                    "The grid " + name + " (" + dimension +
+                    ") must be positive.");
         }
         
-        return false;
+        return dimension;
     }
     
-    private boolean hitsWalMovingToSouth(GridCell[][] grid) {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        
-        if (y == grid.length - 1) {
-            return true;
-        }
-        
-        if (grid[y + 1][x] == GridCell.WALL) {
-            return true;
-        }
-        
-        return false;
+    private boolean eatsHimselfMovingToNorth() {
+        return occupiesPoint(getHeadX(), getHeadY() - 1);
     }
     
-    private boolean hitsWalMovingToWest(GridCell[][] grid) {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        
-        if (x == 0) {
-            return true;
+    private boolean eatsHimselfMovingToEast() {
+        return occupiesPoint(getHeadX() + 1, getHeadY());
+    }
+    
+    private boolean eatsHimselfMovingToSouth() {
+        return occupiesPoint(getHeadX(), getHeadY() + 1);
+    }
+    
+    private boolean eatsHimselfMovingToWest() {
+        return occupiesPoint(getHeadX() - 1, getHeadY());
+    }
+    
+    /**
+     * Checks whether the cell {@code (x, y)} is occupied by this snake. Runs
+     * in constant time by consulting the occupancy index, building it first
+     * if the snake was constructed without one.
+     * 
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return {@code true} if the cell is occupied by this snake.
+     */
+    boolean occupiesPoint(int x, int y) {
+        if (!isInsideGrid(x, y)) {
+            return false;
         }
         
-        if (grid[y][x - 1] == GridCell.WALL) {
-            return true;
+        if (occupancy == null) {
+            buildOccupancy();
         }
         
-        return false;
+        int index = y * gridWidth + x;
+        return (occupancy[index >>> 6] & (1L << index)) != 0L;
     }
     
-    private boolean eatsHimselfMovingToNorth() {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        return occupiesPoint(x, y - 1);
+    private boolean isInsideGrid(int x, int y) {
+        return x >= 0 && x < gridWidth && y >= 0 && y < gridHeight;
     }
     
-    private boolean eatsHimselfMovingToEast() {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        return occupiesPoint(x + 1, y);
+    /**
+     * Returns whether the occupancy index has been built.
+     * 
+     * @return {@code true} if the snake carries the occupancy index.
+     */
+    boolean hasOccupancyIndex() {
+        return occupancy != null;
     }
     
-    private boolean eatsHimselfMovingToSouth() {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        return occupiesPoint(x, y + 1);
+    private long[] newOccupancy() {
+        return new long[(int)(((long) gridWidth * gridHeight + 63) >>> 6)];
     }
     
-    private boolean eatsHimselfMovingToWest() {
-        SnakeCompartment headSnakeCompartment = compartmentQueue.getFirst();
-        int x = headSnakeCompartment.x;
-        int y = headSnakeCompartment.y;
-        return occupiesPoint(x - 1, y);
+    private void buildOccupancy() {
+        occupancy = newOccupancy();
+        int cell = headCell;
+        setOccupied(cell);
+        
+        for (int i = 1; i < size; i++) {
+            cell -= getCellOffset(getLink(i - 1));
+            setOccupied(cell);
+        }
     }
     
-    boolean occupiesPoint(int x, int y) {
-        for (SnakeCompartment snakeCompartment : this) {
-            if (snakeCompartment.x == x && snakeCompartment.y == y) {
-                return true;
-            }
+    private void setOccupied(int cell) {
+        if (occupancy != null) {
+            occupancy[cell >>> 6] |= 1L << cell;
+        }
+    }
+    
+    private void clearOccupied(int cell) {
+        if (occupancy != null) {
+            occupancy[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+    
+    /**
+     * Walks the links from the head, exposing each compartment through a
+     * single reused {@link SnakeCompartment}.
+     */
+    private final class CompartmentCursor
+            implements Iterator<SnakeCompartment> {
+        
+        private final SnakeCompartment flyweight =
+                new SnakeCompartment(MotionDirection.NORTH, 0, 0);
+        
+        private int offset;
+        private int x = headCell % gridWidth;
+        private int y = headCell / gridWidth;
+        
+        @Override
+        public boolean hasNext() {
+            return offset < size;
         }
         
-        return false;
+        @Override
+        public SnakeCompartment next() {
+            if (offset >= size) {
+                throw new NoSuchElementException();
+            }
+            
+            if (offset > 0) {
+                // Step back against the link into the previous compartment.
+                switch (getLink(offset - 1)) {
+                    case 0:
+                        y++;
+                        break;
+                    
+                    case 1:
+                        x--;
+                        break;
+                    
+                    case 2:
+                        y--;
+                        break;
+                    
+                    default:
+                        x++;
+                        break;
+                }
+            }
+            
+            flyweight.x = x;
+            flyweight.y = y;
+            
+            if (offset == 0) {
+                flyweight.motionDirection = headDirection;
+            } else if (offset == size - 1) {
+                flyweight.motionDirection = tailDirection;
+            } else {
+                flyweight.motionDirection = 
+                        MOTION_DIRECTIONS[getLink(offset)];
+            }
+            
+            offset++;
+            return flyweight;
+        }
     }
 }
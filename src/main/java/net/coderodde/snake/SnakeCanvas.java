@@ -0,0 +1,336 @@
+package net.coderodde.snake;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class implements the active rendering mode of the game view. A 
+ * dedicated thread draws the frames through a {@link BufferStrategy} at a 
+ * target frame rate independent of the simulation tick. Between two ticks
+ * the head slides into its new cell and the tail slides out of the vacated
+ * one, so the motion looks continuous. The frame time percentiles and the 
+ * dropped frames are shown in an overlay.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SnakeCanvas extends Canvas {
+    
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private static final Color BORDER_COLOR = Color.DARK_GRAY;
+    private static final Color WALL_COLOR = Color.GRAY;
+    private static final Color SNAKE_COLOR = Color.WHITE;
+    private static final Color BERRY_COLOR = Color.RED;
+    private static final Color OVERLAY_COLOR = Color.GREEN;
+    
+    /**
+     * The number of frames between two updates of the overlay text.
+     */
+    private static final int OVERLAY_UPDATE_PERIOD = 30;
+    
+    private final GameSession gameSession;
+    private final GameEngine gameEngine;
+    private final int gridLineThickness;
+    private final long targetFrameNanos;
+    private final BackgroundLayer backgroundLayer;
+    private final FrameTimeStatistics frameTimeStatistics;
+    
+    /**
+     * Passes the state of the engine from the game loop thread to the render
+     * thread. Each snapshot carries the time of its tick.
+     */
+    private final GameSnapshotExchange snapshotExchange;
+    
+    private volatile boolean running;
+    private Thread renderThread;
+    private GridGeometry geometry;
+    private String overlayText = "";
+    
+    /**
+     * Constructs a new canvas.
+     * 
+     * @param gameSession           the session to render.
+     * @param gridLineThickness     the thickness of the grid lines.
+     * @param targetFramesPerSecond the target frame rate.
+     */
+    public SnakeCanvas(GameSession gameSession,
+                       int gridLineThickness, 
+                       int targetFramesPerSecond) {
+        this.gameSession = Objects.requireNonNull(
+                gameSession, 
+                "The input game session is null.");
+        
+        if (gridLineThickness < 0) {
+            throw new IllegalArgumentException(
+                    "The input grid line thickness (" + gridLineThickness + 
+                    ") may not be negative.");
+        }
+        
+        if (targetFramesPerSecond < 1) {
+            throw new IllegalArgumentException(
+                    "The target frame rate (" + targetFramesPerSecond + 
+                    ") must be positive.");
+        }
+        
+        this.gameEngine = gameSession.getGameEngine();
+        this.gridLineThickness = gridLineThickness;
+        this.targetFrameNanos = TimeUnit.SECONDS.toNanos(1L) 
+                              / targetFramesPerSecond;
+        this.backgroundLayer = new BackgroundLayer(gameEngine.getGrid(),
+                                                   BACKGROUND_COLOR, 
+                                                   BORDER_COLOR,
+                                                   WALL_COLOR);
+        this.frameTimeStatistics = new FrameTimeStatistics(targetFrameNanos);
+        setIgnoreRepaint(true);
+        setBackground(BACKGROUND_COLOR);
+        this.snapshotExchange = new GameSnapshotExchange(gameEngine);
+        gameEngine.addListener(snapshotExchange);
+    }
+    
+    /**
+     * Starts the rendering thread. The canvas must be displayable.
+     */
+    public void startRendering() {
+        if (running) {
+            return;
+        }
+        
+        createBufferStrategy(2);
+        running = true;
+        renderThread = new Thread(this::renderLoop, "snake-render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+    
+    /**
+     * Stops the rendering thread.
+     */
+    public void stopRendering() {
+        running = false;
+        
+        if (renderThread != null) {
+            renderThread.interrupt();
+        }
+    }
+    
+    private void renderLoop() {
+        BufferStrategy bufferStrategy = getBufferStrategy();
+        long previousFrameNanos = System.nanoTime();
+        long deadline = previousFrameNanos;
+        
+        while (running) {
+            do {
+                do {
+                    Graphics g = bufferStrategy.getDrawGraphics();
+                    
+                    try {
+                        renderFrame(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (bufferStrategy.contentsRestored());
+                
+                bufferStrategy.show();
+            } while (bufferStrategy.contentsLost());
+            
+            Toolkit.getDefaultToolkit().sync();
+            
+            long now = System.nanoTime();
+            frameTimeStatistics.record(now - previousFrameNanos);
+            previousFrameNanos = now;
+            
+            if (frameTimeStatistics.getFrameCount() 
+                    % OVERLAY_UPDATE_PERIOD == 0) {
+                updateOverlayText();
+            }
+            
+            deadline += targetFrameNanos;
+            
+            if (deadline < now) {
+                // Fell behind; do not try to catch up with a burst of frames.
+                deadline = now;
+            }
+            
+            long remaining;
+            
+            while (running && (remaining = deadline - System.nanoTime()) > 0L) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+    }
+    
+    private void renderFrame(Graphics g) {
+        GridGeometry geometry = getGeometry();
+        backgroundLayer.draw(g, this, geometry);
+        
+        if (geometry.getCellLength() > 0) {
+            GameSnapshot snapshot = snapshotExchange.acquire();
+            double alpha = (double)(System.nanoTime() 
+                                    - snapshot.getTickNanos()) 
+                         / gameSession.getStepDurationNanos();
+            alpha = Math.max(0.0, Math.min(1.0, alpha));
+            
+            if (snapshot.getBerryCell() >= 0) {
+                g.setColor(BERRY_COLOR);
+                fillCell(g, geometry, snapshot.getBerryX(), 
+                                      snapshot.getBerryY());
+            }
+
+            g.setColor(SNAKE_COLOR);
+            drawSnake(g, geometry, snapshot, alpha);
+        }
+        
+        g.setColor(OVERLAY_COLOR);
+        g.drawString(overlayText, 10, 20);
+    }
+    
+    /**
+     * Draws the snake as it looks a fraction {@code alpha} of a tick after 
+     * the last step: the head has covered {@code alpha} of the way from the
+     * neck cell, and the tail has covered {@code alpha} of the way out of the
+     * vacated cell.
+     */
+    private void drawSnake(Graphics g, 
+                           GridGeometry geometry, 
+                           GameSnapshot snapshot,
+                           double alpha) {
+        int gridWidth = geometry.getGridWidth();
+        int length = snapshot.getLength();
+        int headCell = snapshot.getBodyCell(0);
+        int headX = headCell % gridWidth;
+        int headY = headCell / gridWidth;
+        
+        if (length == 1) {
+            fillCell(g, geometry, headX, headY);
+            return;
+        }
+        
+        int tailX = 0;
+        int tailY = 0;
+        
+        for (int i = 1; i < length; i++) {
+            int cell = snapshot.getBodyCell(i);
+            tailX = cell % gridWidth;
+            tailY = cell / gridWidth;
+            fillCell(g, geometry, tailX, tailY);
+        }
+        
+        // The head slides in from the neck.
+        fillPartialCell(g, 
+                        geometry, 
+                        headX, 
+                        headY, 
+                        snapshot.getHeadDirection(), 
+                        alpha);
+        
+        int vacatedCell = snapshot.getVacatedCell();
+        
+        if (vacatedCell >= 0) {
+            int vacatedX = vacatedCell % gridWidth;
+            int vacatedY = vacatedCell / gridWidth;
+            // The tail slides out of the vacated cell towards the new tail.
+            fillPartialCell(g, 
+                            geometry, 
+                            vacatedX, 
+                            vacatedY, 
+                            directionOf(vacatedX, vacatedY, tailX, tailY),
+                            1.0 - alpha);
+        }
+    }
+    
+    /**
+     * Fills the part of the cell {@code (x, y)} covered by a compartment that
+     * entered the cell moving to {@code direction} and has covered 
+     * {@code fraction} of it.
+     */
+    private static void fillPartialCell(Graphics g, 
+                                        GridGeometry geometry,
+                                        int x, 
+                                        int y, 
+                                        MotionDirection direction, 
+                                        double fraction) {
+        int cellLength = geometry.getCellLength();
+        int left = geometry.getCellLeft(x);
+        int top  = geometry.getCellTop(y);
+        int covered = (int) Math.round(fraction * cellLength);
+        
+        switch (direction) {
+            case NORTH:
+                g.fillRect(left, top + cellLength - covered, 
+                           cellLength, covered);
+                break;
+                
+            case EAST:
+                g.fillRect(left, top, covered, cellLength);
+                break;
+                
+            case SOUTH:
+                g.fillRect(left, top, cellLength, covered);
+                break;
+                
+            case WEST:
+                g.fillRect(left + cellLength - covered, top, 
+                           covered, cellLength);
+                break;
+        }
+    }
+    
+    /**
+     * Returns the direction from the cell {@code (x1, y1)} towards the 
+     * adjacent cell {@code (x2, y2)}. Since the tail leaves the vacated cell
+     * towards the new tail, the part still covered lies on the side facing 
+     * the new tail.
+     */
+    private static MotionDirection directionOf(int x1, int y1, int x2, int y2) {
+        if (x2 > x1) {
+            return MotionDirection.WEST;
+        } else if (x2 < x1) {
+            return MotionDirection.EAST;
+        } else if (y2 > y1) {
+            return MotionDirection.NORTH;
+        } else {
+            return MotionDirection.SOUTH;
+        }
+    }
+    
+    private static void fillCell(Graphics g, 
+                                 GridGeometry geometry, 
+                                 int x, 
+                                 int y) {
+        g.fillRect(geometry.getCellLeft(x),
+                   geometry.getCellTop(y),
+                   geometry.getCellLength(), 
+                   geometry.getCellLength());
+    }
+    
+    private GridGeometry getGeometry() {
+        int width  = getWidth();
+        int height = getHeight();
+        
+        if (geometry == null 
+                || geometry.getSurfaceWidth() != width 
+                || geometry.getSurfaceHeight() != height) {
+            geometry = new GridGeometry(width,
+                                        height,
+                                        gameEngine.getGrid().getWidth(),
+                                        gameEngine.getGrid().getHeight(),
+                                        gridLineThickness);
+        }
+        
+        return geometry;
+    }
+    
+    private void updateOverlayText() {
+        overlayText = String.format(
+                "frame p50: %.2f ms, p99: %.2f ms, dropped: %d",
+                frameTimeStatistics.getPercentile(50.0) / 1e6,
+                frameTimeStatistics.getPercentile(99.0) / 1e6,
+                frameTimeStatistics.getDroppedFrames());
+    }
+}
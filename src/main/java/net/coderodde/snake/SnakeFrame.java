@@ -1,37 +1,233 @@
 package net.coderodde.snake;
 
+import java.awt.Component;
 import java.awt.Toolkit;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import javax.management.JMException;
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 
 /**
- *
+ * 
  * @author rodde
  */
 public class SnakeFrame extends JFrame {
-
-    private final SnakePanel snakePanel = new SnakePanel(10, 10, 3);
     
+    /**
+     * The command line option selecting the active rendering mode.
+     */
+    private static final String ACTIVE_RENDERING_OPTION = "--active";
+    
+    /**
+     * The default target frame rate of the active rendering mode.
+     */
+    private static final int DEFAULT_TARGET_FRAMES_PER_SECOND = 60;
+    
+    /**
+     * The command line option for saving the replay of the game into a file 
+     * when the window is closed.
+     */
+    private static final String RECORD_OPTION = "--record";
+    
+    /**
+     * The command line option for logging every tick into a memory-mapped 
+     * file.
+     */
+    private static final String TICK_LOG_OPTION = "--log";
+    
+    /**
+     * The command line option for appending the metrics of the game loop to
+     * a CSV file every {@link #METRICS_PERIOD} milliseconds.
+     */
+    private static final String METRICS_OPTION = "--metrics";
+    
+    private static final long METRICS_PERIOD = 1000L;
+    
+    private final ReplayRecorder replayRecorder = 
+            new ReplayRecorder(10, 10, System.nanoTime());
+    private final GameEngine gameEngine = replayRecorder.getGameEngine();
+    private final GameStepThread gameStepThread = 
+            new GameStepThread(gameEngine);
+    private final GameMetrics gameMetrics = 
+            new GameMetrics(gameStepThread.getGameSession());
+    
+    /**
+     * Constructs a frame rendering the game passively via Swing repaints.
+     */
     public SnakeFrame() {
+        SnakePanel snakePanel = new SnakePanel(gameEngine, 3);
+        snakePanel.setMetrics(gameMetrics);
         getContentPane().add(snakePanel);
-        snakePanel.setFocusable(true);
+        start(snakePanel);
+    }
+    
+    /**
+     * Constructs a frame rendering the game actively on a dedicated thread.
+     * 
+     * @param targetFramesPerSecond the target frame rate.
+     */
+    public SnakeFrame(int targetFramesPerSecond) {
+        SnakeCanvas snakeCanvas = new SnakeCanvas(gameStepThread.getGameSession(), 
+                                                  3,
+                                                  targetFramesPerSecond);
+        getContentPane().add(snakeCanvas);
+        start(snakeCanvas);
+        snakeCanvas.startRendering();
+    }
+    
+    private void start(Component gameView) {
+        gameView.setFocusable(true);
+        gameView.addKeyListener(new SnakeGameKeyListener(gameStepThread));
+        gameStepThread.setStepDuration(1000L);
+        
+        try {
+            gameMetrics.registerMBean("SnakeFrame");
+        } catch (JMException ex) {
+            System.err.println("Could not register the metrics: " + ex);
+        }
+        
         getContentPane().setPreferredSize(
                 Toolkit.getDefaultToolkit().getScreenSize());
         pack();
         setResizable(true);
         setVisible(true);
         repaint();
+        gameView.requestFocusInWindow();
+        gameStepThread.setPause(false);
+        gameStepThread.start();
     }
     
     public Snake getSnake() {
-        return snakePanel.getSnake();
+        return gameEngine.getSnake();
+    }
+    
+    /**
+     * Stops the game and returns its replay.
+     * 
+     * @return the replay of the game so far.
+     * @throws InterruptedException if interrupted while waiting for the game
+     *                              loop to stop.
+     */
+    public Replay stopAndGetReplay() throws InterruptedException {
+        stopGame();
+        return replayRecorder.toReplay();
+    }
+    
+    private void stopGame() throws InterruptedException {
+        gameStepThread.requestExit();
+        gameStepThread.join();
+    }
+    
+    private void logTicks(String fileName) throws IOException {
+        TickLog tickLog = TickLog.open(Paths.get(fileName), 
+                                       gameEngine.getGrid().getWidth(),
+                                       gameEngine.getGrid().getHeight());
+        gameEngine.addListener(tickLog);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent windowEvent) {
+                try {
+                    stopGame();
+                    tickLog.close();
+                } catch (IOException | InterruptedException ex) {
+                    System.err.println("Could not close the tick log: " + ex);
+                }
+            }
+        });
+    }
+    
+    private void dumpMetrics(String fileName) throws IOException {
+        Closeable csvDump = gameMetrics.startCsvDump(Paths.get(fileName),
+                                                     METRICS_PERIOD);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent windowEvent) {
+                try {
+                    csvDump.close();
+                } catch (IOException ex) {
+                    System.err.println("Could not write the metrics: " + ex);
+                }
+            }
+        });
+    }
+    
+    private void saveReplayOnClose(String fileName) {
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent windowEvent) {
+                try (OutputStream outputStream = 
+                        new BufferedOutputStream(
+                                new FileOutputStream(fileName))) {
+                    stopAndGetReplay().writeTo(outputStream);
+                } catch (IOException | InterruptedException ex) {
+                    System.err.println("Could not save the replay: " + ex);
+                }
+            }
+        });
     }
     
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            SnakeFrame snakeFrame = new SnakeFrame();
+            SnakeFrame snakeFrame;
+            String replayFileName = null;
+            String tickLogFileName = null;
+            String metricsFileName = null;
+            Integer targetFramesPerSecond = null;
+            
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(ACTIVE_RENDERING_OPTION)) {
+                    boolean hasValue = i + 1 < args.length 
+                                    && !args[i + 1].startsWith("-");
+                    targetFramesPerSecond = 
+                            hasValue ?
+                            Integer.parseInt(args[++i]) :
+                            DEFAULT_TARGET_FRAMES_PER_SECOND;
+                } else if (args[i].equals(RECORD_OPTION) 
+                        && i + 1 < args.length) {
+                    replayFileName = args[++i];
+                } else if (args[i].equals(TICK_LOG_OPTION) 
+                        && i + 1 < args.length) {
+                    tickLogFileName = args[++i];
+                } else if (args[i].equals(METRICS_OPTION) 
+                        && i + 1 < args.length) {
+                    metricsFileName = args[++i];
+                }
+            }
+            
+            if (targetFramesPerSecond != null) {
+                snakeFrame = new SnakeFrame(targetFramesPerSecond);
+            } else {
+                snakeFrame = new SnakeFrame();
+            }
+            
+            if (replayFileName != null) {
+                snakeFrame.saveReplayOnClose(replayFileName);
+            }
+            
+            if (tickLogFileName != null) {
+                try {
+                    snakeFrame.logTicks(tickLogFileName);
+                } catch (IOException ex) {
+                    System.err.println("Could not open the tick log: " + ex);
+                }
+            }
+            
+            if (metricsFileName != null) {
+                try {
+                    snakeFrame.dumpMetrics(metricsFileName);
+                } catch (IOException ex) {
+                    System.err.println("Could not open the metrics file: " + 
+                                       ex);
+                }
+            }
+            
             snakeFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         });
     }
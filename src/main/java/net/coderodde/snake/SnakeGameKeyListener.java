@@ -2,20 +2,57 @@ package net.coderodde.snake;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.Objects;
 
 /**
- *
+ * This class translates the key presses into the requests for the game loop.
+ * The arrow keys only queue the directions, which the loop applies one turn
+ * per step, so the event dispatch thread never touches the snake.
+ * 
  * @author rodde
  */
-public class SnakeGameKeyListener {
+public class SnakeGameKeyListener implements KeyListener {
 
-    private final Snake snake;
     private final GameStepThread gameStepThread;
     
-    public SnakeGameKeyListener(Snake snake, GameStepThread gameStepThread) {
-        this.snake = snake;
-        this.gameStepThread = gameStepThread;
+    public SnakeGameKeyListener(GameStepThread gameStepThread) {
+        this.gameStepThread = Objects.requireNonNull(
+                gameStepThread, 
+                "The input game step thread is null.");
     }
 
-    
+    @Override
+    public void keyTyped(KeyEvent e) {}
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_UP:
+                gameStepThread.requestDirection(MotionDirection.NORTH);
+                break;
+
+            case KeyEvent.VK_RIGHT:
+                gameStepThread.requestDirection(MotionDirection.EAST);
+                break;
+
+            case KeyEvent.VK_DOWN:
+                gameStepThread.requestDirection(MotionDirection.SOUTH);
+                break;
+
+            case KeyEvent.VK_LEFT:
+                gameStepThread.requestDirection(MotionDirection.WEST);
+                break;
+
+            case KeyEvent.VK_SPACE:
+                gameStepThread.togglePause();
+                break;
+                
+            case KeyEvent.VK_A:
+                gameStepThread.toggleAutopilot();
+                break;
+        }
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {}
 }
@@ -4,7 +4,9 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
@@ -13,16 +15,11 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
-import java.util.Random;
 import javax.swing.JPanel;
-import static net.coderodde.snake.MotionDirection.EAST;
-import static net.coderodde.snake.MotionDirection.WEST;
 
 /**
- *
+ * 
  * @author rodde
  */
 public class SnakePanel extends JPanel {
@@ -67,18 +64,13 @@ public class SnakePanel extends JPanel {
      */
     private static final int MINIMUM_GRID_HEIGHT = 10;
     
+    private final int gridWidth;
+    private final int gridHeight;
+    
     /**
-     * The resolution of the user's screen.
+     * The game engine being rendered.
      */
-    private final Dimension screenResolution;
-    
-    private Dimension resolution;
-    private int gridWidth;
-    private int gridHeight;
-    private int gridThickness;
-    private GameStepThread gameStepThread;
-    private GridCell[][] grid;
-    private Snake snake;
+    private final GameEngine gameEngine;
     
     /**
      * The current window background color. Or in another words, the color of
@@ -112,132 +104,92 @@ public class SnakePanel extends JPanel {
     private int gridLineThickness;
     
     /**
-     * The coordinates of a berry.
+     * The current pixel geometry of the grid. Replaced as a whole on resize,
+     * so that the game loop thread always sees a consistent geometry.
      */
-    private Point currentBerryPoint;
+    private volatile GridGeometry geometry;
     
-    private final Random random = new Random();
+    /**
+     * The cached static layer with the background, the grid lines and the 
+     * walls.
+     */
+    private final BackgroundLayer backgroundLayer;
     
     /**
-     * Specifies the current game state.
+     * Passes the state of the engine from the game loop thread to the EDT. 
+     * The painting code never touches the engine itself.
      */
-    private enum GameState {
-        GAMING,
-        PAUSE,
-        STOP,
-    }
+    private final GameSnapshotExchange snapshotExchange;
     
-    private GameState gameState = GameState.STOP;
+    /**
+     * The metrics recording the paints, or {@code null}.
+     */
+    private GameMetrics metrics;
     
     /**
-     * Constructs a new panel for displaying the game grid.
+     * Constructs a new panel for displaying the game grid. The panel only 
+     * observes the engine and repaints itself after each step.
      * 
-     * @param gridWidth         the width of the grid in cells.
-     * @param gridHeight        the height of the grid in cells.
+     * @param gameEngine        the game engine to render.
      * @param gridLineThickness the thickness of the grid lines.
      */
-    public SnakePanel(int gridWidth, int gridHeight, int gridLineThickness) {
-        this.gridWidth  = checkGridWidth(gridWidth);
-        this.gridHeight = checkGridHeight(gridHeight);
+    public SnakePanel(GameEngine gameEngine, int gridLineThickness) {
+        this.gameEngine = Objects.requireNonNull(
+                gameEngine, 
+                "The input game engine is null.");
+        this.gridWidth  = checkGridWidth(gameEngine.getGrid().getWidth());
+        this.gridHeight = checkGridHeight(gameEngine.getGrid().getHeight());
         this.gridLineThickness = checkGridLineThickness(gridLineThickness);
-        this.grid = getGrid(gridWidth, gridHeight);
-        this.screenResolution = Toolkit.getDefaultToolkit().getScreenSize();
+        // Without a screen, nothing is painted until the panel is resized.
+        Dimension screenResolution = 
+                GraphicsEnvironment.isHeadless() ?
+                new Dimension() :
+                Toolkit.getDefaultToolkit().getScreenSize();
+        this.geometry = new GridGeometry(screenResolution.width,
+                                         screenResolution.height,
+                                         gridWidth,
+                                         gridHeight,
+                                         gridLineThickness);
+        this.backgroundLayer = new BackgroundLayer(gameEngine.getGrid(),
+                                                   windowBackgroundColor,
+                                                   borderColor,
+                                                   wallColor);
         this.setBackground(DEFAULT_WINDOW_BACKGROUND_COLOR);
         
-        List<SnakeCompartment> snakeCompartmentList = 
-                Arrays.asList(new SnakeCompartment(EAST, 3, 0),
-                              new SnakeCompartment(EAST, 2, 0),
-                              new SnakeCompartment(EAST, 1, 0),
-                              new SnakeCompartment(EAST, 0, 0));
-        
-        this.snake = new Snake(snakeCompartmentList, EAST);
-        GameStepThread gameStepThread = new GameStepThread(snake,
-                                                           this.grid, 
-                                                           this);
-        gameStepThread.setStepDuration(1000L);
-        
         addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent componentEvent) {
                 Component component = componentEvent.getComponent();
-                screenResolution.width = component.getWidth();
-                screenResolution.height = component.getHeight();
+                geometry = new GridGeometry(component.getWidth(),
+                                            component.getHeight(),
+                                            gridWidth,
+                                            gridHeight,
+                                            gridLineThickness);
+                backgroundLayer.invalidate();
                 component.repaint();
             }
         });
         
-        addKeyListener(new KeyListener(){
-            @Override
-            public void keyTyped(KeyEvent e) {}
-
-            @Override
-            public void keyPressed(KeyEvent e) {
-                switch (e.getKeyCode()) {
-                    case KeyEvent.VK_UP:
-                        snake.setDirection(MotionDirection.NORTH);
-                        break;
-
-                    case KeyEvent.VK_RIGHT:
-                        snake.setDirection(MotionDirection.EAST);
-                        break;
-
-                    case KeyEvent.VK_DOWN:
-                        snake.setDirection(MotionDirection.SOUTH);
-                        break;
-
-                    case KeyEvent.VK_LEFT:
-                        snake.setDirection(MotionDirection.WEST);
-                        break;
-
-                    case KeyEvent.VK_SPACE:
-                        gameStepThread.togglePause();
-                        break;
-                }
-            }
-
-            @Override
-            public void keyReleased(KeyEvent e) {}
-        });
-        
-//        SnakeGameKeyListener keyListener =
-//                new SnakeGameKeyListener(snake, gameStepThread);
-//        
-//        this.addKeyListener(keyListener);
-        this.currentBerryPoint = createBerry();
-        gameStepThread.setPause(false);
-        gameStepThread.start();
+        this.snapshotExchange = new GameSnapshotExchange(gameEngine);
+        gameEngine.addListener(snapshotExchange);
+        gameEngine.addListener(this::repaintDirtyCells);
     }
     
     public Snake getSnake() {
-        return this.snake;
+        return gameEngine.getSnake();
     }
     
     public Point getCurrentBerryPoint() {
-       return new Point(currentBerryPoint);
-    }
-    
-    public void setSnake(Snake snake) {
-        this.snake = Objects.requireNonNull(snake, "The input snake is null.");
+       return new Point(gameEngine.getBerryX(), gameEngine.getBerryY());
     }
     
     /**
-     * Creates an empty game grid, which is simply a two-dimensional array of
-     * cells.
+     * Sets the metrics recording the paints. Called on the EDT.
      * 
-     * @param gridWidth  the width of the grid in cells.
-     * @param gridHeight the height of the grid in cells.
-     * @return the game grid.
+     * @param metrics the metrics, or {@code null} for recording nothing.
      */
-    private GridCell[][] getGrid(int gridWidth, int gridHeight) {
-        GridCell[][] grid = new GridCell[gridHeight][gridWidth];
-        
-        for (int y = 0; y < gridHeight; y++) {
-            for (int x = 0; x < gridWidth; x++) {
-                grid[y][x] = GridCell.TRAVERSABLE;
-            }
-        }
-        
-        return grid;
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
     }
     
     @Override
@@ -245,88 +197,131 @@ public class SnakePanel extends JPanel {
         update(g);
     }
     
-    private int getCellLength() {
-        int auxCellWidth  = screenResolution.width;
-        int auxCellHeight = screenResolution.height;
-        
-        auxCellWidth -= (gridWidth + 1) * gridLineThickness;
-        auxCellWidth /= gridWidth;
-        
-        auxCellHeight -= (gridHeight + 1) * gridLineThickness;
-        auxCellHeight /= gridHeight;
+    /**
+     * Paints the part of the panel within the clip of {@code g}. The 
+     * background and the grid lines are blitted from a cached image, and only
+     * the cells intersecting the clip are examined, so repainting the few 
+     * dirty cells of a step does not depend on the size of the grid or the 
+     * length of the snake. The state is read from the latest published 
+     * snapshot, so a frame never shows a half-made step.
+     * 
+     * @param g the graphics context.
+     */
+    @Override
+    public void update(Graphics g) {
+        if (metrics == null) {
+            paintClip(g);
+            return;
+        }
         
-        return Math.min(auxCellWidth, auxCellHeight);
+        long startTime = System.nanoTime();
+        paintClip(g);
+        metrics.recordPaint(System.nanoTime() - startTime);
     }
     
-    @Override
-    public void update(Graphics g) {
-        // Clear the grid.
-        g.setColor(windowBackgroundColor);
-        g.fillRect(0, 
-                   0,
-                   screenResolution.width, 
-                   screenResolution.height);
-        int cellLength = getCellLength();
-        
-        // Draw the grid lines.
-        int horizontalLeftoverPixels = 
-                screenResolution.width - (gridWidth + 1) * gridLineThickness
-                                       -  gridWidth * cellLength;
-        
-        int verticalLeftoverPixels = 
-                screenResolution.height - (gridHeight + 1) * gridLineThickness
-                                        -  gridHeight * cellLength;
-        
-        int skipHorizontal = horizontalLeftoverPixels / 2;
-        int skipVertical   = verticalLeftoverPixels  /  2;
-        
-        g.setColor(borderColor);
-        
-        // Draw vertical grid lines.
-        for (int i = 0; i != gridWidth + 1; i++) {
-            g.fillRect(skipHorizontal + i * (cellLength + gridLineThickness), 
-                       skipVertical, 
-                       gridLineThickness,
-                       screenResolution.height - verticalLeftoverPixels);
+    private void paintClip(Graphics g) {
+        GridGeometry geometry = this.geometry;
+        
+        // Draw the background, the grid lines and the walls.
+        backgroundLayer.draw(g, this, geometry);
+        
+        if (geometry.getCellLength() <= 0) {
+            return;
         }
         
-        // Draw horizontal grid lines.
-        for (int i = 0; i != gridHeight + 1; i++) {
-            g.fillRect(skipHorizontal,
-                       skipVertical + i * (cellLength + gridLineThickness),
-                       screenResolution.width - horizontalLeftoverPixels,
-                       gridLineThickness);
+        // Find the cells intersecting the clip.
+        int minX = 0;
+        int minY = 0;
+        int maxX = gridWidth - 1;
+        int maxY = gridHeight - 1;
+        Rectangle clip = g.getClipBounds();
+        
+        if (clip != null) {
+            minX = Math.max(minX, geometry.getColumnAt(clip.x));
+            minY = Math.max(minY, geometry.getRowAt(clip.y));
+            maxX = Math.min(maxX, 
+                            geometry.getColumnAt(clip.x + clip.width - 1));
+            maxY = Math.min(maxY, 
+                            geometry.getRowAt(clip.y + clip.height - 1));
+            
+            if (minX > maxX || minY > maxY) {
+                return;
+            }
         }
         
+        GameSnapshot snapshot = snapshotExchange.acquire();
+        
         // Draw the berry.
-        g.setColor(berryColor);
-        int x = currentBerryPoint.x;
-        int y = currentBerryPoint.y;
-        g.fillRect(skipHorizontal + gridLineThickness 
-                                  + x * (gridLineThickness + cellLength),
-                   skipVertical + gridLineThickness
-                                + y * (gridLineThickness + cellLength),
-                   cellLength,
-                   cellLength);
+        int x = snapshot.getBerryX();
+        int y = snapshot.getBerryY();
+        
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+            g.setColor(berryColor);
+            fillCell(g, geometry, x, y);
+        }
         
         // Draw the snake.
         g.setColor(snakeColor);
+        int length = snapshot.getLength();
+        long clipCells = (long)(maxX - minX + 1) * (maxY - minY + 1);
+        
+        if (clipCells < length) {
+            for (y = minY; y <= maxY; y++) {
+                for (x = minX; x <= maxX; x++) {
+                    if (snapshot.occupies(x, y)) {
+                        fillCell(g, geometry, x, y);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                int cell = snapshot.getBodyCell(i);
+                fillCell(g, geometry, cell % gridWidth, cell / gridWidth);
+            }
+        }
+    }
+    
+    private static void fillCell(Graphics g, 
+                                 GridGeometry geometry, 
+                                 int x, 
+                                 int y) {
+        g.fillRect(geometry.getCellLeft(x),
+                   geometry.getCellTop(y),
+                   geometry.getCellLength(), 
+                   geometry.getCellLength());
+    }
+    
+    /**
+     * Requests repainting of the cells changed by the last step of the 
+     * engine. Called on the thread running the game loop; 
+     * {@link #repaint(int, int, int, int)} is safe to call from any thread.
+     */
+    private void repaintDirtyCells(GameEngine engine, StepOutcome outcome) {
+        if (outcome.isTerminal()) {
+            return;
+        }
+        
+        GridGeometry geometry = this.geometry;
+        repaintCell(geometry, engine.getVacatedCell());
+        repaintCell(geometry, engine.getSnake().getHeadCell());
         
-        for (SnakeCompartment snakeCompartment : snake) {
-            x = snakeCompartment.x;
-            y = snakeCompartment.y;
-            g.fillRect(
-                    skipHorizontal + gridLineThickness 
-                                   + x * (cellLength + gridLineThickness),
-                    skipVertical + gridLineThickness
-                                 + y * (cellLength + gridLineThickness),
-                    cellLength, 
-                    cellLength);
+        if (outcome == StepOutcome.GREW) {
+            repaintCell(geometry, engine.getPreviousBerryCell());
+            repaintCell(geometry, engine.getBerryCell());
         }
     }
     
-    public void createNewBerry() {
-        this.currentBerryPoint = createBerry();
+    private void repaintCell(GridGeometry geometry, int cell) {
+        if (cell < 0) {
+            return;
+        }
+        
+        int x = cell % gridWidth;
+        int y = cell / gridWidth;
+        repaint(geometry.getCellLeft(x),
+                geometry.getCellTop(y),
+                geometry.getCellLength(), 
+                geometry.getCellLength());
     }
     
     private int checkGridWidth(int gridWidth) {
@@ -348,7 +343,7 @@ public class SnakePanel extends JPanel {
         
         return gridHeight;
     }
-
+    
     private int checkGridLineThickness(int gridLineThickness) {
         if (gridLineThickness < 0) {
             throw new IllegalArgumentException(
@@ -358,82 +353,61 @@ public class SnakePanel extends JPanel {
         
         return gridLineThickness;
     }
-
-    private Point createBerry() {
-        Point berryPoint = new Point();
-        
-        while (true) {
-            int x = random.nextInt(gridWidth);
-            int y = random.nextInt(gridHeight);
-            
-            if (this.grid[y][x].equals(GridCell.WALL)) {
-                continue;
-            }
-            
-            if (snake.occupiesPoint(x, y)) {
-                continue;
-            }
-            
-            berryPoint.x = x;
-            berryPoint.y = y;
-            return berryPoint;
-        }
-    }
     
     private static final class SnakeKeyListener implements KeyListener {
-
+        
         @Override
         public void keyTyped(KeyEvent e) {
             throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
         }
-
+        
         @Override
         public void keyPressed(KeyEvent e) {
             throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
         }
-
+        
         @Override
         public void keyReleased(KeyEvent e) {
             throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
         }
-        
+    
     }
     
     private static final class SnakeMouseListener 
             implements MouseListener, MouseMotionListener {
-
+        
         @Override
         public void mouseClicked(MouseEvent e) {
             int x = e.getX();
             int y = e.getY();
-            
+        
         }
         
         @Override
         public void mousePressed(MouseEvent e) {
         
         }
-
+        
         @Override
         public void mouseReleased(MouseEvent e) {
         
         }
-
+        
         @Override
         public void mouseEntered(MouseEvent e) {
         
         }
-
+        
         @Override
         public void mouseExited(MouseEvent e) {
         
         }
-
+        
         @Override
         public void mouseDragged(MouseEvent e) {
-            
+        
         }
-
+        
         @Override
         public void mouseMoved(MouseEvent e) {
         
@@ -0,0 +1,19 @@
+package net.coderodde.snake;
+
+/**
+ * This interface defines the API for the policies steering the snake.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@FunctionalInterface
+public interface SnakePolicy {
+    
+    /**
+     * Chooses the direction for the next step of the given game.
+     * 
+     * @param gameEngine the game to steer.
+     * @return the next direction, or {@code null} for keeping the current one.
+     */
+    MotionDirection chooseDirection(GameEngine gameEngine);
+}
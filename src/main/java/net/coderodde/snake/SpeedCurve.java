@@ -0,0 +1,63 @@
+package net.coderodde.snake;
+
+/**
+ * This class defines how the step duration of a {@link GameSession} shrinks
+ * as the snake grows: each berry eaten multiplies the duration by a constant
+ * factor until it reaches the minimum.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SpeedCurve {
+    
+    private final long initialStepNanos;
+    private final long minimumStepNanos;
+    private final double factor;
+    
+    /**
+     * Constructs a speed curve.
+     * 
+     * @param initialStepNanos the step duration before any berry is eaten.
+     * @param minimumStepNanos the smallest step duration reached.
+     * @param factor           the factor within {@code (0, 1]} applied per
+     *                         berry eaten.
+     */
+    public SpeedCurve(long initialStepNanos,
+                      long minimumStepNanos,
+                      double factor) {
+        if (minimumStepNanos < 1L || initialStepNanos < minimumStepNanos) {
+            throw new IllegalArgumentException(
+                    "The step durations (" + initialStepNanos + ", " +
+                    minimumStepNanos + ") must be positive and in " +
+                    "decreasing order.");
+        }
+        
+        if (!(factor > 0.0 && factor <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "The factor " + factor + " is not within (0, 1].");
+        }
+        
+        this.initialStepNanos = initialStepNanos;
+        this.minimumStepNanos = minimumStepNanos;
+        this.factor = factor;
+    }
+    
+    /**
+     * Returns the step duration after the given number of berries.
+     * 
+     * @param berriesEaten the number of berries eaten.
+     * @return the step duration in nanoseconds.
+     */
+    public long getStepDurationNanos(int berriesEaten) {
+        double stepNanos = initialStepNanos * Math.pow(factor, berriesEaten);
+        return Math.max(minimumStepNanos, (long) stepNanos);
+    }
+    
+    public long getInitialStepNanos() {
+        return initialStepNanos;
+    }
+    
+    public long getMinimumStepNanos() {
+        return minimumStepNanos;
+    }
+}
@@ -0,0 +1,47 @@
+package net.coderodde.snake;
+
+/**
+ * This enumeration specifies the outcome of a single game step.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public enum StepOutcome {
+    
+    /**
+     * The snake moved one cell forward.
+     */
+    MOVED,
+    
+    /**
+     * The snake ate the berry, grew by one compartment and moved forward.
+     */
+    GREW,
+    
+    /**
+     * The snake ran into a wall. The game is over.
+     */
+    WALL_COLLISION,
+    
+    /**
+     * The snake ran into its own body. The game is over.
+     */
+    SELF_COLLISION,
+    
+    /**
+     * The snake ran into another snake in an {@link Arena}. The snake is 
+     * out of the game.
+     */
+    SNAKE_COLLISION;
+    
+    /**
+     * Tells whether this outcome ends the game.
+     * 
+     * @return {@code true} if no further steps are possible.
+     */
+    public boolean isTerminal() {
+        return this == WALL_COLLISION 
+            || this == SELF_COLLISION 
+            || this == SNAKE_COLLISION;
+    }
+}
@@ -0,0 +1,387 @@
+package net.coderodde.snake;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements an append-only log of the ticks of a game in a 
+ * memory-mapped file. Each tick takes a fixed-size record holding the 
+ * applied direction, the outcome, the head cell, the berry cell and the 
+ * length of the snake, so any tick can be read in place by its index.
+ * 
+ * <p>Appending writes into the mapped pages only: there is no allocation and
+ * no system call per tick, except for syncing the mapping to the disk once
+ * per {@code syncInterval} ticks. A record starts with a non-zero marker, so
+ * on reopening, the log ends at the first record that never reached the 
+ * disk; with the default interval, a crash loses at most the last page. The
+ * markers after the end are cleared on reopening, so that the records 
+ * lost in a crash never come back after a later one.
+ * 
+ * <p>A log is not thread-safe; it is meant to be registered as a 
+ * {@link GameEngineListener} and read by the same thread or after the game
+ * loop stops.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TickLog implements GameEngineListener, Closeable {
+    
+    /**
+     * The magic number starting each log file ("SNKL").
+     */
+    private static final int MAGIC = 0x534E4B4C;
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    /**
+     * The size of the file header in bytes.
+     */
+    private static final int HEADER_SIZE = 64;
+    
+    /**
+     * The size of a tick record in bytes.
+     */
+    static final int RECORD_SIZE = 16;
+    
+    /**
+     * The size of a mapped region of the file in bytes, 1 MiB. Syncing a 
+     * mapping walks all of its pages, so small regions keep the periodic 
+     * syncs cheap.
+     */
+    private static final int REGION_SIZE = 1 << 20;
+    
+    private static final int RECORDS_PER_REGION = REGION_SIZE / RECORD_SIZE;
+    
+    /**
+     * The number of records in a page of 4 KiB. Syncing once per page 
+     * bounds the loss in a crash to a page.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 4096 / RECORD_SIZE;
+    
+    private static final int MARKER_OFFSET = 0;
+    private static final int DIRECTION_OFFSET = 1;
+    private static final int HEAD_CELL_OFFSET = 4;
+    private static final int BERRY_CELL_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 12;
+    
+    private static final MotionDirection[] MOTION_DIRECTIONS = 
+            MotionDirection.values();
+    
+    private static final StepOutcome[] STEP_OUTCOMES = StepOutcome.values();
+    
+    private final FileChannel fileChannel;
+    
+    /**
+     * The mapped regions of the file. The region {@code i} covers the file 
+     * bytes from {@code i * REGION_SIZE} on.
+     */
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int syncInterval;
+    private long tickCount;
+    
+    private TickLog(FileChannel fileChannel, 
+                    int gridWidth, 
+                    int gridHeight,
+                    int syncInterval) {
+        this.fileChannel = fileChannel;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.syncInterval = syncInterval;
+    }
+    
+    /**
+     * Opens the log at the given path for appending, creating it if needed.
+     * An existing log continues after its last complete record.
+     * 
+     * @param path         the path of the log file.
+     * @param gridWidth    the width of the grid of the logged game.
+     * @param gridHeight   the height of the grid of the logged game.
+     * @param syncInterval the number of ticks between two syncs to the disk,
+     *                     or zero for leaving the syncing to the OS.
+     * @return the opened log.
+     * @throws IOException if the file cannot be opened or belongs to a 
+     *                     different grid.
+     */
+    public static TickLog open(Path path, 
+                               int gridWidth, 
+                               int gridHeight, 
+                               int syncInterval) throws IOException {
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException(
+                    "The sync interval (" + syncInterval + 
+                    ") may not be negative.");
+        }
+        
+        FileChannel fileChannel = FileChannel.open(path, 
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE);
+        
+        try {
+            TickLog tickLog = new TickLog(fileChannel, 
+                                          gridWidth, 
+                                          gridHeight,
+                                          syncInterval);
+            MappedByteBuffer firstRegion = tickLog.getRegion(0);
+            
+            if (firstRegion.getInt(0) == 0) {
+                firstRegion.putInt(0, MAGIC);
+                firstRegion.putInt(4, FORMAT_VERSION);
+                firstRegion.putInt(8, RECORD_SIZE);
+                firstRegion.putInt(12, gridWidth);
+                firstRegion.putInt(16, gridHeight);
+                firstRegion.force();
+            } else {
+                tickLog.checkHeader(firstRegion);
+                tickLog.recoverTickCount();
+            }
+            
+            return tickLog;
+        } catch (IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Opens the log at the given path with the default sync interval.
+     * 
+     * @param path       the path of the log file.
+     * @param gridWidth  the width of the grid of the logged game.
+     * @param gridHeight the height of the grid of the logged game.
+     * @return the opened log.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static TickLog open(Path path, int gridWidth, int gridHeight) 
+            throws IOException {
+        return open(path, gridWidth, gridHeight, DEFAULT_SYNC_INTERVAL);
+    }
+    
+    @Override
+    public void onStep(GameEngine gameEngine, StepOutcome outcome) {
+        Snake snake = gameEngine.getSnake();
+        append(snake.getDirection(),
+               outcome,
+               snake.getHeadCell(),
+               gameEngine.getBerryCell(),
+               snake.size());
+    }
+    
+    /**
+     * Appends a tick record.
+     * 
+     * @param direction the direction applied on the tick.
+     * @param outcome   the outcome of the tick.
+     * @param headCell  the head cell after the tick.
+     * @param berryCell the berry cell after the tick.
+     * @param length    the length of the snake after the tick.
+     */
+    public void append(MotionDirection direction,
+                       StepOutcome outcome,
+                       int headCell,
+                       int berryCell,
+                       int length) {
+        long offset = getRecordOffset(tickCount);
+        MappedByteBuffer region;
+        
+        try {
+            region = getRegion((int)(offset / REGION_SIZE));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        
+        int position = (int)(offset % REGION_SIZE);
+        region.put(position + DIRECTION_OFFSET, 
+                   (byte) direction.ordinal());
+        region.putInt(position + HEAD_CELL_OFFSET, headCell);
+        region.putInt(position + BERRY_CELL_OFFSET, berryCell);
+        region.putInt(position + LENGTH_OFFSET, length);
+        // The marker goes last, so a visible marker means a whole record.
+        region.put(position + MARKER_OFFSET, (byte)(outcome.ordinal() + 1));
+        tickCount++;
+        
+        if (syncInterval > 0 && tickCount % syncInterval == 0L) {
+            region.force();
+        }
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    public int getGridWidth() {
+        return gridWidth;
+    }
+    
+    public int getGridHeight() {
+        return gridHeight;
+    }
+    
+    /**
+     * Returns the direction applied on the given tick. The other getters 
+     * read the other fields of the record the same way.
+     * 
+     * @param tick the index of the tick.
+     * @return the direction.
+     * @throws IndexOutOfBoundsException if the tick is not within 
+     *                                   {@code [0, getTickCount())}.
+     */
+    public MotionDirection getDirection(long tick) {
+        return MOTION_DIRECTIONS[getRecordRegion(tick)
+                .get(getRecordPosition(tick) + DIRECTION_OFFSET)];
+    }
+    
+    public StepOutcome getOutcome(long tick) {
+        return STEP_OUTCOMES[getRecordRegion(tick)
+                .get(getRecordPosition(tick) + MARKER_OFFSET) - 1];
+    }
+    
+    public int getHeadCell(long tick) {
+        return getRecordRegion(tick)
+                .getInt(getRecordPosition(tick) + HEAD_CELL_OFFSET);
+    }
+    
+    public int getBerryCell(long tick) {
+        return getRecordRegion(tick)
+                .getInt(getRecordPosition(tick) + BERRY_CELL_OFFSET);
+    }
+    
+    public int getLength(long tick) {
+        return getRecordRegion(tick)
+                .getInt(getRecordPosition(tick) + LENGTH_OFFSET);
+    }
+    
+    /**
+     * Syncs all appended records to the disk.
+     */
+    public void force() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        fileChannel.close();
+    }
+    
+    private static long getRecordOffset(long tick) {
+        return HEADER_SIZE + tick * RECORD_SIZE;
+    }
+    
+    private MappedByteBuffer getRecordRegion(long tick) {
+        checkTick(tick);
+        return regions.get((int)(getRecordOffset(tick) / REGION_SIZE));
+    }
+    
+    private static int getRecordPosition(long tick) {
+        return (int)(getRecordOffset(tick) % REGION_SIZE);
+    }
+    
+    private void checkTick(long tick) {
+        if (tick < 0L || tick >= tickCount) {
+            throw new IndexOutOfBoundsException(
+                    "The tick " + tick + " is not within [0, " + tickCount + 
+                    ").");
+        }
+    }
+    
+    /**
+     * Returns the given region, mapping it and all the regions before it if
+     * needed. Mapping a region past the end of the file extends the file.
+     */
+    private MappedByteBuffer getRegion(int regionIndex) throws IOException {
+        while (regions.size() <= regionIndex) {
+            if (!regions.isEmpty()) {
+                // The previous region is complete.
+                regions.get(regions.size() - 1).force();
+            }
+            
+            MappedByteBuffer region = 
+                    fileChannel.map(FileChannel.MapMode.READ_WRITE, 
+                                    (long) regions.size() * REGION_SIZE,
+                                    REGION_SIZE);
+            region.order(ByteOrder.LITTLE_ENDIAN);
+            regions.add(region);
+        }
+        
+        return regions.get(regionIndex);
+    }
+    
+    private void checkHeader(MappedByteBuffer firstRegion) throws IOException {
+        if (firstRegion.getInt(0) != MAGIC
+                || firstRegion.getInt(4) != FORMAT_VERSION
+                || firstRegion.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not a tick log.");
+        }
+        
+        if (firstRegion.getInt(12) != gridWidth 
+                || firstRegion.getInt(16) != gridHeight) {
+            throw new IOException("The tick log belongs to a grid of size " + 
+                                  firstRegion.getInt(12) + "x" + 
+                                  firstRegion.getInt(16) + ".");
+        }
+    }
+    
+    /**
+     * Finds the first record without a marker. The records after it, if 
+     * any, are considered lost.
+     */
+    private void recoverTickCount() throws IOException {
+        long fileSize = fileChannel.size();
+        tickCount = 0L;
+        
+        while (getRecordOffset(tickCount) + RECORD_SIZE <= fileSize) {
+            long offset = getRecordOffset(tickCount);
+            MappedByteBuffer region = getRegion((int)(offset / REGION_SIZE));
+            int position = (int)(offset % REGION_SIZE);
+            byte marker = region.get(position + MARKER_OFFSET);
+            
+            if (marker <= 0 || marker > STEP_OUTCOMES.length) {
+                break;
+            }
+            
+            tickCount++;
+        }
+        
+        clearMarkers(fileSize);
+    }
+    
+    /**
+     * Clears the markers of the record slots from the end of the log to the
+     * end of the file. Otherwise, once the next records fill the gap left by
+     * a crash, reopening would take the stale records behind the gap for a 
+     * part of the log.
+     */
+    private void clearMarkers(long fileSize) throws IOException {
+        boolean cleared = false;
+        
+        for (long offset = getRecordOffset(tickCount); 
+                offset + RECORD_SIZE <= fileSize; 
+                offset += RECORD_SIZE) {
+            MappedByteBuffer region = getRegion((int)(offset / REGION_SIZE));
+            int position = (int)(offset % REGION_SIZE) + MARKER_OFFSET;
+            
+            if (region.get(position) != 0) {
+                region.put(position, (byte) 0);
+                cleared = true;
+            }
+        }
+        
+        if (cleared) {
+            force();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package net.coderodde.snake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AStarSnakePolicyTest {
+    
+    /**
+     * The only route to the berry leads west around the walls and through
+     * the body cell {@code f}, reached on the 11th step. The snake of length
+     * 15 leaves {@code f} after 10 steps. The greedy fallback would turn
+     * east into the dead end.
+     */
+    private static final String[] OPEN_LAYOUT = {
+        "......#",
+        ".####.#",
+        ".a.##.#",
+        "#bcdef*",
+        ".####g#",
+        "o####h#",
+        "nmlkji#",
+    };
+    
+    /**
+     * The same layout with the snake one compartment longer, so the head
+     * would arrive at {@code f} on the step the tail leaves it.
+     */
+    private static final String[] EARLY_LAYOUT = {
+        "......#",
+        ".####.#",
+        ".a.##.#",
+        "#bcdef*",
+        "p####g#",
+        "o####h#",
+        "nmlkji#",
+    };
+    
+    @Test
+    public void testRouteOpensBehindTail() {
+        GameEngine gameEngine = createGameEngine(OPEN_LAYOUT);
+        assertEquals(MotionDirection.WEST,
+                     new AStarSnakePolicy().chooseDirection(gameEngine));
+    }
+    
+    @Test
+    public void testRouteOpensOneStepTooLate() {
+        GameEngine gameEngine = createGameEngine(EARLY_LAYOUT);
+        // Neither the berry nor the tail is reachable, so the policy falls
+        // back to the greedy move.
+        assertEquals(MotionDirection.EAST,
+                     new AStarSnakePolicy().chooseDirection(gameEngine));
+    }
+    
+    /**
+     * The snake of {@link #OPEN_LAYOUT} with its head on the berry. It grows
+     * on the next step, so {@code f} opens one step too late for the route 
+     * west to reach the tail.
+     */
+    private static final String[] GROWING_LAYOUT = {
+        "......#",
+        ".####.#",
+        ".A.##.#",
+        "#bcdef.",
+        ".####g#",
+        "o####h#",
+        "nmlkji#",
+    };
+    
+    @Test
+    public void testRouteClosesWhileGrowing() {
+        GameEngine gameEngine = createGameEngine(GROWING_LAYOUT);
+        // The tail is not reachable, so the policy falls back to the greedy
+        // move.
+        assertEquals(MotionDirection.EAST,
+                     new AStarSnakePolicy().chooseDirection(gameEngine));
+    }
+    
+    @Test
+    public void testGenerationWrapsAround() {
+        GameEngine gameEngine = createGameEngine(OPEN_LAYOUT);
+        AStarSnakePolicy policy = new AStarSnakePolicy();
+        assertEquals(MotionDirection.WEST, policy.chooseDirection(gameEngine));
+        
+        // The next search wraps around to generation 0, which every 
+        // unreached cell carries. Without clearing the stamps, the search 
+        // would also meet the stamps of generation 1 from the first search.
+        policy.generation = -1;
+        assertEquals(MotionDirection.WEST, policy.chooseDirection(gameEngine));
+        // A single search found the berry instead of falling back to the 
+        // tail.
+        assertEquals(1, policy.generation);
+        assertEquals(MotionDirection.WEST, policy.chooseDirection(gameEngine));
+    }
+    
+    @Test
+    public void testAStarPolicyOutgrowsGreedyPolicy() {
+        int greedyLength = 0;
+        int aStarLength = 0;
+        
+        for (long seed = 0L; seed < 5L; seed++) {
+            greedyLength += play(new GreedySnakePolicy(), seed);
+            aStarLength += play(new AStarSnakePolicy(), seed);
+        }
+        
+        assertTrue(aStarLength > greedyLength);
+    }
+    
+    private static int play(SnakePolicy policy, long seed) {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(seed));
+        
+        while (!gameEngine.isGameOver() && gameEngine.getStepCount() < 20000) {
+            gameEngine.step(policy.chooseDirection(gameEngine));
+        }
+        
+        return gameEngine.getSnake().size();
+    }
+    
+    /**
+     * Creates an engine from a layout: {@code #} is a wall, {@code *} the
+     * berry and the letters from {@code a} on the snake from the head to the
+     * tail, with {@code A} marking a head on the berry. The snake moves 
+     * north.
+     */
+    private static GameEngine createGameEngine(String[] layout) {
+        int gridWidth = layout[0].length();
+        int gridHeight = layout.length;
+        GameGrid grid = new GameGrid(gridWidth, gridHeight);
+        SnakeCompartment[] compartments = new SnakeCompartment[26];
+        int length = 0;
+        int berryCell = -1;
+        
+        for (int y = 0; y < gridHeight; y++) {
+            for (int x = 0; x < gridWidth; x++) {
+                char c = layout[y].charAt(x);
+                
+                if (c == '#') {
+                    grid.setCell(x, y, GridCell.WALL);
+                } else if (c == '*') {
+                    berryCell = y * gridWidth + x;
+                } else if (c == 'A') {
+                    berryCell = y * gridWidth + x;
+                    compartments[0] =
+                            new SnakeCompartment(MotionDirection.NORTH, x, y);
+                } else if (c >= 'a' && c <= 'z') {
+                    compartments[c - 'a'] =
+                            new SnakeCompartment(MotionDirection.NORTH, x, y);
+                    length = Math.max(length, c - 'a' + 1);
+                }
+            }
+        }
+        
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>();
+        
+        for (int i = 0; i < length; i++) {
+            snakeCompartmentList.add(compartments[i]);
+        }
+        
+        Snake snake = new Snake(snakeCompartmentList,
+                                MotionDirection.NORTH,
+                                gridWidth,
+                                gridHeight);
+        return new GameEngine(grid, snake, new Random(0L), berryCell, 0L, null);
+    }
+}
@@ -0,0 +1,250 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ArenaServerTest {
+    
+    @Test
+    public void testViewsFollowArena() throws IOException {
+        Arena arena = ArenaServer.createArena(100, 40, 3L);
+        ArenaFrameEncoder encoder = new ArenaFrameEncoder(arena, 16);
+        int[] snakeIds = { 0, 17, 39, -1 };
+        ArenaSubscription[] subscriptions =
+                new ArenaSubscription[snakeIds.length];
+        ArenaView[] views = new ArenaView[snakeIds.length];
+        int[] centerChunks = new int[snakeIds.length];
+        ByteBuffer[] buffers =
+                new ByteBuffer[ArenaSubscription.MAXIMUM_FRAME_BUFFERS];
+        
+        for (int i = 0; i < snakeIds.length; i++) {
+            subscriptions[i] = new ArenaSubscription();
+            views[i] = new ArenaView();
+            encoder.encodeHello(subscriptions[i].getHeader(), snakeIds[i]);
+            buffers[0] = subscriptions[i].getHeader();
+            views[i].apply(concatenate(buffers, 1));
+            assertEquals(snakeIds[i], views[i].getSnakeId());
+            centerChunks[i] = encoder.getChunk(50 * 100 + 50);
+        }
+        
+        Random random = new Random(4L);
+        MotionDirection[] directions = new MotionDirection[40];
+        
+        for (int tick = 0; tick < 300 && arena.getAliveCount() > 0; tick++) {
+            Arena.chooseDirections(arena, random, directions);
+            encoder.beginTick();
+            arena.tick(directions);
+            encoder.finishTick();
+            
+            for (int i = 0; i < snakeIds.length; i++) {
+                int id = snakeIds[i];
+                
+                if (id >= 0 && arena.isAlive(id)) {
+                    centerChunks[i] = encoder.getChunk(
+                            arena.getSnake(id).getHeadCell());
+                }
+                
+                // Now and then a client misses a frame.
+                if ((tick + i) % 13 == 0) {
+                    subscriptions[i].markStale();
+                    continue;
+                }
+                
+                int bufferCount = subscriptions[i].assembleFrame(
+                        encoder,
+                        arena.getTickCount(),
+                        centerChunks[i],
+                        buffers);
+                views[i].apply(concatenate(buffers, bufferCount));
+                assertEquals(arena.getTickCount(), views[i].getTickCount());
+                assertViewMatches(arena, encoder, centerChunks[i], views[i]);
+            }
+        }
+    }
+    
+    @Test
+    public void testServerStreamsFrames() throws IOException {
+        Arena arena = ArenaServer.createArena(64, 10, 1L);
+        
+        try (ArenaServer arenaServer = new ArenaServer(arena, 16, 5L)) {
+            arenaServer.setSteeringIdleSnakes(true);
+            int port = arenaServer.start(0);
+            
+            try (SocketChannel socketChannel = SocketChannel.open(
+                    new InetSocketAddress("127.0.0.1", port))) {
+                ArenaView arenaView = new ArenaView();
+                arenaView.apply(readFrame(socketChannel));
+                assertEquals(0, arenaView.getSnakeId());
+                assertEquals(64, arenaView.getWidth());
+                
+                socketChannel.write(ByteBuffer.wrap(new byte[] { 2 }));
+                long previousTick = -1L;
+                
+                for (int i = 0; i < 20; i++) {
+                    arenaView.apply(readFrame(socketChannel));
+                    assertTrue(arenaView.getTickCount() > previousTick);
+                    previousTick = arenaView.getTickCount();
+                }
+                
+                assertTrue(arenaView.isViewed(0, 0));
+                assertEquals(1, arenaServer.getClientCount());
+            }
+        }
+    }
+    
+    @Test
+    public void testSnakesReturnToPool() throws IOException {
+        Arena arena = ArenaServer.createArena(64, 1, 1L);
+        
+        try (ArenaServer arenaServer = new ArenaServer(arena, 16, 5L)) {
+            // The snakes added before starting are handed out too.
+            arena.addSnake(40, 40, MotionDirection.EAST, 4);
+            int port = arenaServer.start(0);
+            InetSocketAddress address =
+                    new InetSocketAddress("127.0.0.1", port);
+            
+            try (SocketChannel first = SocketChannel.open(address);
+                    SocketChannel second = SocketChannel.open(address)) {
+                assertEquals(0, readSnakeId(first));
+                assertEquals(1, readSnakeId(second));
+                
+                try (SocketChannel spectator = SocketChannel.open(address)) {
+                    assertEquals(-1, readSnakeId(spectator));
+                }
+                
+                second.close();
+                long timeout = System.currentTimeMillis() + 5000L;
+                
+                while (arenaServer.getClientCount() > 1
+                        && System.currentTimeMillis() < timeout) {
+                    readFrame(first);
+                }
+                
+                try (SocketChannel third = SocketChannel.open(address)) {
+                    assertEquals(1, readSnakeId(third));
+                    
+                    // The server keeps streaming to the other client.
+                    for (int i = 0; i < 5; i++) {
+                        readFrame(first);
+                    }
+                }
+            }
+            
+            assertEquals(0L, arenaServer.getAcceptFailures());
+        }
+    }
+    
+    @Test
+    public void testDeadSnakesDoNotReturnToPool() 
+            throws IOException, InterruptedException {
+        Arena arena = new Arena(new GameGrid(16, 16), 0, new Random(1L));
+        // The snake hits the east border on the third tick.
+        arena.addSnake(13, 8, MotionDirection.EAST, 3);
+        
+        try (ArenaServer arenaServer = new ArenaServer(arena, 16, 5L)) {
+            int port = arenaServer.start(0);
+            InetSocketAddress address =
+                    new InetSocketAddress("127.0.0.1", port);
+            
+            try (SocketChannel first = SocketChannel.open(address)) {
+                assertEquals(0, readSnakeId(first));
+                
+                while (arenaServer.getTickCount() < 3L) {
+                    readFrame(first);
+                }
+            }
+            
+            long timeout = System.currentTimeMillis() + 5000L;
+            
+            while (arenaServer.getClientCount() > 0
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(1L);
+            }
+            
+            try (SocketChannel second = SocketChannel.open(address)) {
+                assertEquals(-1, readSnakeId(second));
+            }
+        }
+    }
+    
+    private static int readSnakeId(SocketChannel socketChannel)
+            throws IOException {
+        ArenaView arenaView = new ArenaView();
+        arenaView.apply(readFrame(socketChannel));
+        return arenaView.getSnakeId();
+    }
+    
+    private static void assertViewMatches(Arena arena,
+                                          ArenaFrameEncoder encoder,
+                                          int centerChunk,
+                                          ArenaView arenaView) {
+        int chunksPerRow = encoder.getChunksPerRow();
+        int width = arena.getGrid().getWidth();
+        
+        for (int y = 0; y < arena.getGrid().getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                int chunk = encoder.getChunk(y * width + x);
+                boolean viewed =
+                        Math.abs(chunk % chunksPerRow -
+                                 centerChunk % chunksPerRow) <= 1 &&
+                        Math.abs(chunk / chunksPerRow -
+                                 centerChunk / chunksPerRow) <= 1;
+                assertEquals(viewed, arenaView.isViewed(x, y));
+                assertEquals(viewed ? arena.getOwner(x, y) : -1,
+                             arenaView.getOwner(x, y));
+                assertEquals(viewed && arena.isBerryAt(x, y),
+                             arenaView.isBerryAt(x, y));
+            }
+        }
+    }
+    
+    /**
+     * Copies a frame into a single buffer, skipping and checking its length,
+     * and rewinds the shared sections the way the server does.
+     */
+    private static ByteBuffer concatenate(ByteBuffer[] buffers, int count) {
+        int size = 0;
+        
+        for (int i = 0; i < count; i++) {
+            size += buffers[i].remaining();
+        }
+        
+        ByteBuffer frame = ByteBuffer.allocate(size);
+        
+        for (int i = 0; i < count; i++) {
+            frame.put(buffers[i]);
+            
+            if (i > 0) {
+                buffers[i].rewind();
+            }
+        }
+        
+        frame.flip();
+        assertEquals(size - 4, frame.getInt());
+        return frame;
+    }
+    
+    private static ByteBuffer readFrame(SocketChannel socketChannel)
+            throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(socketChannel, lengthBuffer);
+        ByteBuffer frame = ByteBuffer.allocate(lengthBuffer.getInt(0));
+        readFully(socketChannel, frame);
+        frame.flip();
+        return frame;
+    }
+    
+    private static void readFully(SocketChannel socketChannel,
+                                  ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (socketChannel.read(buffer) < 0) {
+                throw new IOException("The server closed the connection.");
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ArenaTest {
+    
+    @Test
+    public void testHeadToHeadKillsBoth() {
+        Arena arena = new Arena(new GameGrid(10, 3), 0, new Random(1L));
+        int left = arena.addSnake(2, 1, MotionDirection.EAST, 3);
+        int right = arena.addSnake(4, 1, MotionDirection.WEST, 3);
+        int other = arena.addSnake(9, 0, MotionDirection.SOUTH, 1);
+        
+        assertEquals(2, arena.tick(null));
+        assertEquals(StepOutcome.SNAKE_COLLISION, arena.getOutcome(left));
+        assertEquals(StepOutcome.SNAKE_COLLISION, arena.getOutcome(right));
+        assertEquals(StepOutcome.MOVED, arena.getOutcome(other));
+        assertEquals(1, arena.getAliveCount());
+        
+        // The bodies of the dead snakes are cleared.
+        for (int x = 0; x < 9; x++) {
+            assertEquals(-1, arena.getOwner(x, 1));
+        }
+        
+        assertEquals(other, arena.getOwner(9, 1));
+    }
+    
+    @Test
+    public void testTailsBlockHeads() {
+        Arena arena = new Arena(new GameGrid(10, 3), 0, new Random(1L));
+        // The first snake runs into the tail of the second one, which moves
+        // away on the same tick.
+        int first = arena.addSnake(2, 0, MotionDirection.EAST, 3);
+        int second = arena.addSnake(5, 0, MotionDirection.EAST, 3);
+        
+        assertEquals(1, arena.tick(null));
+        assertEquals(StepOutcome.SNAKE_COLLISION, arena.getOutcome(first));
+        assertEquals(StepOutcome.MOVED, arena.getOutcome(second));
+        assertEquals(second, arena.getOwner(6, 0));
+        assertEquals(-1, arena.getOwner(3, 0));
+    }
+    
+    @Test
+    public void testSnakeGrowsAfterEating() {
+        Arena arena = new Arena(new GameGrid(12, 1), 1, new Random(1L));
+        int id = arena.addSnake(0, 0, MotionDirection.EAST, 1);
+        
+        while (arena.getOutcome(id) != StepOutcome.GREW) {
+            arena.tick(null);
+            assertTrue(arena.isAlive(id));
+        }
+        
+        assertEquals(2, arena.getSnake(id).size());
+    }
+    
+    @Test
+    public void testSnakesKeepNoOccupancyIndex() {
+        Arena arena = createBotArena();
+        Random random = new Random(4L);
+        MotionDirection[] directions =
+                new MotionDirection[arena.getSnakeCount()];
+        
+        for (int tick = 0; tick < 50; tick++) {
+            Arena.chooseDirections(arena, random, directions);
+            arena.tick(directions);
+        }
+        
+        // A grid-sized index per snake would take the memory of the arena to 
+        // the number of snakes times the number of cells.
+        for (int id = 0; id < arena.getSnakeCount(); id++) {
+            assertFalse(arena.getSnake(id).hasOccupancyIndex());
+        }
+        
+        // Querying a snake builds its index from the body.
+        int id = 0;
+        
+        while (!arena.isAlive(id)) {
+            id++;
+        }
+        
+        Snake snake = arena.getSnake(id);
+        
+        for (int y = 0; y < 128; y++) {
+            for (int x = 0; x < 128; x++) {
+                assertEquals(arena.getOwner(x, y) == id, 
+                             snake.occupiesPoint(x, y));
+            }
+        }
+        
+        assertTrue(snake.hasOccupancyIndex());
+    }
+    
+    @Test
+    public void testResolutionDoesNotDependOnOrder() {
+        int botCount = 300;
+        Arena forward = new Arena(new GameGrid(64, 64), 0, new Random(1L));
+        Arena backward = new Arena(new GameGrid(64, 64), 0, new Random(1L));
+        
+        for (int i = 0; i < botCount; i++) {
+            forward.addSnake(4 * (i % 15) + 3, 2 * (i / 15), 
+                             MotionDirection.EAST, 3);
+        }
+        
+        for (int i = botCount - 1; i >= 0; i--) {
+            backward.addSnake(4 * (i % 15) + 3, 2 * (i / 15), 
+                              MotionDirection.EAST, 3);
+        }
+        
+        Random random = new Random(2L);
+        MotionDirection[] directions = new MotionDirection[botCount];
+        MotionDirection[] reversedDirections = new MotionDirection[botCount];
+        
+        for (int tick = 0; tick < 200; tick++) {
+            Arena.chooseDirections(forward, random, directions);
+            
+            for (int i = 0; i < botCount; i++) {
+                reversedDirections[botCount - 1 - i] = directions[i];
+            }
+            
+            assertEquals(forward.tick(directions), 
+                         backward.tick(reversedDirections));
+            
+            for (int i = 0; i < botCount; i++) {
+                int j = botCount - 1 - i;
+                assertEquals(forward.getOutcome(i), backward.getOutcome(j));
+                
+                if (forward.isAlive(i)) {
+                    assertEquals(forward.getSnake(i).getHeadCell(),
+                                 backward.getSnake(j).getHeadCell());
+                }
+            }
+        }
+        
+        assertTrue(forward.getAliveCount() < botCount);
+    }
+    
+    @Test
+    public void testParallelTickMatchesSequentialTick() {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        
+        try {
+            Arena sequential = createBotArena();
+            Arena parallel = createBotArena();
+            Random random = new Random(4L);
+            MotionDirection[] directions = 
+                    new MotionDirection[sequential.getSnakeCount()];
+            
+            for (int tick = 0; tick < 300; tick++) {
+                Arena.chooseDirections(sequential, random, directions);
+                assertEquals(sequential.tick(directions), 
+                             parallel.tick(directions, forkJoinPool));
+                
+                for (int y = 0; y < 128; y++) {
+                    for (int x = 0; x < 128; x++) {
+                        assertEquals(sequential.getOwner(x, y), 
+                                     parallel.getOwner(x, y));
+                        assertEquals(sequential.isBerryAt(x, y), 
+                                     parallel.isBerryAt(x, y));
+                    }
+                }
+            }
+            
+            assertTrue(sequential.getAliveCount() > 0);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+    
+    private static Arena createBotArena() {
+        Arena arena = new Arena(new GameGrid(128, 128), 500, new Random(3L));
+        
+        for (int i = 0; i < 3000; i++) {
+            arena.addSnake(4 * (i % 32) + 2, 
+                           (i / 32) + (i / 32) / 3, 
+                           MotionDirection.EAST, 
+                           3);
+        }
+        
+        return arena;
+    }
+}
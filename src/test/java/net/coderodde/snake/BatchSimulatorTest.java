@@ -0,0 +1,89 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BatchSimulatorTest {
+    
+    @Test
+    public void testResultsDoNotDependOnParallelism() {
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        
+        try {
+            BatchResult sequentialResult = 
+                    new BatchSimulator(sequentialPool)
+                            .run(200, 12, 12, 7L, 2_000L, GreedySnakePolicy::new);
+            BatchResult parallelResult = 
+                    new BatchSimulator(parallelPool)
+                            .run(200, 12, 12, 7L, 2_000L, GreedySnakePolicy::new);
+            
+            assertEquals(200, sequentialResult.getGameCount());
+            assertEquals(200, sequentialResult.getWallCollisions() +
+                              sequentialResult.getSelfCollisions() +
+                              sequentialResult.getStepLimitReached() +
+                              sequentialResult.getBoardsFilled());
+            assertEquals(sequentialResult.getTotalSteps(), 
+                         parallelResult.getTotalSteps());
+            assertEquals(sequentialResult.getSelfCollisions(),
+                         parallelResult.getSelfCollisions());
+            assertEquals(sequentialResult.getMaximumLength(),
+                         parallelResult.getMaximumLength());
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testEvaluatorRanksPolicies() throws IOException {
+        Map<String, BatchResult> results = 
+                new PolicyEvaluator(new BatchSimulator())
+                        .addPolicy("greedy", GreedySnakePolicy::new)
+                        .addPolicy("hamiltonian", HamiltonianSnakePolicy::new)
+                        .evaluate(20, 10, 10, 3L, 50_000L);
+        
+        assertEquals("hamiltonian", results.keySet().iterator().next());
+        BatchResult greedyResult = results.get("greedy");
+        assertTrue(greedyResult.getLengthPercentile(0.0) <= 
+                   greedyResult.getLengthPercentile(50.0));
+        assertTrue(greedyResult.getLengthPercentile(50.0) <= 
+                   greedyResult.getLengthPercentile(100.0));
+        assertEquals(greedyResult.getMaximumLength(), 
+                     greedyResult.getLengthPercentile(100.0));
+        
+        // The Hamiltonian policy fills every board, which ends the game in a
+        // collision that is not counted as a death.
+        BatchResult hamiltonianResult = results.get("hamiltonian");
+        assertEquals(100, hamiltonianResult.getLengthPercentile(1.0));
+        assertEquals(20, hamiltonianResult.getBoardsFilled());
+        assertEquals(0, hamiltonianResult.getSelfCollisions());
+        assertEquals(-1L, hamiltonianResult.getStepsToDeathPercentile(50.0));
+        
+        StringBuilder csv = new StringBuilder();
+        PolicyEvaluator.writeCsv(results, csv);
+        assertFalse(csv.toString().contains("\r"));
+        String[] rows = csv.toString().split("\n");
+        assertEquals(3, rows.length);
+        assertEquals(PolicyEvaluator.CSV_HEADER, rows[0]);
+        assertTrue(rows[1].startsWith("hamiltonian,20,"));
+        assertEquals(rows[0].split(",").length, rows[2].split(",").length);
+    }
+    
+    @Test
+    public void testCsvQuotesPolicyNames() throws IOException {
+        Map<String, BatchResult> results = 
+                new PolicyEvaluator(new BatchSimulator())
+                        .addPolicy("greedy, \"plain\"", GreedySnakePolicy::new)
+                        .evaluate(2, 8, 8, 3L, 1_000L);
+        
+        StringBuilder csv = new StringBuilder();
+        PolicyEvaluator.writeCsv(results, csv);
+        String[] rows = csv.toString().split("\n");
+        assertEquals(2, rows.length);
+        assertTrue(rows[1].startsWith("\"greedy, \"\"plain\"\"\",2,"));
+    }
+}
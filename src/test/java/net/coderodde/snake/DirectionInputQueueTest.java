@@ -0,0 +1,102 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DirectionInputQueueTest {
+    
+    @Test
+    public void testQuickTurnsApplyOnConsecutiveSteps() {
+        GameSession gameSession = 
+                new GameSession(new GameEngine(10, 10, new Random(1L)));
+        Snake snake = gameSession.getGameEngine().getSnake();
+        
+        // The snake moves east; both turns of a U-turn are kept.
+        assertTrue(gameSession.requestDirection(MotionDirection.SOUTH));
+        assertTrue(gameSession.requestDirection(MotionDirection.WEST));
+        assertEquals(StepOutcome.MOVED, gameSession.tick());
+        assertEquals(MotionDirection.SOUTH, snake.getDirection());
+        assertEquals(StepOutcome.MOVED, gameSession.tick());
+        assertEquals(MotionDirection.WEST, snake.getDirection());
+    }
+    
+    @Test
+    public void testReversalIsRejected() {
+        GameSession gameSession = 
+                new GameSession(new GameEngine(10, 10, new Random(1L)));
+        Snake snake = gameSession.getGameEngine().getSnake();
+        
+        gameSession.requestDirection(MotionDirection.WEST);
+        assertEquals(StepOutcome.MOVED, gameSession.tick());
+        assertEquals(MotionDirection.EAST, snake.getDirection());
+        
+        // A reversal queued before a turn is skipped in favour of the turn.
+        gameSession.requestDirection(MotionDirection.WEST);
+        gameSession.requestDirection(MotionDirection.EAST);
+        gameSession.requestDirection(MotionDirection.SOUTH);
+        assertEquals(StepOutcome.MOVED, gameSession.tick());
+        assertEquals(MotionDirection.SOUTH, snake.getDirection());
+    }
+    
+    @Test
+    public void testBoundedAndCoalesced() {
+        DirectionInputQueue queue = new DirectionInputQueue(3);
+        assertEquals(4, queue.getCapacity());
+        
+        assertTrue(queue.offer(MotionDirection.NORTH));
+        assertTrue(queue.offer(MotionDirection.NORTH));
+        assertTrue(queue.offer(MotionDirection.EAST));
+        assertTrue(queue.offer(MotionDirection.NORTH));
+        assertTrue(queue.offer(MotionDirection.EAST));
+        assertFalse(queue.offer(MotionDirection.SOUTH));
+        
+        assertEquals(MotionDirection.NORTH, 
+                     queue.pollTurn(MotionDirection.EAST));
+        assertEquals(MotionDirection.EAST, 
+                     queue.pollTurn(MotionDirection.NORTH));
+        assertEquals(MotionDirection.NORTH, 
+                     queue.pollTurn(MotionDirection.EAST));
+        assertEquals(MotionDirection.EAST, 
+                     queue.pollTurn(MotionDirection.NORTH));
+        assertNull(queue.pollTurn(MotionDirection.EAST));
+        assertTrue(queue.isEmpty());
+    }
+    
+    @Test
+    public void testConcurrentProducerKeepsOrder() throws InterruptedException {
+        int count = 1_000_000;
+        DirectionInputQueue queue = new DirectionInputQueue(16);
+        
+        // Alternating between NORTH and EAST makes every direction a turn
+        // of the previous one, so none is skipped or coalesced.
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                MotionDirection direction = (i & 1) == 0 ? 
+                                            MotionDirection.NORTH : 
+                                            MotionDirection.EAST;
+                
+                while (!queue.offer(direction)) {
+                    Thread.yield();
+                }
+            }
+        });
+        
+        producer.start();
+        MotionDirection current = MotionDirection.EAST;
+        
+        for (int i = 0; i < count; i++) {
+            MotionDirection turn;
+            
+            while ((turn = queue.pollTurn(current)) == null) {
+                Thread.yield();
+            }
+            
+            assertTrue(DirectionInputQueue.isTurn(current, turn));
+            current = turn;
+        }
+        
+        producer.join();
+        assertTrue(queue.isEmpty());
+    }
+}
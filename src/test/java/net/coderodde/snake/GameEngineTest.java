@@ -0,0 +1,100 @@
+package net.coderodde.snake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameEngineTest {
+    
+    @Test
+    public void testRunsIntoWall() {
+        GameEngine gameEngine = new GameEngine(10, 10, new Random(1L));
+        List<StepOutcome> outcomes = new ArrayList<>();
+        gameEngine.addListener((engine, outcome) -> outcomes.add(outcome));
+        
+        // The head starts at (3, 0) and may move east six times.
+        for (int i = 0; i < 6; i++) {
+            assertFalse(gameEngine.step(null).isTerminal());
+        }
+        
+        assertEquals(9, gameEngine.getSnake().getHeadX());
+        assertEquals(StepOutcome.WALL_COLLISION, gameEngine.step(null));
+        assertTrue(gameEngine.isGameOver());
+        assertEquals(StepOutcome.WALL_COLLISION, 
+                     gameEngine.step(MotionDirection.SOUTH));
+        assertEquals(9, gameEngine.getSnake().getHeadX());
+        assertEquals(6L, gameEngine.getStepCount());
+        assertEquals(7, outcomes.size());
+    }
+    
+    @Test
+    public void testGrowsOnBerry() {
+        GameEngine gameEngine = new GameEngine(10, 10, new Random(2L));
+        
+        // Steer the head onto the berry row, then along the row.
+        while (gameEngine.getSnake().getHeadY() != gameEngine.getBerryY()) {
+            gameEngine.step(MotionDirection.SOUTH);
+        }
+        
+        int berryX = gameEngine.getBerryX();
+        int berryY = gameEngine.getBerryY();
+        MotionDirection direction = 
+                gameEngine.getSnake().getHeadX() < berryX ? 
+                MotionDirection.EAST : 
+                MotionDirection.WEST;
+        
+        while (!gameEngine.isBerryAt(gameEngine.getSnake().getHeadX(),
+                                     gameEngine.getSnake().getHeadY())) {
+            assertEquals(StepOutcome.MOVED, gameEngine.step(direction));
+        }
+        
+        assertEquals(StepOutcome.GREW, gameEngine.step(direction));
+        assertEquals(5, gameEngine.getSnake().size());
+        assertFalse(gameEngine.isBerryAt(berryX, berryY));
+        assertFalse(gameEngine.getSnake().occupiesPoint(
+                gameEngine.getBerryX(), 
+                gameEngine.getBerryY()));
+    }
+    
+    @Test
+    public void testFreeCellCountFollowsSteps() {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(3L));
+        SnakePolicy policy = new GreedySnakePolicy();
+        
+        while (!gameEngine.step(policy.chooseDirection(gameEngine))
+                          .isTerminal()) {
+            Snake snake = gameEngine.getSnake();
+            assertEquals(16 * 16 - snake.size(), 
+                         gameEngine.getFreeCellCount());
+            
+            // The head reaches the berry one step before the snake grows.
+            if (!gameEngine.isBerryAt(snake.getHeadX(), snake.getHeadY())) {
+                assertFalse(snake.occupiesPoint(gameEngine.getBerryX(), 
+                                                gameEngine.getBerryY()));
+            }
+        }
+    }
+    
+    @Test
+    public void testNoBerryOnFullBoard() {
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>();
+        
+        for (int x = 3; x >= 0; x--) {
+            snakeCompartmentList.add(
+                    new SnakeCompartment(MotionDirection.EAST, x, 0));
+        }
+        
+        Snake snake = new Snake(snakeCompartmentList, 
+                                MotionDirection.EAST, 
+                                4, 
+                                1);
+        GameEngine gameEngine = 
+                new GameEngine(new GameGrid(4, 1), snake, new Random(1L));
+        
+        assertEquals(0, gameEngine.getFreeCellCount());
+        assertEquals(-1, gameEngine.getBerryCell());
+        assertEquals(StepOutcome.WALL_COLLISION, gameEngine.step(null));
+    }
+}
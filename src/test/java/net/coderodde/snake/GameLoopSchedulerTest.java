@@ -0,0 +1,213 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameLoopSchedulerTest {
+    
+    @Test
+    public void testDeadlinesDoNotDrift() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(1_000_000_000L);
+        List<Long> deadlines = new CopyOnWriteArrayList<>();
+        // The pool runs each tick at once, moving the clock to its deadline.
+        ScheduledThreadPoolExecutor executor = 
+                new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, 
+                                               long delay, 
+                                               TimeUnit unit) {
+                long deadline = clock.get() + unit.toNanos(delay);
+                deadlines.add(deadline);
+                return super.schedule(() -> {
+                    clock.set(Math.max(clock.get(), deadline));
+                    command.run();
+                }, 0L, unit);
+            }
+        };
+        
+        GameSession gameSession = createSession();
+        gameSession.setStepDuration(5L);
+        // A tick taking 40% of the step would delay a relative schedule, and
+        // the fifth tick overruns the step.
+        gameSession.getGameEngine().addListener((gameEngine, outcome) -> {
+            clock.addAndGet(gameEngine.getStepCount() == 5L ? 
+                            7_000_000L : 
+                            2_000_000L);
+        });
+        
+        try (GameLoopScheduler gameLoopScheduler =
+                new GameLoopScheduler(executor, null, clock::get)) {
+            GameLoopScheduler.Registration registration =
+                    gameLoopScheduler.schedule(gameSession);
+            long timeout = System.currentTimeMillis() + 5000L;
+            
+            while (deadlines.size() < 20) {
+                assertTrue(System.currentTimeMillis() < timeout);
+                Thread.sleep(1L);
+            }
+            
+            registration.cancel();
+        }
+        
+        for (int i = 0; i < 20; i++) {
+            assertEquals(1_000_000_000L + (i + 1) * 5_000_000L, 
+                         (long) deadlines.get(i));
+        }
+        
+        // Only the tick after the overrun was late, by 2 milliseconds.
+        assertEquals(2_000_000L, 
+                     gameSession.getJitterHistogram().getMaximumNanos());
+    }
+    
+    @Test
+    public void testCancelStopsSession() throws InterruptedException {
+        GameSession gameSession = createSession();
+        
+        try (GameLoopScheduler gameLoopScheduler =
+                GameLoopScheduler.newSharedScheduler(1)) {
+            GameLoopScheduler.Registration registration =
+                    gameLoopScheduler.schedule(gameSession);
+            awaitTicks(gameSession, 3L);
+            registration.cancel();
+            assertTrue(gameSession.isStopped());
+            assertTicksStopped(gameSession);
+        }
+    }
+    
+    @Test
+    public void testCloseStopsSessions() throws InterruptedException {
+        GameSession idleSession = createSession();
+        GameSession tickingSession = createSession();
+        CountDownLatch tickEntered = new CountDownLatch(1);
+        AtomicBoolean tickReleased = new AtomicBoolean();
+        tickingSession.getGameEngine().addListener((gameEngine, outcome) -> {
+            tickEntered.countDown();
+            
+            while (!tickReleased.get()) {
+                Thread.yield();
+            }
+        });
+        
+        GameLoopScheduler gameLoopScheduler =
+                GameLoopScheduler.newSharedScheduler(2);
+        idleSession.setStepDuration(60_000L);
+        gameLoopScheduler.schedule(idleSession);
+        gameLoopScheduler.schedule(tickingSession);
+        assertTrue(tickEntered.await(5L, TimeUnit.SECONDS));
+        
+        // The ticking session is closed in the middle of a tick.
+        gameLoopScheduler.close();
+        tickReleased.set(true);
+        
+        assertTrue(idleSession.isStopped());
+        assertTrue(tickingSession.isStopped());
+        assertEquals(0L, getTickCount(idleSession));
+        assertTicksStopped(tickingSession);
+        assertEquals(1L, getTickCount(tickingSession));
+    }
+    
+    @Test
+    public void testThreadPerSession() throws InterruptedException {
+        GameSession gameSession = createSession();
+        
+        try (GameLoopScheduler gameLoopScheduler =
+                GameLoopScheduler.newThreadPerSessionScheduler(Thread::new)) {
+            GameLoopScheduler.Registration registration =
+                    gameLoopScheduler.schedule(gameSession);
+            awaitTicks(gameSession, 3L);
+            
+            // Closing leaves the sessions on their own threads running.
+            gameLoopScheduler.close();
+            long tickCount = getTickCount(gameSession);
+            awaitTicks(gameSession, tickCount + 2L);
+            
+            registration.cancel();
+            assertTicksStopped(gameSession);
+        }
+    }
+    
+    @Test
+    public void testFailingTickStopsSession() throws InterruptedException {
+        GameSession gameSession = createSession();
+        UncheckedIOException failure =
+                new UncheckedIOException(new IOException("Disk full."));
+        gameSession.getGameEngine().addListener((gameEngine, outcome) -> {
+            if (gameEngine.getStepCount() == 3L) {
+                throw failure;
+            }
+        });
+        
+        AtomicReference<Throwable> reported = new AtomicReference<>();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler(
+                    (failingThread, throwable) -> reported.set(throwable));
+            return thread;
+        };
+        
+        try (GameLoopScheduler gameLoopScheduler =
+                GameLoopScheduler.newSharedScheduler(1, threadFactory)) {
+            gameLoopScheduler.schedule(gameSession);
+            long timeout = System.currentTimeMillis() + 5000L;
+            
+            while (reported.get() == null
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(1L);
+            }
+            
+            assertSame(failure, reported.get());
+            assertSame(failure, gameSession.getFailure());
+            assertTrue(gameSession.isStopped());
+            assertEquals(3L, getTickCount(gameSession));
+        }
+    }
+    
+    private static GameSession createSession() {
+        GameSession gameSession =
+                new GameSession(new GameEngine(16, 16, new Random(5L)));
+        gameSession.setAutopilot(new HamiltonianSnakePolicy());
+        gameSession.setStepDuration(1L);
+        return gameSession;
+    }
+    
+    /**
+     * Returns the number of ticks run, including the ticks of a paused
+     * session.
+     */
+    private static long getTickCount(GameSession gameSession) {
+        return gameSession.getJitterHistogram().getTotalCount();
+    }
+    
+    private static void awaitTicks(GameSession gameSession, long tickCount)
+            throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000L;
+        
+        while (getTickCount(gameSession) < tickCount) {
+            assertTrue(System.currentTimeMillis() < timeout);
+            Thread.sleep(1L);
+        }
+    }
+    
+    private static void assertTicksStopped(GameSession gameSession)
+            throws InterruptedException {
+        // Let a tick in progress finish.
+        Thread.sleep(20L);
+        long tickCount = getTickCount(gameSession);
+        Thread.sleep(50L);
+        assertEquals(tickCount, getTickCount(gameSession));
+    }
+}
@@ -0,0 +1,76 @@
+package net.coderodde.snake;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameMetricsTest {
+    
+    @Test
+    public void testLogarithmicHistogram() {
+        LatencyHistogram latencyHistogram = 
+                LatencyHistogram.createLogarithmic(5);
+        assertTrue(latencyHistogram.isLogarithmic());
+        
+        for (long nanos = 0L; nanos < 64L; nanos++) {
+            latencyHistogram.record(nanos);
+        }
+        
+        // The values below 64 have buckets of their own.
+        assertEquals(32L, latencyHistogram.getPercentileNanos(50.0));
+        
+        for (long nanos = 1L; nanos < 1L << 40; nanos = nanos * 3 + 1) {
+            latencyHistogram = LatencyHistogram.createLogarithmic(5);
+            latencyHistogram.record(nanos);
+            latencyHistogram.record(1L << 41);
+            long bucketEnd = latencyHistogram.getPercentileNanos(50.0);
+            assertTrue(bucketEnd > nanos);
+            assertTrue(bucketEnd - nanos <= Math.max(1L, nanos / 32));
+        }
+        
+        latencyHistogram = LatencyHistogram.createLogarithmic(5);
+        latencyHistogram.record(100_000L);
+        latencyHistogram.record(200_000L);
+        // The bucket of 100,000 ns is 2,048 ns wide.
+        assertEquals(100_352L, latencyHistogram.getPercentileNanos(50.0));
+        assertEquals(200_000L, latencyHistogram.getPercentileNanos(100.0));
+    }
+    
+    @Test
+    public void testEngineMetrics() throws JMException {
+        GameSession gameSession = 
+                new GameSession(new GameEngine(16, 16, new Random(5L)));
+        gameSession.setAutopilot(new HamiltonianSnakePolicy());
+        GameMetrics gameMetrics = new GameMetrics(gameSession);
+        int berriesEaten = 0;
+        
+        for (int i = 0; i < 1000; i++) {
+            if (gameSession.tick() == StepOutcome.GREW) {
+                berriesEaten++;
+            }
+        }
+        
+        assertEquals(1000L, gameMetrics.getStepCount());
+        assertEquals(berriesEaten, gameMetrics.getBerrySpawnCount());
+        assertEquals(0L, gameMetrics.getFreeCellIndexRebuildCount());
+        assertTrue(gameMetrics.getStepP50Nanos() <= 
+                   gameMetrics.getStepMaximumNanos());
+        
+        String[] rows = gameMetrics.dumpCsv().split("\n");
+        assertEquals(GameMetrics.CSV_HEADER, rows[0]);
+        assertEquals(6, rows.length);
+        assertEquals("step", rows[1].split(",")[1]);
+        assertEquals("1000", rows[1].split(",")[2]);
+        
+        ObjectName objectName = gameMetrics.registerMBean("test");
+        assertEquals(1000L, ManagementFactory.getPlatformMBeanServer()
+                                             .getAttribute(objectName, 
+                                                           "StepCount"));
+        gameMetrics.unregisterMBean();
+        assertFalse(ManagementFactory.getPlatformMBeanServer()
+                                     .isRegistered(objectName));
+    }
+}
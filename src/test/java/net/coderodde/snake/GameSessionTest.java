@@ -0,0 +1,74 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameSessionTest {
+    
+    @Test
+    public void testSpeedCurveShrinksStepDuration() {
+        GameSession gameSession = 
+                new GameSession(new GameEngine(16, 16, new Random(5L)));
+        SpeedCurve speedCurve = new SpeedCurve(100_000_000L, 1_000_000L, 0.5);
+        gameSession.setSpeedCurve(speedCurve);
+        gameSession.setAutopilot(new HamiltonianSnakePolicy());
+        assertEquals(100_000_000L, gameSession.getStepDurationNanos());
+        
+        int berriesEaten = 0;
+        
+        while (berriesEaten < 10) {
+            if (gameSession.tick() == StepOutcome.GREW) {
+                berriesEaten++;
+                assertEquals(speedCurve.getStepDurationNanos(berriesEaten), 
+                             gameSession.getStepDurationNanos());
+            }
+        }
+        
+        // 100 ms halved ten times falls below the minimum of 1 ms.
+        assertEquals(1_000_000L, gameSession.getStepDurationNanos());
+    }
+    
+    @Test
+    public void testMinimumStepDuration() {
+        GameSession gameSession = 
+                new GameSession(new GameEngine(16, 16, new Random(5L)));
+        gameSession.setStepDuration(1L);
+        assertEquals(1_000_000L, gameSession.getStepDurationNanos());
+        
+        try {
+            gameSession.setStepDurationNanos(999_999L);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals(1_000_000L, gameSession.getStepDurationNanos());
+        }
+    }
+    
+    @Test
+    public void testJitterHistogram() throws IOException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram(10_000L, 10);
+        
+        for (int i = 0; i < 98; i++) {
+            latencyHistogram.record(i < 50 ? -5L : 15_000L);
+        }
+        
+        latencyHistogram.record(55_000L);
+        latencyHistogram.record(1_000_000L);
+        
+        assertEquals(100L, latencyHistogram.getTotalCount());
+        assertEquals(10_000L, latencyHistogram.getPercentileNanos(50.0));
+        assertEquals(20_000L, latencyHistogram.getPercentileNanos(98.0));
+        assertEquals(60_000L, latencyHistogram.getPercentileNanos(99.0));
+        assertEquals(1_000_000L, latencyHistogram.getPercentileNanos(100.0));
+        
+        StringBuilder csv = new StringBuilder();
+        latencyHistogram.writeCsv(csv);
+        assertEquals(LatencyHistogram.CSV_HEADER + "\n" + 
+                     "0.0,10.0,50\n" + 
+                     "10.0,20.0,48\n" + 
+                     "50.0,60.0,1\n" + 
+                     "100.0,1000.0,1\n", 
+                     csv.toString());
+    }
+}
@@ -0,0 +1,43 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameSnapshotExchangeTest {
+    
+    @Test
+    public void testHeldSnapshotIsNotOverwritten() {
+        GameEngine gameEngine = new GameEngine(10, 10, new Random(1L));
+        GameSnapshotExchange exchange = new GameSnapshotExchange(gameEngine);
+        gameEngine.addListener(exchange);
+        
+        GameSnapshot initial = exchange.acquire();
+        assertEquals(0L, initial.getStepCount());
+        assertEquals(3, initial.getBodyCell(0));
+        assertTrue(initial.occupies(0, 0));
+        assertSame(initial, exchange.acquire());
+        
+        gameEngine.step(null);
+        GameSnapshot held = exchange.acquire();
+        assertEquals(1L, held.getStepCount());
+        assertEquals(0, held.getVacatedCell());
+        
+        // The writer cycles through the other two buffers only.
+        for (int i = 0; i < 4; i++) {
+            gameEngine.step(null);
+        }
+        
+        assertEquals(1L, held.getStepCount());
+        assertEquals(4, held.getBodyCell(0));
+        assertFalse(held.occupies(0, 0));
+        assertTrue(held.occupies(1, 0));
+        
+        GameSnapshot latest = exchange.acquire();
+        assertEquals(5L, latest.getStepCount());
+        assertEquals(8, latest.getBodyCell(0));
+        assertEquals(4, latest.getLength());
+        assertFalse(latest.occupies(4, 0));
+        assertTrue(latest.occupies(5, 0));
+    }
+}
@@ -0,0 +1,204 @@
+package net.coderodde.snake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameStateCodecTest {
+    
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        GameEngine gameEngine = new GameEngine(24, 16, new Random(9L));
+        gameEngine.getGrid().setCell(20, 10, GridCell.WALL);
+        GameSession gameSession = new GameSession(gameEngine);
+        gameSession.setStepDuration(250L);
+        gameSession.setPause(true);
+        play(gameEngine, 150);
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GameStateCodec.save(gameSession, outputStream);
+        GameSession restored = GameStateCodec.load(
+                new ByteArrayInputStream(outputStream.toByteArray()), 
+                new Random());
+        
+        assertSameState(gameSession, restored);
+        assertEquals(GridCell.WALL, 
+                     restored.getGameEngine().getGrid().getCell(20, 10));
+    }
+    
+    @Test
+    public void testSnapshotsAndDeltas() throws IOException {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(4L));
+        GameSession gameSession = new GameSession(gameEngine);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        GameStateRecorder gameStateRecorder = 
+                new GameStateRecorder(gameSession, outputStream, 7, 3);
+        play(gameEngine, 200);
+        gameSession.setStepDuration(400L);
+        gameStateRecorder.close();
+        
+        GameSession restored = GameStateCodec.load(
+                new ByteArrayInputStream(outputStream.toByteArray()), 
+                new Random());
+        assertSameState(gameSession, restored);
+    }
+    
+    @Test
+    public void testRejectsNegativeTickCount() throws IOException {
+        ByteArrayOutputStream outputStream = saveWithTrailer(
+                GameStateCodec.DELTA_CHUNK, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        assertLoadFails(outputStream, "Corrupted tick count -1.");
+    }
+    
+    @Test
+    public void testRejectsTickCountBeyondInput() throws IOException {
+        // Integer.MAX_VALUE ticks followed by no data.
+        ByteArrayOutputStream outputStream = saveWithTrailer(
+                GameStateCodec.DELTA_CHUNK, 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        assertLoadFails(outputStream, 
+                        "The saved game ended after 0 of 536870912 bytes.");
+    }
+    
+    @Test
+    public void testRejectsHugeGrid() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = 
+                new DataOutputStream(outputStream);
+        GameStateCodec.writeHeader(dataOutputStream);
+        dataOutputStream.writeByte(GameStateCodec.SNAPSHOT_CHUNK);
+        dataOutputStream.writeInt(65536);
+        dataOutputStream.writeInt(32768);
+        assertLoadFails(outputStream, "Corrupted grid dimensions.");
+    }
+    
+    @Test
+    public void testRejectsBerryOnSnake() throws IOException {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(4L));
+        gameEngine.placeBerry(gameEngine.getSnake().getTailCell());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GameStateCodec.save(new GameSession(gameEngine), outputStream);
+        assertLoadFails(outputStream, 
+                        "The berry cell " + 
+                        gameEngine.getSnake().getTailCell() + 
+                        " is not free.");
+    }
+    
+    @Test
+    public void testRejectsSnakeOnWall() throws IOException {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(4L));
+        int tailCell = gameEngine.getSnake().getTailCell();
+        gameEngine.getGrid().setCell(tailCell % 16, 
+                                     tailCell / 16, 
+                                     GridCell.WALL);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GameStateCodec.save(new GameSession(gameEngine), outputStream);
+        assertLoadFails(outputStream, 
+                        "The snake cell " + tailCell + " is on a wall.");
+    }
+    
+    @Test
+    public void testRejectsDeltaBerryOnWall() throws IOException {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(4L));
+        gameEngine.getGrid().setCell(8, 8, GridCell.WALL);
+        assertLoadFails(saveWithGrowingDelta(gameEngine, 8 * 16 + 8),
+                        "The berry cell 136 is not free.");
+    }
+    
+    @Test
+    public void testRejectsDeltaBerryOnSnake() throws IOException {
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(4L));
+        // The head is in the cell 6 after the growth.
+        assertLoadFails(saveWithGrowingDelta(gameEngine, 6),
+                        "The berry cell 6 is not free.");
+    }
+    
+    /**
+     * Saves a snapshot with the berry under the head, after two steps east,
+     * followed by a delta chunk of a single step east that eats it and 
+     * places the next berry in the given cell.
+     */
+    private static ByteArrayOutputStream saveWithGrowingDelta(
+            GameEngine gameEngine, 
+            int berryCell) throws IOException {
+        // Leave room behind the tail for the growth.
+        gameEngine.placeBerry(-1);
+        gameEngine.step(MotionDirection.EAST);
+        gameEngine.step(MotionDirection.EAST);
+        gameEngine.placeBerry(gameEngine.getSnake().getHeadCell());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GameSession gameSession = new GameSession(gameEngine);
+        GameStateCodec.save(gameSession, outputStream);
+        DataOutputStream dataOutputStream = 
+                new DataOutputStream(outputStream);
+        dataOutputStream.writeByte(GameStateCodec.DELTA_CHUNK);
+        dataOutputStream.writeByte(1);
+        dataOutputStream.writeByte(MotionDirection.EAST.ordinal());
+        dataOutputStream.writeByte(1);
+        dataOutputStream.writeInt(berryCell);
+        dataOutputStream.writeLong(gameSession.getStepDurationNanos());
+        dataOutputStream.writeBoolean(false);
+        return outputStream;
+    }
+    
+    /**
+     * Saves a fresh game followed by the given bytes.
+     */
+    private static ByteArrayOutputStream saveWithTrailer(int... trailer) 
+            throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GameStateCodec.save(
+                new GameSession(new GameEngine(16, 16, new Random(4L))),
+                outputStream);
+        
+        for (int b : trailer) {
+            outputStream.write(b);
+        }
+        
+        return outputStream;
+    }
+    
+    private static void assertLoadFails(ByteArrayOutputStream outputStream,
+                                        String message) {
+        try {
+            GameStateCodec.load(
+                    new ByteArrayInputStream(outputStream.toByteArray()), 
+                    new Random());
+            fail("The corrupted saved game was loaded.");
+        } catch (IOException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+    
+    private static void play(GameEngine gameEngine, int steps) {
+        SnakePolicy policy = new GreedySnakePolicy();
+        
+        for (int i = 0; i < steps && !gameEngine.isGameOver(); i++) {
+            gameEngine.step(policy.chooseDirection(gameEngine));
+        }
+    }
+    
+    private static void assertSameState(GameSession expected, 
+                                        GameSession actual) {
+        GameEngine expectedEngine = expected.getGameEngine();
+        GameEngine actualEngine = actual.getGameEngine();
+        assertEquals(expectedEngine.getSnake().getSnakeCompartmentList(),
+                     actualEngine.getSnake().getSnakeCompartmentList());
+        assertEquals(expectedEngine.getSnake().getDirection(),
+                     actualEngine.getSnake().getDirection());
+        assertEquals(expectedEngine.getBerryCell(), 
+                     actualEngine.getBerryCell());
+        assertEquals(expectedEngine.getStepCount(), 
+                     actualEngine.getStepCount());
+        assertEquals(expectedEngine.isGameOver(), actualEngine.isGameOver());
+        assertEquals(expectedEngine.getFreeCellCount(), 
+                     actualEngine.getFreeCellCount());
+        assertEquals(expected.getStepDurationNanos(), 
+                     actual.getStepDurationNanos());
+        assertEquals(expected.isPaused(), actual.isPaused());
+    }
+}
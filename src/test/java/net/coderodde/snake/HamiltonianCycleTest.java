@@ -0,0 +1,88 @@
+package net.coderodde.snake;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class HamiltonianCycleTest {
+    
+    @Test
+    public void testCycleAvoidsWalls() {
+        GameGrid grid = new GameGrid(8, 6);
+        
+        for (int y = 2; y < 4; y++) {
+            for (int x = 4; x < 6; x++) {
+                grid.setCell(x, y, GridCell.WALL);
+            }
+        }
+        
+        HamiltonianCycle cycle = new HamiltonianCycle(grid);
+        assertEquals(8 * 6 - 4, cycle.length());
+        assertEquals(-1, cycle.getPosition(2 * 8 + 4));
+        
+        for (int i = 0; i < cycle.length(); i++) {
+            int cell = cycle.getCell(i);
+            int nextCell = cycle.getCell((i + 1) % cycle.length());
+            assertEquals(i, cycle.getPosition(cell));
+            assertEquals(1, Math.abs(cell % 8 - nextCell % 8) + 
+                            Math.abs(cell / 8 - nextCell / 8));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsWallSplittingBlock() {
+        GameGrid grid = new GameGrid(8, 6);
+        grid.setCell(3, 3, GridCell.WALL);
+        new HamiltonianCycle(grid);
+    }
+    
+    @Test
+    public void testPolicyFillsBoard() {
+        for (long seed = 0L; seed < 10L; seed++) {
+            GameEngine gameEngine = new GameEngine(16, 16, new Random(seed));
+            assertEquals(16 * 16, fill(gameEngine));
+        }
+    }
+    
+    @Test
+    public void testPolicyFillsBoardWithWalls() {
+        GameGrid grid = new GameGrid(12, 10);
+        
+        for (int x = 4; x < 10; x++) {
+            grid.setCell(x, 4, GridCell.WALL);
+            grid.setCell(x, 5, GridCell.WALL);
+        }
+        
+        GameEngine gameEngine = 
+                new GameEngine(grid, 
+                               new HamiltonianCycle(grid).createSnake(4), 
+                               new Random(1L));
+        assertEquals(12 * 10 - 12, fill(gameEngine));
+    }
+    
+    @Test
+    public void testPolicyFillsLargeBoardFromLongSnake() {
+        GameGrid grid = new GameGrid(200, 200);
+        HamiltonianCycle cycle = new HamiltonianCycle(grid);
+        GameEngine gameEngine = 
+                new GameEngine(grid, 
+                               cycle.createSnake(cycle.length() - 100), 
+                               new Random(2L));
+        assertEquals(200 * 200, fill(gameEngine));
+    }
+    
+    private static int fill(GameEngine gameEngine) {
+        SnakePolicy policy = new HamiltonianSnakePolicy();
+        
+        StepOutcome outcome;
+        
+        do {
+            outcome = gameEngine.step(policy.chooseDirection(gameEngine));
+        } while (!outcome.isTerminal());
+        
+        // The last growth fills the board, leaving only the tail ahead.
+        assertEquals(StepOutcome.SELF_COLLISION, outcome);
+        assertEquals(0, gameEngine.getFreeCellCount());
+        return gameEngine.getSnake().size();
+    }
+}
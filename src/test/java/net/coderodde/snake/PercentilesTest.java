@@ -0,0 +1,44 @@
+package net.coderodde.snake;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PercentilesTest {
+    
+    @Test
+    public void testNearestRank() {
+        assertEquals(1L, Percentiles.getNearestRank(0.0, 10L));
+        assertEquals(1L, Percentiles.getNearestRank(10.0, 10L));
+        assertEquals(2L, Percentiles.getNearestRank(10.1, 10L));
+        assertEquals(5L, Percentiles.getNearestRank(50.0, 10L));
+        assertEquals(10L, Percentiles.getNearestRank(99.9, 10L));
+        assertEquals(10L, Percentiles.getNearestRank(100.0, 10L));
+        assertEquals(0L, Percentiles.getNearestRank(50.0, 0L));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsPercentileAboveRange() {
+        Percentiles.getNearestRank(100.5, 10L);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNaN() {
+        Percentiles.getNearestRank(Double.NaN, 10L);
+    }
+    
+    @Test
+    public void testFrameTimesWrapAround() {
+        FrameTimeStatistics frameTimeStatistics = 
+                new FrameTimeStatistics(16_000_000L);
+        
+        for (long frame = 1L; frame <= 1000L; frame++) {
+            frameTimeStatistics.record(frame);
+        }
+        
+        // Only the last 512 frames, 489 to 1000, are kept.
+        assertEquals(1000L, frameTimeStatistics.getFrameCount());
+        assertEquals(489L, frameTimeStatistics.getPercentile(0.0));
+        assertEquals(744L, frameTimeStatistics.getPercentile(50.0));
+        assertEquals(1000L, frameTimeStatistics.getPercentile(100.0));
+    }
+}
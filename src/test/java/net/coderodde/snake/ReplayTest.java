@@ -0,0 +1,52 @@
+package net.coderodde.snake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+    
+    @Test
+    public void testReplayReproducesGame() throws IOException {
+        ReplayRecorder replayRecorder = new ReplayRecorder(20, 15, 7L);
+        GameEngine gameEngine = replayRecorder.getGameEngine();
+        SnakePolicy policy = new GreedySnakePolicy();
+        Random random = new Random(11L);
+        MotionDirection[] directions = MotionDirection.values();
+        
+        while (!gameEngine.isGameOver()) {
+            // Mix in random inputs, including reversals.
+            MotionDirection input = random.nextInt(8) == 0 ?
+                    directions[random.nextInt(4)] : 
+                    policy.chooseDirection(gameEngine);
+            gameEngine.step(input);
+        }
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        replayRecorder.toReplay().writeTo(outputStream);
+        Replay replay = Replay.readFrom(
+                new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(replayRecorder.toReplay(), replay);
+        assertEquals(replayRecorder.getTickCount(), replay.getTickCount());
+        
+        ReplayPlayer replayPlayer = new ReplayPlayer(replay);
+        GameEngine replayedEngine = replayPlayer.getGameEngine();
+        replayPlayer.playToEnd();
+        
+        assertTrue(replayedEngine.isGameOver());
+        assertEquals(gameEngine.getStepCount(), 
+                     replayedEngine.getStepCount());
+        assertEquals(gameEngine.getBerryCell(), 
+                     replayedEngine.getBerryCell());
+        assertEquals(gameEngine.getSnake().getSnakeCompartmentList(),
+                     replayedEngine.getSnake().getSnakeCompartmentList());
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsForeignData() throws IOException {
+        Replay.readFrom(new ByteArrayInputStream(new byte[32]));
+    }
+}
@@ -10,38 +10,86 @@ public class SnakeTest {
     @Test
     public void test() {
         List<SnakeCompartment> snakeCompartmentList = new ArrayList<>();
-        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.WEST, 0, 0));
         snakeCompartmentList.add(new SnakeCompartment(MotionDirection.WEST, 1, 0));
         snakeCompartmentList.add(new SnakeCompartment(MotionDirection.WEST, 2, 0));
-        GridCell[][] grid = new GridCell[4][4];
+        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.WEST, 3, 0));
+        GameGrid grid = new GameGrid(4, 4);
         
-        for (int y = 0; y < grid.length; y++) {
-            for (int x = 0; x < grid[0].length; x++) {
-                grid[y][x] = GridCell.TRAVERSABLE;
-            }
-        }
-        
-        Snake snake = new Snake(snakeCompartmentList, MotionDirection.WEST);
+        Snake snake = new Snake(snakeCompartmentList, MotionDirection.WEST, 4, 4);
         snake.makeStep(grid);
         
         List<SnakeCompartment> list = snake.getSnakeCompartmentList();
-        assertEquals(new SnakeCompartment(MotionDirection.WEST, -1, 0), list.get(0));
+        assertEquals(new SnakeCompartment(MotionDirection.WEST, 0, 0), list.get(0));
+        assertEquals(new SnakeCompartment(MotionDirection.WEST, 1, 0), list.get(1));
+        assertEquals(new SnakeCompartment(MotionDirection.WEST, 2, 0), list.get(2));
+        
+        snake.setDirection(MotionDirection.SOUTH);
+        snake.makeStep(grid);
+        
+        list = snake.getSnakeCompartmentList();
+        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, 0, 1), list.get(0));
         assertEquals(new SnakeCompartment(MotionDirection.WEST, 0, 0), list.get(1));
         assertEquals(new SnakeCompartment(MotionDirection.WEST, 1, 0), list.get(2));
         
-        snake.setDirection(MotionDirection.SOUTH);
         snake.makeStep(grid);
         
         list = snake.getSnakeCompartmentList();
-        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, -1, 1), list.get(0));
-        assertEquals(new SnakeCompartment(MotionDirection.WEST, -1, 0), list.get(1));
+        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, 0, 2), list.get(0));
+        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, 0, 1), list.get(1));
         assertEquals(new SnakeCompartment(MotionDirection.WEST, 0, 0), list.get(2));
+    }
+    
+    @Test
+    public void testOccupancyFollowsSteps() {
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>();
+        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.EAST, 2, 1));
+        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.EAST, 1, 1));
+        GameGrid grid = new GameGrid(4, 4);
+        
+        Snake snake = new Snake(snakeCompartmentList, MotionDirection.EAST, 4, 4);
+        assertTrue(snake.occupiesPoint(1, 1));
+        assertTrue(snake.occupiesPoint(2, 1));
+        assertFalse(snake.occupiesPoint(3, 1));
+        assertFalse(snake.occupiesPoint(-1, 1));
         
         snake.makeStep(grid);
+        assertFalse(snake.occupiesPoint(1, 1));
+        assertTrue(snake.occupiesPoint(2, 1));
+        assertTrue(snake.occupiesPoint(3, 1));
         
-        list = snake.getSnakeCompartmentList();
-        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, -1, 2), list.get(0));
-        assertEquals(new SnakeCompartment(MotionDirection.SOUTH, -1, 1), list.get(1));
-        assertEquals(new SnakeCompartment(MotionDirection.WEST, -1, 0), list.get(2));
+        snake.grow();
+        assertTrue(snake.occupiesPoint(1, 1));
+        
+        snake.setDirection(MotionDirection.SOUTH);
+        snake.makeStep(grid);
+        assertTrue(snake.occupiesPoint(3, 2));
+        assertFalse(snake.occupiesPoint(1, 1));
+        assertFalse(snake.eatsHimself());
+    }
+    
+    @Test
+    public void testBodyGrowsPastInitialCapacity() {
+        List<SnakeCompartment> snakeCompartmentList = new ArrayList<>();
+        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.EAST, 1, 0));
+        snakeCompartmentList.add(new SnakeCompartment(MotionDirection.EAST, 0, 0));
+        GameGrid grid = new GameGrid(100, 2);
+        
+        Snake snake = new Snake(snakeCompartmentList, MotionDirection.EAST, 100, 2);
+        
+        for (int i = 0; i < 80; i++) {
+            snake.makeStep(grid);
+            snake.grow();
+        }
+        
+        assertEquals(82, snake.size());
+        assertEquals(81, snake.getHeadX());
+        assertEquals(0, snake.getHeadY());
+        
+        List<SnakeCompartment> list = snake.getSnakeCompartmentList();
+        
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(new SnakeCompartment(MotionDirection.EAST, 81 - i, 0), 
+                         list.get(i));
+        }
     }
 }
@@ -0,0 +1,124 @@
+package net.coderodde.snake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class TickLogTest {
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Test
+    public void testLogsAndRecoversTicks() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("ticks.log");
+        GameEngine gameEngine = new GameEngine(16, 16, new Random(5L));
+        SnakePolicy policy = new GreedySnakePolicy();
+        
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            gameEngine.addListener(tickLog);
+            
+            while (!gameEngine.isGameOver()) {
+                gameEngine.step(policy.chooseDirection(gameEngine));
+            }
+            
+            assertEquals(gameEngine.getStepCount() + 1, 
+                         tickLog.getTickCount());
+        }
+        
+        long tickCount = gameEngine.getStepCount() + 1;
+        
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            assertEquals(tickCount, tickLog.getTickCount());
+            long last = tickCount - 1;
+            assertTrue(tickLog.getOutcome(last).isTerminal());
+            assertEquals(gameEngine.getSnake().getHeadCell(), 
+                         tickLog.getHeadCell(last));
+            assertEquals(gameEngine.getBerryCell(), 
+                         tickLog.getBerryCell(last));
+            assertEquals(gameEngine.getSnake().size(), 
+                         tickLog.getLength(last));
+            assertEquals(gameEngine.getSnake().getDirection(), 
+                         tickLog.getDirection(last));
+        }
+        
+        // Simulate a crash that lost the last record.
+        try (FileChannel fileChannel = 
+                FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long offset = 64L + (tickCount - 1) * TickLog.RECORD_SIZE;
+            fileChannel.write(ByteBuffer.allocate(TickLog.RECORD_SIZE), 
+                              offset);
+        }
+        
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            assertEquals(tickCount - 1, tickLog.getTickCount());
+        }
+    }
+    
+    @Test
+    public void testStaleRecordsStayLost() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("ticks.log");
+        
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            for (int i = 0; i < 100; i++) {
+                tickLog.append(MotionDirection.EAST, 
+                               StepOutcome.MOVED, 
+                               i, 
+                               0, 
+                               4);
+            }
+        }
+        
+        // A crash loses the record 50 but not the ones after it.
+        clearRecord(path, 50L);
+        
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            assertEquals(50L, tickLog.getTickCount());
+            
+            for (int i = 0; i < 5; i++) {
+                tickLog.append(MotionDirection.SOUTH, 
+                               StepOutcome.GREW, 
+                               i, 
+                               0, 
+                               5);
+            }
+        }
+        
+        // The stale records from 55 on are not part of the log.
+        try (TickLog tickLog = TickLog.open(path, 16, 16)) {
+            assertEquals(55L, tickLog.getTickCount());
+            assertEquals(StepOutcome.GREW, tickLog.getOutcome(54L));
+            
+            try {
+                tickLog.getOutcome(55L);
+                fail();
+            } catch (IndexOutOfBoundsException ex) {
+                assertEquals("The tick 55 is not within [0, 55).", 
+                             ex.getMessage());
+            }
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsOtherGrid() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("ticks.log");
+        TickLog.open(path, 16, 16).close();
+        TickLog.open(path, 17, 16);
+    }
+    
+    private static void clearRecord(Path path, long tick) throws IOException {
+        try (FileChannel fileChannel = 
+                FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long offset = 64L + tick * TickLog.RECORD_SIZE;
+            fileChannel.write(ByteBuffer.allocate(TickLog.RECORD_SIZE), 
+                              offset);
+        }
+    }
+}